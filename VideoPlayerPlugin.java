@@ -14,6 +14,9 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +32,11 @@ public class VideoPlayerPlugin extends JavaPlugin implements TabCompleter {
     private static final List<String> SUPPORTED_FORMATS = Arrays.asList("m3u8", "flv", "default");
     // 命令关键词（用于Tab补全）
     private static final List<String> COMMAND_KEYWORDS = Arrays.asList("stop", "all");
+    // 播放位置同步包的发送间隔（tick，20tick=1秒）；客户端masterClock=server时据此对齐进度
+    private static final long SYNC_INTERVAL_TICKS = 20L;
+
+    // 正在播放的玩家 → 播放开始时刻（System.nanoTime）
+    private final Map<UUID, Long> playStartNanos = new ConcurrentHashMap<>();
 
     @Override
     public void onEnable() {
@@ -43,6 +51,9 @@ public class VideoPlayerPlugin extends JavaPlugin implements TabCompleter {
         getCommand("vstop").setExecutor(this);
         getCommand("vstop").setTabCompleter(this);
 
+        // 定期向正在播放的玩家下发播放位置
+        getServer().getScheduler().runTaskTimer(this, this::sendPositionSync, SYNC_INTERVAL_TICKS, SYNC_INTERVAL_TICKS);
+
         getLogger().info("========== 视频播放器服务端插件已启用 ==========");
         getLogger().info("通道已注册：" + CHANNEL);
         getLogger().info("使用 /vplay 查看帮助信息，支持Tab补全");
@@ -55,6 +66,7 @@ public class VideoPlayerPlugin extends JavaPlugin implements TabCompleter {
     public void onDisable() {
         // 注销插件消息通道
         getServer().getMessenger().unregisterOutgoingPluginChannel(this);
+        playStartNanos.clear();
         getLogger().info("视频播放器服务端插件已禁用");
     }
 
@@ -301,9 +313,11 @@ public class VideoPlayerPlugin extends JavaPlugin implements TabCompleter {
             dos.writeDouble(endY);
             dos.writeDouble(endZ);
             dos.writeDouble(yaw); // 旋转角
+            dos.writeLong(0L); // 播放位置（微秒）：从头开始
 
             byte[] packetData = baos.toByteArray();
             player.sendPluginMessage(this, CHANNEL, packetData);
+            playStartNanos.put(player.getUniqueId(), System.nanoTime());
             getLogger().info("向玩家 " + player.getName() + " 发送播放数据包，大小：" + packetData.length + " 字节");
 
         } catch (IOException e) {
@@ -329,9 +343,11 @@ public class VideoPlayerPlugin extends JavaPlugin implements TabCompleter {
             dos.writeDouble(0.0);
             dos.writeDouble(0.0);
             dos.writeDouble(0.0); // 默认旋转角
+            dos.writeLong(-1L); // 无播放位置
 
             byte[] packetData = baos.toByteArray();
             player.sendPluginMessage(this, CHANNEL, packetData);
+            playStartNanos.remove(player.getUniqueId());
             getLogger().info("向玩家 " + player.getName() + " 发送停止数据包，大小：" + packetData.length + " 字节");
 
         } catch (IOException e) {
@@ -339,6 +355,42 @@ public class VideoPlayerPlugin extends JavaPlugin implements TabCompleter {
         }
     }
 
+    /**
+     * 向所有正在播放的玩家发送播放位置同步包（定时任务，主线程）；已下线的玩家不再跟踪
+     */
+    private void sendPositionSync() {
+        long now = System.nanoTime();
+        for (Map.Entry<UUID, Long> entry : playStartNanos.entrySet()) {
+            Player player = Bukkit.getPlayer(entry.getKey());
+            if (player == null || !player.isOnline()) {
+                playStartNanos.remove(entry.getKey());
+                continue;
+            }
+            sendVideoSyncData(player, (now - entry.getValue()) / 1_000L);
+        }
+    }
+
+    /**
+     * 发送播放位置同步数据包（命令类型2），字段布局与播放/停止包一致，每秒一次故不打印日志
+     */
+    private void sendVideoSyncData(Player player, long positionUs) {
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
+             DataOutputStream dos = new DataOutputStream(baos)) {
+
+            dos.writeByte(2); // 命令类型：2=同步播放位置
+            writeMCString(dos, "");
+            writeMCString(dos, "");
+            for (int i = 0; i < 7; i++) {
+                dos.writeDouble(0.0); // 坐标与旋转角占位
+            }
+            dos.writeLong(positionUs); // 自播放开始以来的位置（微秒）
+
+            player.sendPluginMessage(this, CHANNEL, baos.toByteArray());
+        } catch (IOException e) {
+            getLogger().severe("发送播放位置同步包失败（玩家：" + player.getName() + "）：" + e.getMessage());
+        }
+    }
+
     /**
      * 写入MC标准字符串（原有逻辑保留）
      */
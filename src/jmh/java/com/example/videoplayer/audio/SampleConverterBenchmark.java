@@ -0,0 +1,83 @@
+package com.example.videoplayer.audio;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 音频转换内核：FLTP→S16与S16P→S16，标量（SampleConverter）vs SIMD（VectorSampleConverter）
+ * 1. 每次调用转换一个1024采样的AAC帧，输入为堆外缓冲区（与解码器交给转换器的FFmpeg平面视图一致）
+ * 2. channels=2为交错+量化，channels=6为5.1下混+限幅+量化
+ * 3. 输出缓冲区归还PcmBufferPool，测量不含分配
+ * vector实现需要 --add-modules jdk.incubator.vector（gradle jmh已在jvmArgsAppend中加入）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SampleConverterBenchmark {
+    private static final int SAMPLES = 1024;
+
+    @Param({"scalar", "vector"})
+    public String kernel;
+
+    @Param({"2", "6"})
+    public int channels;
+
+    private SampleConverter converter;
+    private final PcmBufferPool pool = new PcmBufferPool(4);
+    private FloatBuffer[] floatPlanes;
+    private ShortBuffer[] shortPlanes;
+
+    @Setup
+    public void setUp() {
+        converter = "vector".equals(kernel)
+                ? new VectorSampleConverter(channels, false)
+                : new SampleConverter(channels, false);
+        Random random = new Random(42);
+        floatPlanes = new FloatBuffer[channels];
+        shortPlanes = new ShortBuffer[channels];
+        for (int c = 0; c < channels; c++) {
+            FloatBuffer floats = ByteBuffer.allocateDirect(SAMPLES * 4).order(ByteOrder.nativeOrder()).asFloatBuffer();
+            ShortBuffer shorts = ByteBuffer.allocateDirect(SAMPLES * 2).order(ByteOrder.nativeOrder()).asShortBuffer();
+            for (int i = 0; i < SAMPLES; i++) {
+                float value = (random.nextFloat() * 2 - 1) * 0.8f;
+                floats.put(i, value);
+                shorts.put(i, (short) (value * 32767));
+            }
+            floatPlanes[c] = floats;
+            shortPlanes[c] = shorts;
+        }
+    }
+
+    @Benchmark
+    public ByteBuffer fltpToS16() {
+        ByteBuffer output = converter.convertFloatPlanar(floatPlanes, SAMPLES, pool);
+        pool.release(output);
+        return output;
+    }
+
+    @Benchmark
+    public ByteBuffer s16pToS16() {
+        ByteBuffer output = converter.convertS16Planar(shortPlanes, SAMPLES, pool);
+        pool.release(output);
+        return output;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.videoplayer.decoder;
+
+import com.example.videoplayer.audio.PcmBufferPool;
+import com.example.videoplayer.audio.SampleConverter;
+import com.example.videoplayer.util.VideoPlayerConfig;
+import org.bytedeco.ffmpeg.avutil.AVFrame;
+import org.lwjgl.system.MemoryUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.bytedeco.ffmpeg.global.avutil.*;
+
+/**
+ * 每秒音频的转换CPU耗时：swresample（NativeAudioResampler）vs Java路径（SampleConverter标量/SIMD内核）
+ * 1. 输入为FFmpeg分配的FLTP帧（48kHz，与AAC/Opus解码输出一致），输出交错S16、采样率不变（Java路径不做采样率转换）
+ * 2. 一次调用转换48帧×1000采样=1秒音频，AverageTime结果（ms/op）即每秒音频占用的CPU毫秒数
+ * 3. Java路径的平面视图在Setup中创建一次，与PacketPipeline按地址缓存视图的做法一致
+ * java-vector需要 --add-modules jdk.incubator.vector，未加载时SampleConverter.create()会回退到标量实现
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AudioResampleBenchmark {
+    private static final int SAMPLE_RATE = 48_000;
+    private static final int FRAME_SAMPLES = 1_000;
+    private static final int FRAMES_PER_SECOND = SAMPLE_RATE / FRAME_SAMPLES;
+
+    @Param({"swresample", "java-scalar", "java-vector"})
+    public String path;
+
+    @Param({"2", "6"})
+    public int channels;
+
+    private final PcmBufferPool pool = new PcmBufferPool(4);
+    private AVFrame frame;
+    private FloatBuffer[] planes;
+    private NativeAudioResampler resampler;
+    private SampleConverter converter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        frame = av_frame_alloc();
+        frame.format(AV_SAMPLE_FMT_FLTP);
+        frame.nb_samples(FRAME_SAMPLES);
+        frame.sample_rate(SAMPLE_RATE);
+        av_channel_layout_default(frame.ch_layout(), channels);
+        if (av_frame_get_buffer(frame, 0) < 0) {
+            throw new IllegalStateException("无法分配音频帧");
+        }
+        Random random = new Random(42);
+        planes = new FloatBuffer[channels];
+        for (int c = 0; c < channels; c++) {
+            planes[c] = MemoryUtil.memFloatBuffer(NativePointers.planeAddress(frame, c), FRAME_SAMPLES);
+            for (int i = 0; i < FRAME_SAMPLES; i++) {
+                planes[c].put(i, (random.nextFloat() * 2 - 1) * 0.8f);
+            }
+        }
+
+        int outputChannels = SampleConverter.outputChannelsFor(channels);
+        if ("swresample".equals(path)) {
+            resampler = new NativeAudioResampler(outputChannels, SAMPLE_RATE, false);
+        } else {
+            VideoPlayerConfig.vectorAudioKernels = "java-vector".equals(path);
+            converter = SampleConverter.create(channels, false);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (resampler != null) {
+            resampler.close();
+        }
+        av_frame_free(frame);
+    }
+
+    @Benchmark
+    public int convertOneSecond() {
+        int bytes = 0;
+        for (int f = 0; f < FRAMES_PER_SECOND; f++) {
+            ByteBuffer output = resampler != null
+                    ? resampler.convert(frame, pool)
+                    : converter.convertFloatPlanar(planes, FRAME_SAMPLES, pool);
+            bytes += output.remaining();
+            pool.release(output);
+        }
+        return bytes;
+    }
+}
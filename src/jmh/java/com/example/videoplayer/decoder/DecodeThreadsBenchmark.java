@@ -0,0 +1,179 @@
+package com.example.videoplayer.decoder;
+
+import org.bytedeco.ffmpeg.avcodec.AVCodec;
+import org.bytedeco.ffmpeg.avcodec.AVCodecContext;
+import org.bytedeco.ffmpeg.avcodec.AVPacket;
+import org.bytedeco.ffmpeg.avformat.AVStream;
+import org.bytedeco.ffmpeg.avutil.AVFrame;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.bytedeco.javacv.Frame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.bytedeco.ffmpeg.global.avcodec.*;
+import static org.bytedeco.ffmpeg.global.avformat.av_find_best_stream;
+import static org.bytedeco.ffmpeg.global.avutil.*;
+
+/**
+ * H.264解码吞吐（帧/秒）随解码线程数的变化，线程配置经DecoderThreading写入，与PacketPipeline的独立解码上下文一致
+ * 1. 测试片段在首次运行时用libopenh264合成（运动的渐变+噪声，GOP=30），缓存在临时目录，后续运行复用
+ * 2. 包在Setup阶段一次性解复用到内存，测量只包含avcodec_send_packet/avcodec_receive_frame
+ * 3. 一次调用解码整个片段（含冲刷帧级并行的延迟帧），结果单位ops/s即解码帧率
+ * 线程数高于CPU核数时没有加速意义，结果需结合运行机器的核数解读
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DecodeThreadsBenchmark {
+    private static final int FRAME_COUNT = 60;
+    private static final String FORMAT = "bench";
+
+    @Param({"1920x1080", "3840x2160"})
+    public String resolution;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"frame+slice"})
+    public String threadType;
+
+    private final List<AVPacket> packets = new ArrayList<>();
+    private AVCodecContext context;
+    private AVFrame frame;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        File clip = ensureClip(resolution);
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(clip)) {
+            grabber.start();
+            int streamIndex = av_find_best_stream(grabber.getFormatContext(), AVMEDIA_TYPE_VIDEO, -1, -1, (AVCodec) null, 0);
+            AVStream stream = grabber.getFormatContext().streams(streamIndex);
+
+            System.setProperty("videoplayer.decodeThreads." + FORMAT, String.valueOf(threads));
+            System.setProperty("videoplayer.decodeThreadType." + FORMAT, threadType);
+            AVCodec codec = avcodec_find_decoder(stream.codecpar().codec_id());
+            context = avcodec_alloc_context3(codec);
+            avcodec_parameters_to_context(context, stream.codecpar());
+            DecoderThreading.forFormat(FORMAT).applyTo(context);
+            if (avcodec_open2(context, codec, (org.bytedeco.ffmpeg.avutil.AVDictionary) null) < 0) {
+                throw new IllegalStateException("无法打开解码器");
+            }
+
+            AVPacket packet;
+            while ((packet = grabber.grabPacket()) != null && !packet.isNull()) {
+                if (packet.stream_index() == streamIndex) {
+                    packets.add(av_packet_clone(packet));
+                }
+                av_packet_unref(packet);
+            }
+        }
+        frame = av_frame_alloc();
+        if (packets.size() != FRAME_COUNT) {
+            throw new IllegalStateException("片段包数异常：" + packets.size());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        packets.forEach(packet -> av_packet_free(packet));
+        packets.clear();
+        av_frame_free(frame);
+        avcodec_free_context(context);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAME_COUNT)
+    public int decodeClip() {
+        int decoded = 0;
+        for (AVPacket packet : packets) {
+            while (avcodec_send_packet(context, packet) == AVERROR_EAGAIN()) {
+                decoded += receiveAll();
+            }
+            decoded += receiveAll();
+        }
+        // 冲刷帧级并行缓存的延迟帧，再复位解码器供下一次调用
+        avcodec_send_packet(context, null);
+        decoded += receiveAll();
+        avcodec_flush_buffers(context);
+        if (decoded != FRAME_COUNT) {
+            throw new IllegalStateException("解码帧数异常：" + decoded);
+        }
+        return decoded;
+    }
+
+    private int receiveAll() {
+        int count = 0;
+        while (avcodec_receive_frame(context, frame) >= 0) {
+            av_frame_unref(frame);
+            count++;
+        }
+        return count;
+    }
+
+    // 合成测试片段：逐帧平移的渐变叠加伪随机噪声，避免编码器把画面压成几乎为零的残差
+    private static File ensureClip(String resolution) throws Exception {
+        File clip = new File(System.getProperty("java.io.tmpdir"), "videoplayer-decode-" + resolution + ".mp4");
+        if (clip.isFile() && clip.length() > 0) {
+            return clip;
+        }
+        String[] size = resolution.split("x");
+        int width = Integer.parseInt(size[0]);
+        int height = Integer.parseInt(size[1]);
+        File partial = new File(clip.getPath() + ".part");
+        try (FFmpegFrameRecorder recorder = new FFmpegFrameRecorder(partial, width, height, 0)) {
+            recorder.setFormat("mp4");
+            recorder.setVideoCodecName("libopenh264");
+            recorder.setPixelFormat(AV_PIX_FMT_YUV420P);
+            recorder.setFrameRate(30);
+            recorder.setGopSize(30);
+            recorder.setVideoBitrate(width * height * 4);
+            recorder.start();
+
+            Frame image = new Frame(width, height, Frame.DEPTH_UBYTE, 3);
+            ByteBuffer pixels = (ByteBuffer) image.image[0];
+            int stride = image.imageStride;
+            long seed = 0x9E3779B97F4A7C15L;
+            for (int f = 0; f < FRAME_COUNT; f++) {
+                for (int y = 0; y < height; y++) {
+                    int row = y * stride;
+                    for (int x = 0; x < width; x++) {
+                        seed = seed * 6364136223846793005L + 1442695040888963407L;
+                        int noise = (int) (seed >>> 59);
+                        int i = row + x * 3;
+                        pixels.put(i, (byte) (x + f * 4 + noise));
+                        pixels.put(i + 1, (byte) (y + f * 2 + noise));
+                        pixels.put(i + 2, (byte) ((x ^ y) + noise));
+                    }
+                }
+                recorder.record(image, AV_PIX_FMT_BGR24);
+            }
+            recorder.stop();
+        }
+        if (!partial.renameTo(clip)) {
+            throw new IllegalStateException("无法写入测试片段：" + clip);
+        }
+        return clip;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.videoplayer.render;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ARGB → 翻转RGBA转换：RgbaFrameConverter（整行int写入+条带并行）vs 原VideoRenderer的逐字节put循环
+ * 1. 每次调用转换一整帧到预分配的堆外缓冲区，AverageTime结果即每帧耗时
+ * 2. legacy为改造前processFrameToByteBuffer中的循环原样搬运（不含其后到渲染缓冲区的整帧拷贝）
+ * 3. 720p及以上converter会按ForkJoinPool并行度切分条带，并行收益取决于可用核数
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RgbaFrameConverterBenchmark {
+    @Param({"1280x720", "1920x1080", "3840x2160"})
+    public String resolution;
+
+    @Param({"converter", "legacy"})
+    public String impl;
+
+    private int width;
+    private int height;
+    private int[] pixels;
+    private ByteBuffer target;
+    private RgbaFrameConverter converter;
+
+    @Setup
+    public void setUp() {
+        String[] size = resolution.split("x");
+        width = Integer.parseInt(size[0]);
+        height = Integer.parseInt(size[1]);
+        pixels = new int[width * height];
+        Random random = new Random(42);
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = random.nextInt() | 0xFF000000;
+        }
+        target = ByteBuffer.allocateDirect(width * height * 4);
+        converter = new RgbaFrameConverter(width, height);
+    }
+
+    @Benchmark
+    public ByteBuffer convertFrame() {
+        if ("converter".equals(impl)) {
+            converter.convert(pixels, target);
+        } else {
+            legacy(pixels, target);
+        }
+        return target;
+    }
+
+    private void legacy(int[] pixels, ByteBuffer frameByteBuffer) {
+        frameByteBuffer.clear();
+        for (int h = 0; h < height; h++) {
+            for (int w = 0; w < width; w++) {
+                int pixel = pixels[(height - 1 - h) * width + w];
+                frameByteBuffer.put((byte) ((pixel >> 16) & 0xFF)); // R
+                frameByteBuffer.put((byte) ((pixel >> 8) & 0xFF));  // G
+                frameByteBuffer.put((byte) (pixel & 0xFF));         // B
+                frameByteBuffer.put((byte) ((pixel >> 24) & 0xFF)); // A
+            }
+        }
+        frameByteBuffer.flip();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.videoplayer.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 解码器视频帧队列：SpscRingBuffer（DROP_OLDEST） vs 原ConcurrentLinkedDeque+ReentrantLock实现
+ * 1. offer/poll：一个生产者线程入队（队满丢弃最旧）、一个消费者线程出队，与解码线程→渲染线程的实际用法一致
+ * 2. size：队列半满时读取占用数（原实现每抓取一帧调用数次，ConcurrentLinkedDeque.size()为O(n)）
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameQueueBenchmark {
+    // 与FFmpegVideoDecoder的m3u8队列上限一致
+    private static final int CAPACITY = 15;
+    private static final Object FRAME = new Object();
+
+    @State(Scope.Group)
+    public static class RingQueue {
+        SpscRingBuffer<Object> queue;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            queue = new SpscRingBuffer<>(CAPACITY, SpscRingBuffer.OverflowPolicy.DROP_OLDEST);
+        }
+    }
+
+    @State(Scope.Group)
+    public static class LegacyQueue {
+        ConcurrentLinkedDeque<Object> queue;
+        ReentrantLock lock;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            queue = new ConcurrentLinkedDeque<>();
+            lock = new ReentrantLock();
+        }
+
+        // 原enqueue：持锁检查size()，队满先丢弃最旧帧再入队
+        void offer(Object frame) {
+            lock.lock();
+            try {
+                if (queue.size() >= CAPACITY) {
+                    queue.poll();
+                }
+                queue.offer(frame);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("ring")
+    @GroupThreads(1)
+    public Object ringOffer(RingQueue state) {
+        return state.queue.push(FRAME);
+    }
+
+    @Benchmark
+    @Group("ring")
+    @GroupThreads(1)
+    public Object ringPoll(RingQueue state) {
+        return state.queue.poll();
+    }
+
+    @Benchmark
+    @Group("legacy")
+    @GroupThreads(1)
+    public void legacyOffer(LegacyQueue state) {
+        state.offer(FRAME);
+    }
+
+    @Benchmark
+    @Group("legacy")
+    @GroupThreads(1)
+    public Object legacyPoll(LegacyQueue state) {
+        return state.queue.poll();
+    }
+
+    @State(Scope.Thread)
+    public static class HalfFull {
+        SpscRingBuffer<Object> ring;
+        ConcurrentLinkedDeque<Object> deque;
+
+        @Setup
+        public void setUp() {
+            ring = new SpscRingBuffer<>(CAPACITY, SpscRingBuffer.OverflowPolicy.DROP_OLDEST);
+            deque = new ConcurrentLinkedDeque<>();
+            for (int i = 0; i < CAPACITY / 2; i++) {
+                ring.push(FRAME);
+                deque.offer(FRAME);
+            }
+        }
+    }
+
+    @Benchmark
+    public int ringSize(HalfFull state) {
+        return state.ring.size();
+    }
+
+    @Benchmark
+    public int legacySize(HalfFull state) {
+        return state.deque.size();
+    }
+}
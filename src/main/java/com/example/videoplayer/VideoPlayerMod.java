@@ -1,15 +1,28 @@
 package com.example.videoplayer;
 
+import com.example.videoplayer.audio.AudioOutputManager;
 import com.example.videoplayer.audio.OpenALAudioPlayer;
 import com.example.videoplayer.decoder.FFmpegVideoDecoder;
+import com.example.videoplayer.decoder.VideoFrame;
+import com.example.videoplayer.render.PboUploadRing;
+import com.example.videoplayer.render.TiledVideoTexture;
 import com.example.videoplayer.render.VideoRenderer;
+import com.example.videoplayer.render.VirtualTV;
+import com.example.videoplayer.render.YuvPlaneTextures;
+import com.example.videoplayer.render.YuvVideoPipelines;
+import com.example.videoplayer.util.MasterClock;
+import com.example.videoplayer.util.PlaybackMetrics;
+import com.example.videoplayer.util.ServerMasterClock;
+import com.example.videoplayer.util.SystemMasterClock;
 import com.example.videoplayer.util.VideoInfo;
+import com.example.videoplayer.util.VideoPlayerConfig;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.textures.FilterMode;
 import com.mojang.blaze3d.textures.GpuTexture;
 import com.mojang.blaze3d.textures.GpuTextureView;
 import com.mojang.blaze3d.textures.TextureFormat;
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
@@ -58,7 +71,11 @@ public class VideoPlayerMod implements ClientModInitializer {
     private static DrawContext currentDrawContext;
     private FFmpegVideoDecoder videoDecoder;
     private OpenALAudioPlayer audioPlayer;
+    // 常驻音频输出（AL源+缓冲区），模组生命周期内在各次播放间复用
+    private final AudioOutputManager audioOutputManager = new AudioOutputManager();
     private VideoRenderer videoRenderer;
+    // 当前播放的主时钟（音频/系统/服务端），未播放时为null
+    private volatile MasterClock masterClock;
     private final MinecraftClient mc = MinecraftClient.getInstance();
     public static VideoPlayerMod INSTANCE;
     private boolean isVideoPlaying = false;
@@ -75,6 +92,11 @@ public class VideoPlayerMod implements ClientModInitializer {
     private volatile int maxTextureSize = 0;
 
     private volatile boolean isTextureInited = false;
+    // PBO上传环（与视频纹理同生命周期，首次上传时在渲染线程创建）；创建失败后本纹理不再重试
+    private volatile PboUploadRing pboUploadRing;
+    private boolean pboRingFailed = false;
+    // YUV平面模式的三张平面纹理（与视频纹理同生命周期，首个YUV帧上传时在渲染线程创建）
+    private volatile YuvPlaneTextures yuvPlaneTextures;
 
     // 自定义纹理类（不变）
     public static class Tex extends AbstractTexture {
@@ -85,6 +107,7 @@ public class VideoPlayerMod implements ClientModInitializer {
     }
 
     // 定义VideoPayload，匹配服务端数据包格式（使用MC内置编解码方法）
+    // 命令类型：0=播放 1=停止 2=同步播放位置；positionUs为服务端自播放开始以来的位置（微秒），旧版插件不发送时为-1
     public record VideoPayload(
             byte commandType,
             String videoUrl,
@@ -95,9 +118,14 @@ public class VideoPlayerMod implements ClientModInitializer {
             double endX,
             double endY,
             double endZ,
-            double yaw
+            double yaw,
+            long positionUs
     ) implements CustomPayload {
         public static final Id<VideoPayload> ID = new Id<>(CHANNEL_ID);
+        public static final byte COMMAND_PLAY = 0;
+        public static final byte COMMAND_STOP = 1;
+        public static final byte COMMAND_SYNC = 2;
+        public static final long NO_POSITION = -1L;
 
         // 核心修改：使用MC内置readString()/writeString()，放弃手动VarInt
         public static final PacketCodec<PacketByteBuf, VideoPayload> CODEC = PacketCodec.of(
@@ -113,16 +141,20 @@ public class VideoPlayerMod implements ClientModInitializer {
                     buf.writeDouble(value.endY);
                     buf.writeDouble(value.endZ);
                     buf.writeDouble(value.yaw);
+                    buf.writeLong(value.positionUs);
                 },
                 buf -> {
-                    // 参考B站音乐插件，添加详细调试日志
+                    // 参考B站音乐插件，添加详细调试日志（每秒一次的同步包不打印）
                     int initialReadableBytes = buf.readableBytes();
-                    System.out.println("[VideoPlayerMod] 开始解码Payload，可读字节数: " + initialReadableBytes);
 
                     try {
                         // 读取命令类型
                         byte commandType = buf.readByte();
-                        System.out.println("[VideoPlayerMod] 读取命令类型: " + (commandType == 0 ? "播放" : "停止"));
+                        boolean verbose = commandType != COMMAND_SYNC;
+                        if (verbose) {
+                            System.out.println("[VideoPlayerMod] 开始解码Payload，可读字节数: " + initialReadableBytes);
+                            System.out.println("[VideoPlayerMod] 读取命令类型: " + (commandType == COMMAND_PLAY ? "播放" : "停止"));
+                        }
 
                         // 读取字符串：使用内置方法，避免手动解码偏差
                         String videoUrl = buf.readString();
@@ -139,18 +171,20 @@ public class VideoPlayerMod implements ClientModInitializer {
                         double endZ = buf.readDouble();
                         double yaw = buf.readDouble();
                         //System.out.println("[VideoPlayerMod] 读取坐标完成，旋转角: " + yaw);
+                        // 播放位置：旧版插件不发送该字段
+                        long positionUs = buf.readableBytes() >= Long.BYTES ? buf.readLong() : NO_POSITION;
 
                         // 检查剩余字节
                         int remainingBytes = buf.readableBytes();
                         if (remainingBytes > 0) {
                             System.out.println("[VideoPlayerMod] WARNING: 还有 " + remainingBytes + " 字节未读取!");
-                        } else {
+                        } else if (verbose) {
                             System.out.println("[VideoPlayerMod] 所有字节已正确读取");
                         }
 
                         return new VideoPayload(
                                 commandType, videoUrl, videoFormat,
-                                startX, startY, startZ, endX, endY, endZ, yaw
+                                startX, startY, startZ, endX, endY, endZ, yaw, positionUs
                         );
                     } catch (Exception e) {
                         System.err.println("[VideoPlayerMod] Payload解码失败: " + e.getMessage());
@@ -158,7 +192,7 @@ public class VideoPlayerMod implements ClientModInitializer {
                         // 返回默认值，避免客户端崩溃
                         return new VideoPayload(
                                 (byte)0, "", "",
-                                0, 0, 0, 0, 0, 0, 0
+                                0, 0, 0, 0, 0, 0, 0, NO_POSITION
                         );
                     }
                 }
@@ -172,6 +206,8 @@ public class VideoPlayerMod implements ClientModInitializer {
 
     /**
      * 生成非正方形视频纹理（修正maxTextureSize获取方式）
+     * 宽或高超过单张纹理上限时返回分块纹理（TiledVideoTexture），不再把纹理裁小后上传整帧尺寸的数据
+     * YUV平面模式下不创建RGBA纹理（返回null），平面纹理在首帧上传时按帧尺寸创建
      */
     public Object genTexture(int width, int height) {
         if (isTextureValid) {
@@ -186,11 +222,28 @@ public class VideoPlayerMod implements ClientModInitializer {
             }
             System.out.println("[VideoPlayerMod] GPU最大纹理尺寸：" + maxTextureSize);
         }
-        int safeWidth = Math.min(width, maxTextureSize);
-        int safeHeight = Math.min(height, maxTextureSize);
-        if (safeWidth != width || safeHeight != height) {
-            System.err.println("[VideoPlayerMod] 纹理尺寸超限，自动调整：" + width + "x" + height + " → " + safeWidth + "x" + safeHeight);
+        int tileLimit = getTileLimit();
+        // 超过单张纹理上限时分块；客户端内存上传路径（未启用PBO或YUV平面模式）在启用上传预算时也走分块纹理（1x1网格），
+        // 按时间预算分条带上传并双缓冲（uploadBudgetMs默认0，需显式开启）
+        if (width > tileLimit || height > tileLimit || VideoPlayerConfig.isBudgetedUpload()) {
+            TiledVideoTexture tiled = TiledVideoTexture.create(width, height, tileLimit);
+            this.videoTexture = tiled;
+            this.cachedTexWidth = width;
+            this.cachedTexHeight = height;
+            this.isTextureValid = true;
+            return tiled;
+        }
+        if (VideoPlayerConfig.isYuvFrameMode()) {
+            // 帧只上传到三张平面纹理，整帧RGBA8纹理（4字节/像素）从不写入，不再分配
+            this.videoTexture = null;
+            this.cachedTexWidth = width;
+            this.cachedTexHeight = height;
+            this.isTextureValid = true;
+            System.out.println("[VideoPlayerMod] YUV平面模式：不创建RGBA纹理（" + width + "x" + height + "）");
+            return null;
         }
+        int safeWidth = width;
+        int safeHeight = height;
 
         var device = RenderSystem.getDevice();
         var tex = device.createTexture("videoplayer:video_textured", 5, TextureFormat.RGBA8, safeWidth, safeHeight, 1, 1);
@@ -211,6 +264,15 @@ public class VideoPlayerMod implements ClientModInitializer {
         return tex;
     }
 
+    // 单张纹理的边长上限：GPU上限与配置的分块边长取小
+    private int getTileLimit() {
+        int limit = maxTextureSize > 0 ? maxTextureSize : Integer.MAX_VALUE;
+        if (VideoPlayerConfig.maxTileSize > 0) {
+            limit = Math.min(limit, VideoPlayerConfig.maxTileSize);
+        }
+        return Math.max(2, limit);
+    }
+
     // 强化纹理释放的线程同步（修复双重释放）
     private void releaseTexture() {
         long stamp = textureUpdateLock.writeLock();
@@ -220,12 +282,24 @@ public class VideoPlayerMod implements ClientModInitializer {
             final boolean[] released = {false};
             mc.execute(() -> {
                 try {
+                    // 先释放PBO环（等待正在写入映射区的帧处理线程）
+                    if (pboUploadRing != null) {
+                        pboUploadRing.destroy();
+                        pboUploadRing = null;
+                    }
+                    pboRingFailed = false;
+                    if (yuvPlaneTextures != null) {
+                        yuvPlaneTextures.close();
+                        yuvPlaneTextures = null;
+                    }
                     if (gpuTextureView != null) {
                         gpuTextureView.close();
                         gpuTextureView = null;
                     }
                     if (videoTexture instanceof GpuTexture gpuTex) {
                         gpuTex.close();
+                    } else if (videoTexture instanceof TiledVideoTexture tiled) {
+                        tiled.close();
                     }
                 } catch (Exception e) {
                     System.err.println("[VideoPlayerMod] 释放纹理失败：" + e.getMessage());
@@ -268,6 +342,148 @@ public class VideoPlayerMod implements ClientModInitializer {
         }
     }
 
+    /**
+     * 当前可写入的PBO上传环（尚未创建、创建失败或未启用PBO模式时为null），帧处理线程调用
+     */
+    public PboUploadRing getPboUploadRing() {
+        return pboUploadRing;
+    }
+
+    /**
+     * PBO路径（渲染线程每帧调用）：按需创建PBO环，回收GPU已读完的槽位，并把最新就绪帧拷贝到纹理
+     * 渲染线程只下发PBO→纹理的拷贝命令，像素数据已由帧处理线程写入PBO
+     * @return 本次是否提交了上传
+     */
+    public boolean uploadFromPboRing(Object tex) {
+        // YUV平面模式下帧不经过RGBA纹理，无需PBO环
+        if (!VideoPlayerConfig.isPboUpload() || VideoPlayerConfig.isYuvFrameMode() || !isTextureValid || !RenderSystem.isOnRenderThread()
+                || !(tex instanceof GlTexture glTex)) {
+            return false;
+        }
+        int glId = glTex.getGlId();
+        if (glId <= 0) {
+            return false;
+        }
+        PboUploadRing ring = pboUploadRing;
+        if (ring == null) {
+            if (pboRingFailed || cachedTexWidth <= 0 || cachedTexHeight <= 0) {
+                return false;
+            }
+            ring = PboUploadRing.create(cachedTexWidth, cachedTexHeight, Math.max(2, Math.min(3, VideoPlayerConfig.pboRingSize)));
+            if (ring == null) {
+                pboRingFailed = true;
+                return false;
+            }
+            pboUploadRing = ring;
+        }
+
+        long stamp = textureUpdateLock.writeLock();
+        try {
+            if (!isTextureValid) {
+                return false;
+            }
+            GL11.glBindTexture(GL11.GL_TEXTURE_2D, glId);
+            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
+            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
+            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL12.GL_CLAMP_TO_EDGE);
+            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL12.GL_CLAMP_TO_EDGE);
+            GL11.glPixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
+            GL11.glPixelStorei(GL11.GL_UNPACK_ROW_LENGTH, ring.getWidth());
+            GL11.glPixelStorei(GL11.GL_UNPACK_SKIP_ROWS, 0);
+            GL11.glPixelStorei(GL11.GL_UNPACK_SKIP_PIXELS, 0);
+            boolean allocate = !isTextureInited;
+            boolean uploaded = ring.uploadLatest(allocate);
+            if (uploaded && allocate) {
+                isTextureInited = true;
+            }
+            int glError = GL11.glGetError();
+            if (glError != GL11.GL_NO_ERROR) {
+                System.err.println("[VideoPlayerMod] PBO纹理上传错误：" + glError + "（对应GL ID：" + glId + "）");
+            }
+            return uploaded;
+        } catch (Exception e) {
+            System.err.println("[VideoPlayerMod] PBO纹理上传异常：" + e.getMessage());
+            return false;
+        } finally {
+            GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
+            textureUpdateLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * YUV平面模式（渲染线程）：按需创建三张平面纹理并上传一帧，不经过RGBA纹理
+     * 帧由调用方持有并在返回后release
+     * @return 是否上传成功
+     */
+    public boolean uploadYuvFrame(VideoFrame frame) {
+        if (!isTextureValid || frame == null || !frame.isYuv() || !RenderSystem.isOnRenderThread()) {
+            return false;
+        }
+        long stamp = textureUpdateLock.writeLock();
+        try {
+            if (!isTextureValid) {
+                return false;
+            }
+            YuvPlaneTextures planes = yuvPlaneTextures;
+            if (planes != null && (planes.getWidth() != frame.getWidth() || planes.getHeight() != frame.getHeight())) {
+                planes.close();
+                planes = null;
+                yuvPlaneTextures = null;
+            }
+            if (planes == null) {
+                planes = YuvPlaneTextures.create(frame.getWidth(), frame.getHeight());
+                if (planes == null) {
+                    return false;
+                }
+                yuvPlaneTextures = planes;
+            }
+            return planes.upload(frame);
+        } catch (Exception e) {
+            System.err.println("[VideoPlayerMod] YUV平面纹理上传异常：" + e.getMessage());
+            return false;
+        } finally {
+            textureUpdateLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 分块纹理路径（渲染线程）：在本渲染帧的上传时间预算内继续上传当前帧
+     * @param frame 直出帧（YUV帧必须提供），兼容模式为null
+     * @return 当前帧的全部块是否已上传完成（完成后调用方即可归还帧）
+     */
+    public boolean uploadTiles(TiledVideoTexture tiled, VideoFrame frame, ByteBuffer pixels) {
+        if (!isTextureValid || tiled == null || !RenderSystem.isOnRenderThread()) {
+            return true;
+        }
+        long stamp = textureUpdateLock.writeLock();
+        try {
+            if (!isTextureValid || videoTexture != tiled) {
+                return true;
+            }
+            return tiled.uploadNext(frame, pixels);
+        } catch (Exception e) {
+            System.err.println("[VideoPlayerMod] 分块纹理上传异常：" + e.getMessage());
+            return true;
+        } finally {
+            textureUpdateLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 当前视频纹理为分块纹理时返回之，否则为null
+     */
+    public TiledVideoTexture getTiledVideoTexture() {
+        return isTextureValid && videoTexture instanceof TiledVideoTexture tiled ? tiled : null;
+    }
+
+    /**
+     * 已上传过帧的YUV平面纹理（VirtualTV据此改用YUV着色器管线），无则为null
+     */
+    public YuvPlaneTextures getYuvPlaneTextures() {
+        YuvPlaneTextures planes = yuvPlaneTextures;
+        return planes != null && planes.hasFrame() ? planes : null;
+    }
+
     /**
      * 修复：补全非渲染线程更新逻辑 + 严格参数校验
      */
@@ -291,15 +507,18 @@ public class VideoPlayerMod implements ClientModInitializer {
                 return;
             }
 
-            ByteBuffer safeBuffer = copyByteBuffer(byteBuffer);
-            if (safeBuffer == null) return;
-
             if (RenderSystem.isOnRenderThread()) {
-                updateGLTextureWithOpenGL(glId, width, height, safeBuffer);
+                // 渲染线程内同步上传：直接使用调用方缓冲区，省去一次中转拷贝
+                updateGLTextureWithOpenGL(glId, width, height, byteBuffer, false);
             } else {
+                // 跨线程时缓冲区可能被复用，需拷贝后再投递到渲染线程
+                ByteBuffer safeBuffer = copyByteBuffer(byteBuffer);
+                if (safeBuffer == null) return;
                 mc.execute(() -> {
                     if (isTextureValid && glId > 0) {
-                        updateGLTextureWithOpenGL(glId, width, height, safeBuffer);
+                        updateGLTextureWithOpenGL(glId, width, height, safeBuffer, true);
+                    } else {
+                        MemoryUtil.memFree(safeBuffer);
                     }
                 });
             }
@@ -324,13 +543,15 @@ public class VideoPlayerMod implements ClientModInitializer {
 
     /**
      * 核心修改：移除glTexSubImage2D，仅使用glTexImage2D更新纹理
+     * @param freeAfterUpload 缓冲区是否由copyByteBuffer分配（需在此处memFree）
      */
-    private void updateGLTextureWithOpenGL(int glId, int width, int height, ByteBuffer byteBuffer) {
+    private void updateGLTextureWithOpenGL(int glId, int width, int height, ByteBuffer byteBuffer, boolean freeAfterUpload) {
         long stamp = textureUpdateLock.writeLock();
-        boolean bufferFreed = false;
+        // 非本方法分配的缓冲区视为已释放，跳过所有memFree
+        boolean bufferFreed = !freeAfterUpload;
         try {
             if (!isTextureValid || glId <= 0 || byteBuffer == null || !byteBuffer.hasRemaining()) {
-                if (byteBuffer != null) {
+                if (byteBuffer != null && !bufferFreed) {
                     try {
                         MemoryUtil.memFree(byteBuffer);
                         bufferFreed = true;
@@ -340,8 +561,10 @@ public class VideoPlayerMod implements ClientModInitializer {
             }
             if (!RenderSystem.isOnRenderThread()) {
                 System.err.println("[VideoPlayerMod] 非渲染线程跳过GL操作");
-                MemoryUtil.memFree(byteBuffer);
-                bufferFreed = true;
+                if (!bufferFreed) {
+                    MemoryUtil.memFree(byteBuffer);
+                    bufferFreed = true;
+                }
                 return;
             }
 
@@ -416,8 +639,10 @@ public class VideoPlayerMod implements ClientModInitializer {
                 }
 
                 // 释放缓冲区
-                MemoryUtil.memFree(byteBuffer);
-                bufferFreed = true;
+                if (!bufferFreed) {
+                    MemoryUtil.memFree(byteBuffer);
+                    bufferFreed = true;
+                }
 
                 // 检测GL错误
                 int glError = GL11.glGetError();
@@ -492,7 +717,8 @@ public class VideoPlayerMod implements ClientModInitializer {
         this.audioPlayer = new OpenALAudioPlayer(
                 info.getSampleRate(),
                 info.getAudioChannels(),
-                videoFormat
+                videoFormat,
+                audioOutputManager
         );
 
         try {
@@ -533,9 +759,24 @@ public class VideoPlayerMod implements ClientModInitializer {
 //                System.out.println("[VideoPlayerMod] 自动探测视频格式：" + finalFormat);
 //            }
 
-            videoDecoder = new FFmpegVideoDecoder(streamUrl, finalFormat);
+            // 解码输出分辨率按屏幕实际大小封顶，避免小屏幕承担4K的转换/内存/上传开销
+            int maxOutputWidth = 0;
+            int maxOutputHeight = 0;
+            int pixelsPerBlock = VideoPlayerConfig.maxPixelsPerBlock;
+            if (pixelsPerBlock > 0 && startPos != null && endPos != null) {
+                maxOutputWidth = (int) Math.ceil(VirtualTV.computeScreenWidth(startPos, endPos) * pixelsPerBlock);
+                maxOutputHeight = (int) Math.ceil(VirtualTV.computeScreenHeight(startPos, endPos) * pixelsPerBlock);
+            }
+
+            PlaybackMetrics.reset();
+            videoDecoder = new FFmpegVideoDecoder(streamUrl, finalFormat, maxOutputWidth, maxOutputHeight);
             VideoInfo videoInfo = videoDecoder.getVideoInfo();
-            initAudioPlayer(videoDecoder, finalFormat);
+            // 禁用音频或流中无音频：不创建OpenAL播放器，视频跟随系统/服务端时钟
+            if (videoDecoder.hasAudio()) {
+                initAudioPlayer(videoDecoder, finalFormat);
+            }
+            masterClock = createMasterClock();
+            System.out.println("[VideoPlayerMod] 主时钟：" + masterClock.getName());
             videoRenderer = new VideoRenderer(this, videoInfo.getWidth(), videoInfo.getHeight(), videoInfo.getFrameRate());
 
             // ========== 核心修复：补全这行代码，绑定音频播放器 ==========
@@ -543,6 +784,7 @@ public class VideoPlayerMod implements ClientModInitializer {
             // ==========================================================
 
             videoRenderer.setVideoDecoder(videoDecoder);
+            videoRenderer.setMasterClock(masterClock);
             videoRenderer.setVirtualTVBounds(startPos, endPos);
             videoRenderer.getVirtualTV().setRotationYaw(yaw);
 
@@ -567,6 +809,34 @@ public class VideoPlayerMod implements ClientModInitializer {
 
 
 
+    /**
+     * 按配置选择主时钟，需要音频时钟但没有音频播放器时回退为系统时钟
+     */
+    private MasterClock createMasterClock() {
+        String mode = VideoPlayerConfig.masterClock;
+        if (VideoPlayerConfig.CLOCK_SERVER.equals(mode)) {
+            // 位置由服务端插件每秒下发的同步包驱动（updateServerClock），收到首个同步包前不呈现帧
+            return new ServerMasterClock();
+        }
+        if (audioPlayer == null || VideoPlayerConfig.CLOCK_SYSTEM.equals(mode)) {
+            if (VideoPlayerConfig.CLOCK_AUDIO.equals(mode)) {
+                System.out.println("[VideoPlayerMod] 无音频输出，主时钟回退为系统时钟");
+            }
+            return new SystemMasterClock();
+        }
+        return audioPlayer.getAudioClock();
+    }
+
+    /**
+     * 服务端下发的播放位置（自播放开始的微秒数），仅主时钟为ServerMasterClock时生效（网络线程调用）
+     * 播放初始化完成前到达的同步包直接忽略，下一个同步包到达后时钟开始走动
+     */
+    public void updateServerClock(long positionUs) {
+        if (masterClock instanceof ServerMasterClock serverClock) {
+            serverClock.update(positionUs);
+        }
+    }
+
     /**
      * 自动探测视频格式（根据URL后缀）
      */
@@ -585,6 +855,7 @@ public class VideoPlayerMod implements ClientModInitializer {
     public void onInitializeClient() {
         INSTANCE = this;
         registerNetworkHandlers();
+        YuvVideoPipelines.register();
 
         // 保留Hud渲染回调
         HudRenderCallback.EVENT.register((drawContext, tickDelta) -> {
@@ -607,6 +878,9 @@ public class VideoPlayerMod implements ClientModInitializer {
             }
         });
 
+        // 客户端关闭时删除常驻的AL源与缓冲区
+        ClientLifecycleEvents.CLIENT_STOPPING.register(client -> audioOutputManager.shutdown());
+
         // 保留3D世界渲染回调
         WorldRenderEvents.AFTER_TRANSLUCENT.register(context -> {
             if (isVideoPlaying && videoRenderer != null) {
@@ -632,7 +906,7 @@ public class VideoPlayerMod implements ClientModInitializer {
             MinecraftClient client = context.client();
 
             // 3. 处理播放命令（命令类型0）
-            if (payload.commandType() == 0) {
+            if (payload.commandType() == VideoPayload.COMMAND_PLAY) {
                 String videoUrl = payload.videoUrl();
                 String videoFormat = payload.videoFormat();
                 if (videoUrl.isEmpty()) {
@@ -653,12 +927,20 @@ public class VideoPlayerMod implements ClientModInitializer {
             }
 
             // 4. 处理停止命令（命令类型1）
-            else if (payload.commandType() == 1) {
+            else if (payload.commandType() == VideoPayload.COMMAND_STOP) {
                 client.execute(this::stopVideo);
             }
+
+            // 5. 处理播放位置同步（命令类型2）：直接在网络线程更新，不经主线程排队，避免排队延迟计入位置
+            else if (payload.commandType() == VideoPayload.COMMAND_SYNC && payload.positionUs() != VideoPayload.NO_POSITION) {
+                updateServerClock(payload.positionUs());
+            }
         });
 
-        // 5. 监听客户端断开连接
+        // 进入世界后预热音频输出，首次播放无需再创建AL源
+        ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> client.execute(audioOutputManager::warmUp));
+
+        // 6. 监听客户端断开连接
         ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
             stopVideo();
             isVideoPlaying = false;
@@ -697,6 +979,7 @@ public class VideoPlayerMod implements ClientModInitializer {
                 }
                 audioPlayer = null;
             }
+            masterClock = null;
 
             // 停止视频解码器/渲染器
             if (videoDecoder != null) {
@@ -755,10 +1038,12 @@ public class VideoPlayerMod implements ClientModInitializer {
     }
 
     public double getPlaybackProgressInSeconds() {
-        if (audioPlayer == null || !isVideoPlaying) {
+        MasterClock clock = masterClock;
+        if (clock == null || !isVideoPlaying) {
             return 0.0;
         }
-        return audioPlayer.getPlaybackProgressInSeconds();
+        long positionUs = clock.getPositionUs();
+        return positionUs == MasterClock.NOT_STARTED ? 0.0 : positionUs / 1_000_000.0;
     }
 
     public boolean isVideoPlaying() {
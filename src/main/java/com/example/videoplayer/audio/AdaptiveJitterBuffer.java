@@ -0,0 +1,168 @@
+package com.example.videoplayer.audio;
+
+/**
+ * 自适应抖动缓冲：根据实际缓冲水位的波动动态设定目标延迟，并用微小的播放速率（AL_PITCH）修正时钟漂移
+ * 1. 水位 = 已送入播放器的音频 - 已播放的音频（毫秒），每次音频供给时采样
+ * 2. 目标延迟（期望的平均水位）：以2秒为一个窗口记录水位峰值/谷值，保留最近15个窗口（30秒）；
+ *    突发到达使水位呈锯齿状，抖动深度 = 峰值 - 谷值，目标 = 深度/2 + 安全余量（谷值保持在余量之上）；
+ *    需要更深时立即抬高，变浅时每个窗口最多降低5%（需观测满30秒）；欠载时直接放大1.5倍并重新观测
+ *    不直接测量数据到达间隔：解码端受背压节流时到达时间反映的是节流而非网络抖动
+ * 3. 漂移修正（仅直播流）：平滑水位偏离目标超出死区时，按偏差比例把播放速率调快/调慢，最多±maxPitchCorrection，
+ *    不做停顿或丢弃，音视频一起以该速率播放（视频以音频时钟为主时钟）
+ * 仅由持有OpenAL的线程调用observe/onUnderrun，目标与速率可由任意线程读取
+ */
+public class AdaptiveJitterBuffer {
+    private static final long WINDOW_NANOS = 2_000_000_000L;
+    private static final int WINDOW_COUNT = 15;
+    // 水位平滑时间常数（需明显长于HLS分片间隔，速率修正才不会跟着锯齿摆动）
+    private static final double LEVEL_SMOOTHING_NANOS = 10_000_000_000.0;
+    private static final long MIN_MARGIN_MS = 80;
+    // 每偏离1秒对应的速率修正量（再受maxPitchCorrection限制）
+    private static final double PITCH_PER_SECOND_ERROR = 0.01;
+
+    private final long minTargetMs;
+    private final long maxTargetMs;
+    private final float maxPitchCorrection;
+    private volatile long targetMs;
+    private volatile boolean driftCorrection;
+
+    private double smoothedLevelMs = -1;
+    private long lastObserveNanos = 0;
+    private long windowStartNanos = 0;
+    private long currentTroughMs = Long.MAX_VALUE;
+    private long currentPeakMs = 0;
+    private final long[] windowTroughsMs = new long[WINDOW_COUNT];
+    private final long[] windowPeaksMs = new long[WINDOW_COUNT];
+    private int windowIndex = 0;
+    private int windowsFilled = 0;
+    private volatile float pitch = 1.0f;
+
+    public AdaptiveJitterBuffer(long initialTargetMs, long minTargetMs, long maxTargetMs, float maxPitchCorrection) {
+        this.minTargetMs = Math.max(0, minTargetMs);
+        this.maxTargetMs = Math.max(this.minTargetMs, maxTargetMs);
+        this.maxPitchCorrection = Math.max(0f, maxPitchCorrection);
+        this.targetMs = clampTarget(initialTargetMs);
+    }
+
+    /**
+     * 采样一次缓冲水位（源正在播放时调用；预缓冲/暂停期间不采样）
+     */
+    void observe(long levelMs, long nowNanos) {
+        if (smoothedLevelMs < 0) {
+            smoothedLevelMs = levelMs;
+            windowStartNanos = nowNanos;
+        } else {
+            double alpha = Math.min(1.0, (nowNanos - lastObserveNanos) / LEVEL_SMOOTHING_NANOS);
+            smoothedLevelMs += alpha * (levelMs - smoothedLevelMs);
+        }
+        lastObserveNanos = nowNanos;
+        currentTroughMs = Math.min(currentTroughMs, levelMs);
+        currentPeakMs = Math.max(currentPeakMs, levelMs);
+
+        if (nowNanos - windowStartNanos >= WINDOW_NANOS) {
+            windowTroughsMs[windowIndex] = currentTroughMs;
+            windowPeaksMs[windowIndex] = currentPeakMs;
+            windowIndex = (windowIndex + 1) % WINDOW_COUNT;
+            windowsFilled = Math.min(WINDOW_COUNT, windowsFilled + 1);
+            currentTroughMs = Long.MAX_VALUE;
+            currentPeakMs = 0;
+            windowStartNanos = nowNanos;
+            adaptTarget();
+        }
+        updatePitch();
+    }
+
+    /**
+     * 源被播空：目标放大1.5倍，恢复播放前需重新缓冲到新目标
+     */
+    void onUnderrun() {
+        long previous = targetMs;
+        targetMs = clampTarget(previous * 3 / 2 + MIN_MARGIN_MS);
+        smoothedLevelMs = -1;
+        windowsFilled = 0;
+        windowIndex = 0;
+        currentTroughMs = Long.MAX_VALUE;
+        currentPeakMs = 0;
+        pitch = 1.0f;
+        if (targetMs != previous) {
+            System.out.println("[AdaptiveJitterBuffer] 欠载，目标延迟 " + previous + "ms → " + targetMs + "ms");
+        }
+    }
+
+    private void adaptTarget() {
+        long trough = Long.MAX_VALUE;
+        long peak = 0;
+        for (int i = 0; i < windowsFilled; i++) {
+            trough = Math.min(trough, windowTroughsMs[i]);
+            peak = Math.max(peak, windowPeaksMs[i]);
+        }
+        long depth = Math.max(0, peak - trough);
+        long desired = depth / 2 + Math.max(MIN_MARGIN_MS, depth / 4);
+        long target = targetMs;
+        long adjusted = target;
+        if (desired > target) {
+            // 突发比当前缓冲深：立即抬高
+            adjusted = desired;
+        } else if (windowsFilled == WINDOW_COUNT && desired < target) {
+            // 整个观测期内都不需要这么深：缓慢收缩，贴近直播边缘
+            adjusted = target - Math.max(1, Math.min(target - desired, target / 20));
+        }
+        adjusted = clampTarget(adjusted);
+        if (adjusted != target) {
+            targetMs = adjusted;
+            if (Math.abs(adjusted - target) >= MIN_MARGIN_MS) {
+                System.out.println("[AdaptiveJitterBuffer] 抖动深度=" + depth + "ms，目标延迟 " + target + "ms → " + adjusted + "ms");
+            }
+        }
+    }
+
+    private void updatePitch() {
+        if (!driftCorrection || maxPitchCorrection <= 0f) {
+            pitch = 1.0f;
+            return;
+        }
+        double error = smoothedLevelMs - targetMs;
+        double deadband = Math.max(MIN_MARGIN_MS / 2.0, targetMs * 0.1);
+        if (Math.abs(error) <= deadband) {
+            pitch = 1.0f;
+            return;
+        }
+        double excess = error - Math.copySign(deadband, error);
+        double correction = Math.max(-maxPitchCorrection, Math.min(maxPitchCorrection, excess / 1000.0 * PITCH_PER_SECOND_ERROR));
+        pitch = (float) (1.0 + correction);
+    }
+
+    private long clampTarget(long value) {
+        return Math.max(minTargetMs, Math.min(maxTargetMs, value));
+    }
+
+    public long getTargetMs() {
+        return targetMs;
+    }
+
+    public long getMaxTargetMs() {
+        return maxTargetMs;
+    }
+
+    public float getPitch() {
+        return pitch;
+    }
+
+    public boolean isDriftCorrectionEnabled() {
+        return driftCorrection;
+    }
+
+    public long getSmoothedLevelMs() {
+        return smoothedLevelMs < 0 ? 0 : Math.round(smoothedLevelMs);
+    }
+
+    /**
+     * 是否启用漂移修正（直播流启用；点播流解码领先是常态，不应据此加速播放）
+     */
+    public void setDriftCorrection(boolean enabled) {
+        this.driftCorrection = enabled;
+        if (!enabled) {
+            pitch = 1.0f;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.videoplayer.audio;
+
+import org.lwjgl.openal.AL10;
+
+import java.util.Arrays;
+
+/**
+ * OpenAL缓冲区名称复用池（仅主线程/持有OpenAL上下文的线程调用），随所属输出在多次播放间常驻
+ * 出队的缓冲区名称回到空闲栈，下次直接alBufferData重新填充；
+ * 预热后流式播放不再调用alGenBuffers/alDeleteBuffers，也没有任何对象分配
+ */
+class AlBufferNamePool {
+    // 空闲名称栈
+    private int[] freeNames;
+    private int freeCount = 0;
+    // 本池生成过的全部名称（清理时统一删除）
+    private int[] ownedNames;
+    private int ownedCount = 0;
+
+    AlBufferNamePool(int initialCapacity) {
+        this.freeNames = new int[initialCapacity];
+        this.ownedNames = new int[initialCapacity];
+    }
+
+    /**
+     * 取一个可填充的缓冲区名称，空闲栈为空时才生成新名称
+     * @return 0表示生成失败
+     */
+    int acquire() {
+        if (freeCount > 0) {
+            return freeNames[--freeCount];
+        }
+        int name = AL10.alGenBuffers();
+        if (name == 0) {
+            return 0;
+        }
+        if (ownedCount == ownedNames.length) {
+            ownedNames = Arrays.copyOf(ownedNames, ownedCount * 2);
+            freeNames = Arrays.copyOf(freeNames, ownedNames.length);
+        }
+        ownedNames[ownedCount++] = name;
+        return name;
+    }
+
+    /**
+     * 归还已出队（或填充失败）的缓冲区名称
+     */
+    void recycle(int name) {
+        if (name != 0 && freeCount < freeNames.length) {
+            freeNames[freeCount++] = name;
+        }
+    }
+
+    /**
+     * 全部名称回到空闲栈（源已停止并解除绑定所有缓冲区后调用，名称留给下一路流复用）
+     */
+    void recycleAll() {
+        System.arraycopy(ownedNames, 0, freeNames, 0, ownedCount);
+        freeCount = ownedCount;
+    }
+
+    /**
+     * 删除本池生成的全部缓冲区（调用前需先将其从音频源上解除绑定）
+     */
+    void deleteAll() {
+        for (int i = 0; i < ownedCount; i++) {
+            AL10.alDeleteBuffers(ownedNames[i]);
+        }
+        ownedCount = 0;
+        freeCount = 0;
+    }
+
+    int getGeneratedCount() {
+        return ownedCount;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.videoplayer.audio;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 音频分块器：把逐帧转换得到的交错PCM（S16或float，AAC约21ms一帧）拼接为固定时长的块，再交给OpenAL播放器
+ * 这样队列深度与OpenAL缓冲区数量直接对应可预期的延迟（块数 × 块时长），也减少每块的AL调用次数
+ * 块缓冲区借自PcmBufferPool，输入缓冲区拷贝完即归还
+ * 仅由音频解码线程使用（非线程安全）
+ */
+public class AudioChunker {
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    /**
+     * 凑满的块交给接收方；接收方负责块的归还（上传完成或入队失败时）
+     */
+    public interface ChunkSink {
+        boolean accept(ByteBuffer chunk, long timestampUs);
+    }
+
+    private final PcmBufferPool pool;
+    private final int sampleRate;
+    private final int bytesPerFrame;
+    private final int chunkBytes;
+    // 正在填充的块及其首个采样的时间戳（微秒）
+    private ByteBuffer current;
+    private long currentStartUs = NO_TIMESTAMP;
+
+    /**
+     * @param bytesPerFrame 每个采样帧的字节数（声道数 × 2字节S16或4字节float）
+     */
+    public AudioChunker(int sampleRate, int bytesPerFrame, long chunkMs, PcmBufferPool pool) {
+        this.pool = pool;
+        this.sampleRate = sampleRate;
+        this.bytesPerFrame = bytesPerFrame;
+        long chunkFrames = Math.max(1, sampleRate * Math.max(1, chunkMs) / 1000);
+        this.chunkBytes = (int) (chunkFrames * bytesPerFrame);
+        // 帧缓冲与块缓冲共用一个池，统一最小容量避免互相挤掉
+        pool.setMinimumCapacity(chunkBytes);
+    }
+
+    /**
+     * 追加一段交错PCM，每凑满一个块调用一次sink
+     * @param source      position~limit为有效数据，拷贝完成后归还缓冲池
+     * @param timestampUs source首个采样的时间戳（微秒），未知时为NO_TIMESTAMP
+     * @return 本次交给sink且被接受的块数
+     */
+    public int append(ByteBuffer source, long timestampUs, ChunkSink sink) {
+        int accepted = 0;
+        int consumedBytes = 0;
+        while (source.hasRemaining()) {
+            if (current == null) {
+                current = pool.acquire(chunkBytes);
+                currentStartUs = timestampUs == NO_TIMESTAMP ? NO_TIMESTAMP
+                        : timestampUs + (long) consumedBytes / bytesPerFrame * 1_000_000L / sampleRate;
+            }
+            int count = Math.min(source.remaining(), current.remaining());
+            int sourceLimit = source.limit();
+            source.limit(source.position() + count);
+            current.put(source);
+            source.limit(sourceLimit);
+            consumedBytes += count;
+
+            if (!current.hasRemaining()) {
+                ByteBuffer chunk = current;
+                current = null;
+                chunk.flip();
+                if (sink.accept(chunk, currentStartUs)) {
+                    accepted++;
+                }
+            }
+        }
+        pool.release(source);
+        return accepted;
+    }
+
+    /**
+     * 丢弃未凑满的块（停止或跳转时调用）
+     */
+    public void reset() {
+        if (current != null) {
+            pool.release(current);
+            current = null;
+        }
+        currentStartUs = NO_TIMESTAMP;
+    }
+
+    public int getChunkBytes() {
+        return chunkBytes;
+    }
+
+    public double getChunkDurationMs() {
+        return chunkBytes / (double) bytesPerFrame * 1000.0 / sampleRate;
+    }
+}
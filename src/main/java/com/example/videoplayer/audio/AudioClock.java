@@ -0,0 +1,98 @@
+package com.example.videoplayer.audio;
+
+import com.example.videoplayer.util.MasterClock;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 单调递增的绝对音频时钟（无锁读取）
+ * 写入方（持有OpenAL的线程）每次补充缓冲区后发布一个快照：已播放采样帧总数（已出队采样 + AL_SAMPLE_OFFSET）+ 采样时刻；
+ * 读取方（渲染/解码等任意线程）取快照后按经过的系统时间 × 播放速率（AL_PITCH）插值，不调用任何AL函数，也不等待主线程
+ * 1. 插值最多外推MAX_EXTRAPOLATION_NANOS，供给线程停摆时时钟不会无限前冲
+ * 2. 新快照记录上一快照在发布时刻的插值结果作为下限：硬件值略低于插值时时钟短暂停住等硬件追上，
+ *    既不回退，也不会把声卡与系统时钟的漂移累积进时钟（基准始终是硬件采样数）
+ * 3. 作为主时钟时，首个采样出声之前视为未开始
+ */
+public class AudioClock implements MasterClock {
+    // 单个快照最多外推的时长（远大于供给间隔，仅兜底主线程卡顿/回退tick模式）
+    private static final long MAX_EXTRAPOLATION_NANOS = 200_000_000L;
+
+    private static final class Snapshot {
+        final long sampleFrames;
+        final long sampledAtNanos;
+        final int sampleRate;
+        // 播放速率（抖动缓冲漂移修正时略偏离1.0）
+        final double rate;
+        // 源正在出声时才插值；暂停/欠载/未开始时时钟静止
+        final boolean running;
+        // 不低于上一快照在发布时刻的位置（纳秒）
+        final long floorNanos;
+
+        Snapshot(long sampleFrames, long sampledAtNanos, int sampleRate, double rate, boolean running, long floorNanos) {
+            this.sampleFrames = sampleFrames;
+            this.sampledAtNanos = sampledAtNanos;
+            this.sampleRate = sampleRate;
+            this.rate = rate;
+            this.running = running;
+            this.floorNanos = floorNanos;
+        }
+
+        long positionNanosAt(long nowNanos) {
+            if (sampleRate <= 0) {
+                return 0;
+            }
+            long base = sampleFrames * 1_000_000_000L / sampleRate;
+            if (running) {
+                base += (long) (Math.max(0, Math.min(nowNanos - sampledAtNanos, MAX_EXTRAPOLATION_NANOS)) * rate);
+            }
+            return Math.max(base, floorNanos);
+        }
+    }
+
+    private static final Snapshot ZERO = new Snapshot(0, 0, 0, 1.0, false, 0);
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(ZERO);
+
+    /**
+     * 发布一次硬件采样（仅AL线程调用）
+     * @param sampleFrames 已播放的采样帧总数（单调）
+     * @param rate         当前播放速率（AL_PITCH）
+     * @param running      源是否处于AL_PLAYING且队列非空
+     */
+    void publish(long sampleFrames, int sampleRate, double rate, boolean running) {
+        long now = System.nanoTime();
+        Snapshot previous = snapshot.get();
+        // 采样率变化（新流）时不继承下限
+        long floor = previous.sampleRate == sampleRate ? previous.positionNanosAt(now) : 0;
+        snapshot.set(new Snapshot(sampleFrames, now, sampleRate, rate, running, floor));
+    }
+
+    /**
+     * 当前音频播放位置（秒），任意线程调用
+     */
+    public double getSeconds() {
+        return snapshot.get().positionNanosAt(System.nanoTime()) / 1_000_000_000.0;
+    }
+
+    /**
+     * 当前音频播放位置（微秒），任意线程调用
+     */
+    public long getMicros() {
+        return snapshot.get().positionNanosAt(System.nanoTime()) / 1_000L;
+    }
+
+    @Override
+    public long getPositionUs() {
+        long micros = getMicros();
+        return micros > 0 ? micros : NOT_STARTED;
+    }
+
+    @Override
+    public String getName() {
+        return "audio";
+    }
+
+    void reset() {
+        snapshot.set(ZERO);
+    }
+}
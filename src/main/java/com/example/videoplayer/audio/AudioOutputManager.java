@@ -0,0 +1,164 @@
+package com.example.videoplayer.audio;
+
+import org.lwjgl.openal.AL10;
+import org.lwjgl.openal.ALC10;
+
+import java.util.ArrayDeque;
+
+/**
+ * 常驻音频输出管理器：在模组生命周期内持有少量OpenAL源及其缓冲区名称池
+ * 换台时播放器借出一个已就绪的输出，按新流的格式/采样率填充即可；停止时只停源、解绑缓冲区后归还，
+ * 不再每次alGenSources/alDeleteSources、重新生成缓冲区，也不必等待主线程初始化
+ * 1. AL_EXT_FLOAT32检测每个OpenAL上下文只做一次
+ * 2. MC重载声音系统（切换输出设备/F3+T）会销毁上下文：借出时发现上下文已变化则丢弃旧输出（名称已随上下文失效）重新生成
+ * 需在OpenAL上下文为当前上下文的线程调用（主线程/音频供给线程），内部加锁串行
+ */
+public final class AudioOutputManager {
+    // 空闲输出上限：当前播放 + 换台时正在归还的一个
+    private static final int MAX_IDLE_OUTPUTS = 2;
+
+    /**
+     * 一个可复用的输出：AL源 + 该源专用的缓冲区名称池
+     */
+    static final class Output {
+        final int source;
+        final AlBufferNamePool bufferNames;
+
+        private Output(int source, AlBufferNamePool bufferNames) {
+            this.source = source;
+            this.bufferNames = bufferNames;
+        }
+    }
+
+    private final ArrayDeque<Output> idleOutputs = new ArrayDeque<>(MAX_IDLE_OUTPUTS);
+    // 空闲输出所属的OpenAL上下文，0=尚未建立
+    private long context = 0;
+    private boolean float32Supported = false;
+    private int borrowedCount = 0;
+
+    /**
+     * 借出一个已重置的输出（源处于AL_INITIAL、无排队缓冲区、默认增益/速率）
+     * @return null表示当前没有OpenAL上下文或生成源失败
+     */
+    synchronized Output acquire() {
+        if (!ensureContext()) {
+            return null;
+        }
+        Output output = idleOutputs.poll();
+        if (output == null) {
+            output = createOutput();
+            if (output == null) {
+                return null;
+            }
+        }
+        resetSource(output.source);
+        borrowedCount++;
+        return output;
+    }
+
+    /**
+     * 归还输出：停源并解绑全部缓冲区，缓冲区名称留在该输出的池中供下次填充
+     */
+    synchronized void release(Output output) {
+        if (output == null) {
+            return;
+        }
+        borrowedCount = Math.max(0, borrowedCount - 1);
+        if (ALC10.alcGetCurrentContext() != context) {
+            // 上下文已销毁：名称随之失效，直接丢弃
+            return;
+        }
+        AL10.alSourceStop(output.source);
+        AL10.alSourcei(output.source, AL10.AL_BUFFER, 0);
+        output.bufferNames.recycleAll();
+        if (idleOutputs.size() < MAX_IDLE_OUTPUTS) {
+            idleOutputs.push(output);
+        } else {
+            deleteOutput(output);
+        }
+        AL10.alGetError();
+    }
+
+    /**
+     * 预热：进入世界后提前生成一个输出，首次播放无需等待
+     */
+    public synchronized void warmUp() {
+        if (!ensureContext() || !idleOutputs.isEmpty() || borrowedCount > 0) {
+            return;
+        }
+        Output output = createOutput();
+        if (output != null) {
+            idleOutputs.push(output);
+            System.out.println("[AudioOutputManager] 音频输出已预热，源ID：" + output.source
+                    + "，AL_EXT_FLOAT32：" + (float32Supported ? "支持" : "不支持"));
+        }
+    }
+
+    /**
+     * 客户端关闭时删除全部空闲输出（借出中的由播放器清理时归还）
+     */
+    public synchronized void shutdown() {
+        if (context != 0 && ALC10.alcGetCurrentContext() == context) {
+            while (!idleOutputs.isEmpty()) {
+                deleteOutput(idleOutputs.pop());
+            }
+        }
+        idleOutputs.clear();
+        context = 0;
+    }
+
+    /**
+     * 当前上下文是否支持AL_EXT_FLOAT32（acquire之后有效）
+     */
+    synchronized boolean isFloat32Supported() {
+        return float32Supported;
+    }
+
+    private boolean ensureContext() {
+        long current = ALC10.alcGetCurrentContext();
+        if (current == 0) {
+            return false;
+        }
+        if (current != context) {
+            if (context != 0) {
+                System.out.println("[AudioOutputManager] OpenAL上下文已重建，丢弃" + idleOutputs.size() + "个旧输出");
+            }
+            idleOutputs.clear();
+            context = current;
+            float32Supported = AL10.alIsExtensionPresent("AL_EXT_FLOAT32");
+        }
+        return true;
+    }
+
+    private Output createOutput() {
+        AL10.alGetError();
+        int source = AL10.alGenSources();
+        int error = AL10.alGetError();
+        if (source == 0 || error != AL10.AL_NO_ERROR) {
+            System.err.println("[AudioOutputManager] 生成OpenAL源失败，错误码：" + error);
+            return null;
+        }
+        return new Output(source, new AlBufferNamePool(OpenALAudioPlayer.FIXED_BUFFER_COUNT * 2));
+    }
+
+    private void deleteOutput(Output output) {
+        AL10.alSourceStop(output.source);
+        AL10.alSourcei(output.source, AL10.AL_BUFFER, 0);
+        output.bufferNames.deleteAll();
+        AL10.alDeleteSources(output.source);
+    }
+
+    // 标准化源参数（复用的源可能残留上一路流的速率等设置）
+    private static void resetSource(int source) {
+        AL10.alSourceStop(source);
+        AL10.alSourcei(source, AL10.AL_BUFFER, 0);
+        AL10.alSourceRewind(source);
+        AL10.alSourcef(source, AL10.AL_GAIN, 1.0f);
+        AL10.alSourcef(source, AL10.AL_PITCH, 1.0f);
+        AL10.alSource3f(source, AL10.AL_POSITION, 0.0f, 0.0f, 0.0f);
+        AL10.alSource3f(source, AL10.AL_VELOCITY, 0.0f, 0.0f, 0.0f);
+        AL10.alSource3f(source, AL10.AL_DIRECTION, 0.0f, 0.0f, 0.0f);
+        AL10.alSourcei(source, AL10.AL_LOOPING, AL10.AL_FALSE);
+        AL10.alGetError();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.videoplayer.audio;
+
+/**
+ * 多声道下混后的峰值限幅器：下混矩阵不再整体归一化（前置左右声道保持原响度），
+ * 全声道同时接近满幅时才由本限幅器压低增益，避免硬削波
+ * 1. 逐块检测下混结果的峰值：超过上限时本块立即使用压低后的增益（瞬时启动，块内不会超限）
+ * 2. 峰值回落后增益按约RELEASE_MS的时间常数回升，块内线性过渡避免增益突变的咔嗒声
+ * 每个SampleConverter实例一个，只在其解码线程上使用
+ */
+final class DownmixLimiter {
+    // 限幅上限（约-0.2dBFS），给量化留余量
+    static final float CEILING = 0.977f;
+    private static final double RELEASE_MS = 200;
+    // 时间常数按48kHz估算；44.1kHz下约为218ms，对听感无实质影响
+    private static final double RELEASE_SAMPLES = RELEASE_MS * 48;
+
+    private float gain = 1f;
+
+    /**
+     * 对planes的前sampleCount个样本原地施加限幅增益
+     */
+    void process(float[][] planes, int channels, int sampleCount) {
+        float peak = 0f;
+        for (int c = 0; c < channels; c++) {
+            float[] plane = planes[c];
+            for (int i = 0; i < sampleCount; i++) {
+                peak = Math.max(peak, Math.abs(plane[i]));
+            }
+        }
+        float target = peak > CEILING ? CEILING / peak : 1f;
+        float start = gain;
+        float end;
+        if (target <= gain) {
+            // 启动：整块直接使用目标增益
+            start = target;
+            end = target;
+        } else {
+            // 释放：向1回升，但不超过本块允许的增益
+            double recovered = 1 - (1 - gain) * Math.exp(-sampleCount / RELEASE_SAMPLES);
+            end = (float) Math.min(recovered, target);
+        }
+        gain = end;
+        if (start == 1f && end == 1f) {
+            return;
+        }
+        float step = sampleCount > 1 ? (end - start) / (sampleCount - 1) : 0f;
+        for (int c = 0; c < channels; c++) {
+            float[] plane = planes[c];
+            for (int i = 0; i < sampleCount; i++) {
+                plane[i] *= start + step * i;
+            }
+        }
+    }
+
+    float getGain() {
+        return gain;
+    }
+}
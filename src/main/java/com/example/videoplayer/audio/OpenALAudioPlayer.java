@@ -5,21 +5,27 @@ import org.lwjgl.BufferUtils;
 import org.lwjgl.openal.AL10;
 import org.lwjgl.openal.AL11;
 import org.lwjgl.openal.ALC10;
+import org.lwjgl.openal.EXTFloat32;
+import com.example.videoplayer.util.BackpressureGate;
+import com.example.videoplayer.util.PlaybackMetrics;
+import com.example.videoplayer.util.VideoPlayerConfig;
 
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * 重构后：锚定OpenAL硬件时序的音频播放器
  * 核心改造：
  * 1. 移除所有手动时长变量，仅基于OpenAL采样偏移计算播放进度
- * 2. 固定缓冲区数量（4个），避免一次性补充过多导致超速
- * 3. 所有OpenAL操作强制主线程执行
- * 4. 解码线程节流逻辑（基于队列缓冲时长休眠）
+ * 2. 源上最多排队FIXED_BUFFER_COUNT个固定时长块（VideoPlayerConfig.audioChunkMs），缓冲区名称由AlBufferNamePool复用
+ * 3. 缓冲区回收/补充由音频供给线程执行（MC的OpenAL上下文为进程级当前上下文，任意线程可调用AL函数），
+ *    播放/暂停/清理在主线程执行，二者以alLock串行；没有进程级上下文时回退为主线程tick补充
+ * 4. 解码线程背压（BackpressureGate：水位高于高水位时等待，供给线程消耗到低水位后唤醒）
  * 5. 提供音频进度接口，供VideoRenderer同步视频帧
  */
 public class OpenALAudioPlayer {
@@ -27,51 +33,90 @@ public class OpenALAudioPlayer {
     private int sampleRate;
     private int channels;
     private int alFormat;
+    // 输出采样格式：AL_EXT_FLOAT32可用时为交错float（4字节），否则为S16（2字节）；innerInit时确定
+    private volatile boolean floatOutput = false;
+    private volatile int bytesPerFrame;
     private boolean playing = false;
     // 新增：标记OpenAL是否初始化完成
     private volatile boolean openALInitialized = false;
-    private final List<Integer> activeBuffers = new ArrayList<>();
-    // 重构：固定队列容量（适配4个缓冲区的节流逻辑）
+    // 常驻音频输出管理器及本播放器借出的输出（AL源+缓冲区名称池），清理时归还而不删除
+    private final AudioOutputManager outputManager;
+    private AudioOutputManager.Output output;
+    // OpenAL缓冲区名称复用池（出队后回收，重新alBufferData填充），随输出借出
+    private AlBufferNamePool bufferNamePool;
+    // 出队用的复用IntBuffer（容量=源上最多排队的缓冲区数）
+    private final IntBuffer unqueueScratch = BufferUtils.createIntBuffer(FIXED_BUFFER_COUNT * 2);
+    // 解码→供给线程的PCM块队列，容量需容纳抖动缓冲的最大目标（见构造方法）
     public final LinkedBlockingQueue<ByteBuffer> audioQueue;
+    // 解码线程转换输出的PCM缓冲区复用池，上传到OpenAL后归还
+    private final PcmBufferPool pcmBufferPool;
     private final String streamFormat;
 
     // 音频tick时间戳（仅用于固定tick频率）
     private long lastAudioTickTime = System.currentTimeMillis();
-    // 重构：固定缓冲区数量（核心，避免超速）
-    private static final int FIXED_BUFFER_COUNT = 12;
-    // 解码节流：队列缓冲时长阈值（毫秒），超过则休眠解码线程
-    private static final long DECODE_THROTTLE_THRESHOLD_MS = 200;
-    // 解决主线程问题，添加volatile保证多线程可见性
-    private volatile double PlaybackProgress;
-
-
-    // 重载构造方法：支持指定流格式，固定队列容量
-    public OpenALAudioPlayer(int sampleRate, int channels, String streamFormat) {
+    // 源上最多同时排队的缓冲区（块）数量
+    static final int FIXED_BUFFER_COUNT = 12;
+    // AL_PITCH下发的最小变化量
+    private static final float PITCH_UPDATE_STEP = 0.0005f;
+    // 绝对音频时钟：AL线程发布快照，任意线程无锁读取
+    private final AudioClock audioClock = new AudioClock();
+    // 已播放完毕并出队的缓冲区累计采样帧数（AL_SAMPLE_OFFSET只相对当前队列，需加上该值才是单调进度）
+    private long unqueuedSampleFrames = 0;
+    // 音频供给线程（独立于20Hz客户端tick补充OpenAL缓冲区）
+    private volatile Thread feederThread;
+    private volatile boolean feederRunning = false;
+    // 串行化本播放器的所有AL源操作（供给线程与主线程之间）
+    private final Object alLock = new Object();
+    // 预缓冲：首次启动及每次欠载后，缓冲到抖动缓冲目标才开始出声；是否已开始过播放（首次填充前不算欠载）
+    private boolean prebuffering = true;
+    private boolean hasStartedPlayback = false;
+    // 自适应抖动缓冲（目标延迟+漂移修正）及当前已应用到源上的AL_PITCH
+    private final AdaptiveJitterBuffer jitterBuffer;
+    private float appliedPitch = 1.0f;
+    // 已送入播放器与已播放的采样帧总数，二者之差即缓冲水位（O(1)）
+    private final AtomicLong writtenSampleFrames = new AtomicLong();
+    private volatile long playedSampleFrames = 0;
+    // 解码背压：水位高于高水位时解码线程在此等待，供给线程消耗到低水位后唤醒
+    private final BackpressureGate decodeGate = new BackpressureGate();
+    private final BooleanSupplier aboveLowWatermark = () -> getBufferedAudioMs() > getLowWatermarkMs();
+    // 单次背压等待上限（暂停等水位不再下降的情况下兜底返回）
+    private static final long MAX_THROTTLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+
+    // 重载构造方法：支持指定流格式，固定队列容量；AL源与缓冲区从常驻输出管理器借出
+    public OpenALAudioPlayer(int sampleRate, int channels, String streamFormat, AudioOutputManager outputManager) {
+        this.outputManager = outputManager;
         this.sampleRate = sampleRate;
         this.channels = channels;
         this.streamFormat = streamFormat;
         this.alFormat = channels == 2 ? AL10.AL_FORMAT_STEREO16 : AL10.AL_FORMAT_MONO16;
+        this.bytesPerFrame = channels * 2;
 
-        // 重构：固定队列容量（基于缓冲区数量*单缓冲区时长）
-        // 单缓冲区约50ms音频数据 → 4个缓冲区对应200ms，匹配节流阈值
-        int queueCapacity = FIXED_BUFFER_COUNT * 2;
+        long initialTargetMs = "m3u8".equals(streamFormat) ? VideoPlayerConfig.jitterInitialHlsMs : VideoPlayerConfig.jitterInitialMs;
+        this.jitterBuffer = new AdaptiveJitterBuffer(initialTargetMs, VideoPlayerConfig.jitterMinMs,
+                VideoPlayerConfig.jitterMaxMs, VideoPlayerConfig.maxPitchCorrection);
+
+        // 队列容量（基于缓冲区数量*单缓冲区时长）
+        // 单缓冲区为解码器分块器输出的一个固定时长块（VideoPlayerConfig.audioChunkMs），容量需容纳抖动缓冲的最大目标
+        long chunkMs = Math.max(1, VideoPlayerConfig.audioChunkMs);
+        int queueCapacity = (int) Math.max(FIXED_BUFFER_COUNT * 2, jitterBuffer.getMaxTargetMs() / chunkMs + 1);
         this.audioQueue = new LinkedBlockingQueue<>(queueCapacity);
+        this.pcmBufferPool = new PcmBufferPool(queueCapacity + FIXED_BUFFER_COUNT);
 
         System.out.println("[OpenALAudioPlayer] 初始化：采样率=" + sampleRate + "Hz，流格式=" + streamFormat);
-        System.out.println("[OpenALAudioPlayer] 固定缓冲区数量=" + FIXED_BUFFER_COUNT + "，解码队列容量=" + queueCapacity);
+        System.out.println("[OpenALAudioPlayer] 固定缓冲区数量=" + FIXED_BUFFER_COUNT + "，解码队列容量=" + queueCapacity
+                + "，初始目标延迟=" + jitterBuffer.getTargetMs() + "ms");
     }
 
 
-    /**
-     * 重构：使用executeAndWait确保初始化完成后再返回，避免时序脱钩
-     */
     /**
      * 重构：同步初始化OpenAL资源，确保初始化完成后再返回，避免时序脱钩
+     * 只是从常驻输出管理器借出已就绪的源，OpenAL上下文为进程级当前上下文时任意线程可直接完成
      */
     public void init() throws InterruptedException {
         MinecraftClient client = MinecraftClient.getInstance();
-        if (!client.isOnThread()) {
-            System.err.println("[OpenALAudioPlayer] 警告：init需在主线程执行，自动切换并等待...");
+        if (!client.isOnThread() && ALC10.alcGetCurrentContext() == 0) {
+            System.err.println("[OpenALAudioPlayer] 警告：未检测到进程级OpenAL上下文，转交主线程初始化并等待...");
             // 同步执行，使用CountDownLatch等待初始化完成
             java.util.concurrent.CountDownLatch latch = new java.util.concurrent.CountDownLatch(1);
             client.execute(() -> {
@@ -94,29 +139,35 @@ public class OpenALAudioPlayer {
     // 内部初始化方法，确保同步完成
     private void innerInit() {
         try {
-            // 严格校验OpenAL上下文（主线程）
+            // 严格校验OpenAL上下文（主线程，或进程级上下文下的任意调用线程）
             long currentContext = ALC10.alcGetCurrentContext();
             if (currentContext == 0) {
                 throw new RuntimeException("MC未初始化OpenAL上下文，无法创建源");
             }
 
-            // 创建AL源（仅主线程）
-            alSource = AL10.alGenSources();
-            if (alSource == 0) {
+            // 借出常驻的AL源（已停止、无排队缓冲区、参数已标准化）
+            AudioOutputManager.Output borrowed = outputManager.acquire();
+            if (borrowed == null) {
                 int error = AL10.alGetError();
-                throw new RuntimeException("生成OpenAL源失败，错误码：" + error + " (" + getALErrorName(error) + ")");
+                throw new RuntimeException("获取OpenAL源失败，错误码：" + error + " (" + getALErrorName(error) + ")");
             }
-
-            // 标准化源参数
-            AL10.alSourcef(alSource, AL10.AL_GAIN, 1.0f);
-            AL10.alSourcef(alSource, AL10.AL_PITCH, 1.0f);
-            AL10.alSource3f(alSource, AL10.AL_POSITION, 0.0f, 0.0f, 0.0f);
-            AL10.alSource3f(alSource, AL10.AL_VELOCITY, 0.0f, 0.0f, 0.0f);
-            AL10.alSource3f(alSource, AL10.AL_DIRECTION, 0.0f, 0.0f, 0.0f);
-            AL10.alSourcei(alSource, AL10.AL_LOOPING, AL10.AL_FALSE);
+            this.output = borrowed;
+            this.bufferNamePool = borrowed.bufferNames;
+            alSource = borrowed.source;
+
+            // AL_EXT_FLOAT32（每个上下文检测一次）：可用时直接接收交错float PCM，解码端省去量化为S16
+            boolean float32Supported = outputManager.isFloat32Supported();
+            this.floatOutput = float32Supported && VideoPlayerConfig.floatAudioOutput;
+            if (floatOutput) {
+                this.alFormat = channels == 2 ? EXTFloat32.AL_FORMAT_STEREO_FLOAT32 : EXTFloat32.AL_FORMAT_MONO_FLOAT32;
+                this.bytesPerFrame = channels * 4;
+            }
+            System.out.println("[OpenALAudioPlayer] AL_EXT_FLOAT32：" + (float32Supported ? "支持" : "不支持")
+                    + "，输出格式=" + getFormatName());
 
             this.openALInitialized = true;
-            System.out.println("[OpenALAudioPlayer] 复用MC的OpenAL上下文成功，源ID：" + alSource);
+            System.out.println("[OpenALAudioPlayer] 复用MC的OpenAL上下文成功，源ID：" + alSource
+                    + "，已有缓冲区：" + bufferNamePool.getGeneratedCount());
         } catch (Exception e) {
             System.err.println("[OpenALAudioPlayer] 初始化失败：" + e.getMessage());
             e.printStackTrace();
@@ -126,43 +177,106 @@ public class OpenALAudioPlayer {
 
 
     /**
-     * 核心重构：固定tick频率（20次/秒）+ 固定缓冲区数量管理
-     * 所有OpenAL操作严格限制在主线程
+     * 客户端tick回调：音频供给线程运行时无需处理；供给线程不可用时回退为主线程50ms一次的补充
      */
     public void tick() {
-        if (alSource == 0 || !playing) return;
+        if (alSource == 0 || !playing || feederRunning) return;
 
         MinecraftClient client = MinecraftClient.getInstance();
         if (!client.isOnThread()) {
-            // 非主线程则提交到主线程执行
+            // 回退模式下没有进程级上下文，AL调用只能在主线程执行
             client.execute(this::tick);
             return;
         }
 
-        try {
-            // 固定音频tick频率（20次/秒，50ms间隔）
-            long currentTime = System.currentTimeMillis();
-            final long FIXED_AUDIO_TICK_INTERVAL = 50;
-            if (currentTime - lastAudioTickTime < FIXED_AUDIO_TICK_INTERVAL) {
-                return;
+        // 固定音频tick频率（20次/秒，50ms间隔）
+        long currentTime = System.currentTimeMillis();
+        final long FIXED_AUDIO_TICK_INTERVAL = 50;
+        if (currentTime - lastAudioTickTime < FIXED_AUDIO_TICK_INTERVAL) {
+            return;
+        }
+        lastAudioTickTime = currentTime;
+        synchronized (alLock) {
+            streamOnce();
+        }
+    }
+
+    /**
+     * 启动音频供给线程：每隔几毫秒回收/补充一次缓冲区，不受游戏tick卡顿影响
+     * MC的OpenAL上下文为进程级当前上下文（alcMakeContextCurrent），其他线程可直接调用AL函数；
+     * 本播放器自身的AL操作统一在alLock内串行执行
+     */
+    private void startFeeder() {
+        if (feederThread != null) {
+            return;
+        }
+        if (ALC10.alcGetCurrentContext() == 0) {
+            System.err.println("[OpenALAudioPlayer] 未检测到进程级OpenAL上下文，回退为tick补充");
+            return;
+        }
+        feederRunning = true;
+        feederThread = new Thread(this::feederLoop, "OpenAL-Audio-Feeder-Thread");
+        feederThread.setDaemon(true);
+        feederThread.setPriority(Thread.MAX_PRIORITY);
+        feederThread.start();
+        System.out.println("[OpenALAudioPlayer] 音频供给线程已启动，补充间隔=" + VideoPlayerConfig.audioFeedIntervalMs + "ms");
+    }
+
+    private void feederLoop() {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, VideoPlayerConfig.audioFeedIntervalMs));
+        while (feederRunning) {
+            if (playing && alSource != 0) {
+                synchronized (alLock) {
+                    if (feederRunning && alSource != 0) {
+                        streamOnce();
+                    }
+                }
             }
-            lastAudioTickTime = currentTime;
+            LockSupport.parkNanos(this, intervalNanos);
+        }
+    }
 
-            // 1. 清理已播放的缓冲区（主线程）
+    private void stopFeeder() {
+        Thread thread = feederThread;
+        feederRunning = false;
+        feederThread = null;
+        if (thread != null && thread != Thread.currentThread()) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // 本播放器的AL操作线程：主线程或音频供给线程
+    private boolean isAlThread() {
+        return Thread.currentThread() == feederThread || MinecraftClient.getInstance().isOnThread();
+    }
+
+    /**
+     * 一次流式补充（调用方持有alLock）：回收已播放缓冲区 → 补充到固定数量 → 源意外停止时重启并计一次欠载
+     */
+    private void streamOnce() {
+        try {
+            // 1. 回收已播放的缓冲区
             int processed = AL10.alGetSourcei(alSource, AL10.AL_BUFFERS_PROCESSED);
             if (processed > 0) {
-                IntBuffer bufferIds = BufferUtils.createIntBuffer(processed);
+                IntBuffer bufferIds = unqueueScratch;
+                bufferIds.clear().limit(Math.min(processed, bufferIds.capacity()));
                 AL10.alSourceUnqueueBuffers(alSource, bufferIds);
 
-                for (int i = 0; i < processed; i++) {
+                for (int i = 0; i < bufferIds.limit(); i++) {
                     int bufferId = bufferIds.get(i);
-                    AL10.alDeleteBuffers(bufferId);
-                    activeBuffers.remove((Integer) bufferId);
+                    unqueuedSampleFrames += AL10.alGetBufferi(bufferId, AL10.AL_SIZE) / bytesPerFrame;
+                    // 回收名称，下次补充时直接重新填充
+                    bufferNamePool.recycle(bufferId);
                 }
-                //System.out.println("[OpenALTick] 清理已处理缓冲区：" + processed + "个，当前活跃缓冲区：" + activeBuffers.size());
+                //System.out.println("[OpenALTick] 回收已处理缓冲区：" + processed + "个，累计生成缓冲区：" + bufferNamePool.getGeneratedCount());
             }
 
-            // 2. 补充缓冲区到固定数量（核心：仅补充到4个，避免超速）
+            // 2. 补充缓冲区到固定数量（核心：仅补充到固定数量，避免超速）
             int currentQueued = AL10.alGetSourcei(alSource, AL10.AL_BUFFERS_QUEUED);
             // 补充：清除OpenAL错误，确保currentQueued获取准确
             int queuedError = AL10.alGetError();
@@ -183,32 +297,36 @@ public class OpenALAudioPlayer {
                 if (addedCount > 0) {
                     // 重新获取队列数量，确保后续播放触发准确
                     currentQueued = AL10.alGetSourcei(alSource, AL10.AL_BUFFERS_QUEUED);
-                    //System.out.println("[OpenALTick] 补充缓冲区：" + addedCount + "个，当前队列缓冲：" + audioQueue.size() + "，OpenAL源队列数量：" + currentQueued);
                 }
             }
 
-            // 3. 强化播放触发逻辑（核心：重试播放，无论当前状态是否为STOPPED）
+            // 3. 欠载检测：已开始播放后源因播空而停止（暂停为AL_PAUSED，不计入），每次断流只计一次
             int sourceState = AL10.alGetSourcei(alSource, AL10.AL_SOURCE_STATE);
-            String stateName = getALStateName(sourceState);
-            // 播放触发条件：队列中有缓冲区（currentQueued > 0），且未处于播放状态
-            if (currentQueued > 0) {
-                if (sourceState != AL10.AL_PLAYING) {
-                    AL10.alSourcePlay(alSource);
-                    // 检查播放是否触发成功
-                    int playError = AL10.alGetError();
-                    if (playError != AL10.AL_NO_ERROR) {
-                        System.err.println("[OpenALTick] 重试音频播放失败：" + getALErrorName(playError) + "，当前队列数量：" + currentQueued);
-                    } else {
-                        int newState = AL10.alGetSourcei(alSource, AL10.AL_SOURCE_STATE);
-                        //System.out.println("[OpenALTick] 重试音频播放成功，队列数量：" + currentQueued + "，播放前状态：" + stateName + "，播放后状态：" + getALStateName(newState));
-                    }
+            if (hasStartedPlayback && !prebuffering && sourceState == AL10.AL_STOPPED) {
+                prebuffering = true;
+                PlaybackMetrics.recordAudioUnderrun();
+                jitterBuffer.onUnderrun();
+                System.err.println("[OpenALTick] 音频欠载：OpenAL源已播空，当前音频队列缓冲：" + audioQueue.size()
+                        + "，累计欠载" + PlaybackMetrics.getAudioUnderruns() + "次，重新缓冲到" + jitterBuffer.getTargetMs() + "ms");
+            }
+
+            // 4. 播放触发：队列中有缓冲区但源未在播放；首次启动或欠载后需先缓冲到抖动缓冲目标
+            if (currentQueued > 0 && sourceState != AL10.AL_PLAYING
+                    && (!prebuffering || getBufferedAudioMs() >= jitterBuffer.getTargetMs() || audioQueue.remainingCapacity() == 0)) {
+                AL10.alSourcePlay(alSource);
+                // 检查播放是否触发成功
+                int playError = AL10.alGetError();
+                if (playError != AL10.AL_NO_ERROR) {
+                    System.err.println("[OpenALTick] 重试音频播放失败：" + getALErrorName(playError) + "，当前队列数量：" + currentQueued);
                 } else {
-                    //System.out.println("[OpenALTick] 音频正常播放中，队列数量：" + currentQueued + "，状态：" + stateName);
+                    prebuffering = false;
+                    hasStartedPlayback = true;
                 }
-            } else {
-                System.err.println("[OpenALTick] 无法触发播放：OpenAL源队列为空，当前音频队列缓冲：" + audioQueue.size());
             }
 
+            // 5. 发布音频时钟快照（同时更新抖动缓冲与速率修正）
+            publishAudioClock();
+
         } catch (Exception e) {
             System.err.println("[OpenALAudioPlayer] Tick错误：" + e.getMessage());
             e.printStackTrace();
@@ -217,124 +335,98 @@ public class OpenALAudioPlayer {
 
 
     /**
-     * 重构核心：获取音频真实播放进度（秒），基于OpenAL硬件采样偏移
-     * 唯一时间基准，供VideoRenderer同步视频帧
-     * @return 已播放音频秒数（精确到0.001秒）
-     */
-    /**
-     * 重构：同步获取音频真实播放进度（秒），基于OpenAL硬件采样偏移
+     * 获取音频播放进度（秒）：单调递增的绝对音频时钟，任意线程调用，无AL调用、无主线程往返
      * 唯一时间基准，供VideoRenderer同步视频帧
-     * @return 已播放音频秒数（精确到0.001秒）
+     * @return 已播放音频秒数
      */
     public double getPlaybackProgressInSeconds() {
-        if (alSource == 0 || !playing || !openALInitialized) return 0.0;
-
-        MinecraftClient client = MinecraftClient.getInstance();
-        // 同步获取：非主线程时阻塞等待主线程执行完成
-        if (!client.isOnThread()) {
-            // 使用CountDownLatch实现同步等待
-            java.util.concurrent.CountDownLatch latch = new java.util.concurrent.CountDownLatch(1);
-            client.execute(() -> {
-                try {
-                    innerGetPlaybackProgress();
-                } finally {
-                    latch.countDown();
-                }
-            });
-            try {
-                // 超时等待，避免卡死（50ms足够，对应音频tick频率）
-                latch.await(50, TimeUnit.MILLISECONDS);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                System.err.println("[OpenALAudioPlayer] 获取播放进度等待中断：" + e.getMessage());
-            }
-            return this.PlaybackProgress;
-        }
-        return innerGetPlaybackProgress();
+        if (alSource == 0 || !openALInitialized) return 0.0;
+        return audioClock.getSeconds();
     }
 
+    public AudioClock getAudioClock() {
+        return audioClock;
+    }
 
-    // 内部同步获取播放进度
-    // 内部同步获取播放进度
-    private double innerGetPlaybackProgress() {
-        // 前置校验：如果 OpenAL 未初始化或源无效，直接返回当前进度（避免返回 0.0 覆盖有效值）
-        if (!openALInitialized || alSource == 0) {
-            System.err.println("[OpenALAudioPlayer] 无法获取进度：OpenAL 未初始化或源无效");
-            return this.PlaybackProgress;
+    /**
+     * 采样OpenAL硬件进度并发布到音频时钟（调用方持有alLock）
+     * 进度 = 已出队采样帧总数 + 当前队列内AL_SAMPLE_OFFSET，单调递增
+     */
+    private void publishAudioClock() {
+        // 先清除之前的 OpenAL 错误（避免干扰当前获取操作的错误判断）
+        AL10.alGetError();
+        int sampleOffset = AL11.alGetSourcei(alSource, AL11.AL_SAMPLE_OFFSET);
+        int sourceState = AL10.alGetSourcei(alSource, AL10.AL_SOURCE_STATE);
+        int alError = AL10.alGetError();
+        if (alError != AL10.AL_NO_ERROR) {
+            System.err.println("[OpenALAudioPlayer] 获取采样偏移失败：" + getALErrorName(alError) + "，采样偏移返回值=" + sampleOffset);
+            return;
         }
-
-        try {
-            // 1. 先清除之前的 OpenAL 错误（避免干扰当前获取操作的错误判断）
-            AL10.alGetError();
-
-            // 2. 关键：获取硬件采样偏移量（AL11.AL_SAMPLE_OFFSET）
-            int sampleOffset = AL11.alGetSourcei(alSource, AL11.AL_SAMPLE_OFFSET);
-
-            // 3. 检查获取采样偏移是否出错（核心：OpenAL 错误检查，解决返回 0 的隐藏问题）
-            int alError = AL10.alGetError();
-            if (alError != AL10.AL_NO_ERROR) {
-                String errorMsg = getALErrorName(alError);
-                System.err.println("[OpenALAudioPlayer] 获取采样偏移失败：" + errorMsg + "，采样偏移返回值=" + sampleOffset);
-                // 返回当前已保存的进度，避免返回 0.0 覆盖有效值
-                return this.PlaybackProgress;
-            }
-
-            // 4. 计算播放进度（样本数 / 采样率 = 秒数，精确到毫秒级）
-            double progress = (double) sampleOffset / this.sampleRate;
-
-            // 5. 获取当前音频源状态（详细日志，排查是否真的在播放）
-            int sourceState = AL10.alGetSourcei(alSource, AL10.AL_SOURCE_STATE);
-            String stateName = getALStateName(sourceState);
-
-            // 6. 修复状态判断逻辑：无论是否播放，都更新进度（避免暂停时进度冻结在 0.0）
-//            if (sourceState != AL10.AL_PLAYING) {
-//                System.out.println("[OpenALAudioPlayer] 音频未播放（状态：" + stateName + "），当前进度=" + String.format("%.3f", progress) + "秒");
-//            } else {
-//                System.out.println("[OpenALAudioPlayer] 音频播放中（状态：" + stateName + "），采样偏移=" + sampleOffset + "，进度=" + String.format("%.3f", progress) + "秒");
-//            }
-
-            // 7. 更新全局进度变量（确保非主线程能获取到最新值）
-            this.PlaybackProgress = progress;
-
-            // 8. 返回有效进度
-            return progress;
-
-        } catch (Exception e) {
-            System.err.println("[OpenALAudioPlayer] 获取播放进度异常：" + e.getMessage());
-            e.printStackTrace();
-            // 异常时返回当前已保存的进度，避免返回 0.0
-            return this.PlaybackProgress;
+        long played = unqueuedSampleFrames + sampleOffset;
+        boolean running = playing && sourceState == AL10.AL_PLAYING;
+        playedSampleFrames = played;
+        decodeGate.signalIfWaiting(getBufferedAudioMs() <= getLowWatermarkMs());
+
+        // 抖动缓冲：仅在出声时采样水位，并按其给出的速率做漂移修正（变化足够大才下发，避免频繁设置）
+        long levelMs = getBufferedAudioMs();
+        if (running) {
+            jitterBuffer.observe(levelMs, System.nanoTime());
+        }
+        float pitch = running ? jitterBuffer.getPitch() : 1.0f;
+        if (Math.abs(pitch - appliedPitch) >= PITCH_UPDATE_STEP || (pitch == 1.0f && appliedPitch != 1.0f)) {
+            AL10.alSourcef(alSource, AL10.AL_PITCH, pitch);
+            appliedPitch = pitch;
         }
+        PlaybackMetrics.recordJitterBuffer(jitterBuffer.getTargetMs(), levelMs, appliedPitch);
+
+        audioClock.publish(played, sampleRate, appliedPitch, running);
     }
 
 
     /**
-     * 重构：解码线程节流逻辑（基于队列缓冲时长休眠）
-     * 供FFmpegVideoDecoder调用，避免解码速度超过播放速度
+     * 解码背压：缓冲水位超过高水位时阻塞解码线程，直到供给线程把水位消耗到低水位以下再唤醒
+     * 水位由已写入/已播放采样计数器O(1)得出；解码器在每块音频入队前调用一次
      */
     public void throttleDecodeThread() {
+        if (getBufferedAudioMs() <= getThrottleThresholdMs()) {
+            return;
+        }
         try {
-            // 计算当前队列缓冲的音频时长（毫秒）
-            int totalSamplesInQueue = 0;
-            for (ByteBuffer buffer : audioQueue) {
-                // 16位音频：每个样本2字节；立体声则每个样本占2通道*2字节=4字节
-                int bytesPerSample = channels * 2;
-                totalSamplesInQueue += buffer.remaining() / bytesPerSample;
-            }
-            long bufferedDurationMs = (long) (totalSamplesInQueue * 1000.0 / sampleRate);
-
-            // 如果缓冲时长超过阈值，休眠解码线程（避免队列堆积导致超速）
-            if (bufferedDurationMs > DECODE_THROTTLE_THRESHOLD_MS) {
-                long sleepTime = bufferedDurationMs - DECODE_THROTTLE_THRESHOLD_MS;
-                Thread.sleep(Math.min(sleepTime, 50)); // 单次休眠不超过50ms，避免卡死
-                //System.out.println("[OpenALAudioPlayer] 解码节流：缓冲时长=" + bufferedDurationMs + "ms，休眠" + sleepTime + "ms");
-            }
+            decodeGate.await(aboveLowWatermark, MAX_THROTTLE_WAIT_NANOS);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            System.err.println("[OpenALAudioPlayer] 解码节流休眠中断：" + e.getMessage());
-        } catch (Exception e) {
-            System.err.println("[OpenALAudioPlayer] 解码节流计算失败：" + e.getMessage());
+            System.err.println("[OpenALAudioPlayer] 解码背压等待中断：" + e.getMessage());
+        }
+    }
+
+    // 低水位：比高水位低两个块或10%，避免每消耗一块就唤醒一次
+    private long getLowWatermarkMs() {
+        long highMs = getThrottleThresholdMs();
+        return highMs - Math.max(VideoPlayerConfig.audioChunkMs * 2, highMs / 10);
+    }
+
+    /**
+     * 直播流：阈值为抖动缓冲最大目标，分片突发全部进入缓冲区，水位统计才能看到真实抖动，平均水位由速率修正拉回目标；
+     * 若按目标节流，突发会滞留在上游（FFmpeg/网络）既不可见又增加延迟
+     * 点播流：随目标变化，留出一倍目标的余量
+     */
+    private long getThrottleThresholdMs() {
+        if (jitterBuffer.isDriftCorrectionEnabled()) {
+            return jitterBuffer.getMaxTargetMs();
         }
+        return Math.min(jitterBuffer.getMaxTargetMs(), jitterBuffer.getTargetMs() * 2 + VideoPlayerConfig.audioChunkMs);
+    }
+
+    /**
+     * 缓冲水位（毫秒）：已送入播放器但尚未播放的音频时长，含Java队列与OpenAL源队列
+     */
+    public long getBufferedAudioMs() {
+        long frames = writtenSampleFrames.get() - playedSampleFrames;
+        return frames <= 0 ? 0 : frames * 1000 / sampleRate;
+    }
+
+    public AdaptiveJitterBuffer getJitterBuffer() {
+        return jitterBuffer;
     }
 
     /**
@@ -345,12 +437,15 @@ public class OpenALAudioPlayer {
         try {
             // M3U8入队超时延长到500ms，FLV为100ms
             long timeout = "m3u8".equals(streamFormat) ? 500 : 100;
+            // 入队后缓冲区可能立即被供给线程上传并归还，采样数需先取出
+            long sampleFrames = audioBuffer.remaining() / bytesPerFrame;
             boolean success = audioQueue.offer(audioBuffer, timeout, TimeUnit.MILLISECONDS);
+            if (success) {
+                writtenSampleFrames.addAndGet(sampleFrames);
+            }
             if (!success) {
                 //System.err.println("[OpenALAudioPlayer] 音频数据入队失败：队列已满（容量=" + audioQueue.size() + "/" + audioQueue.remainingCapacity() + ")");
             }
-            // 入队后立即执行节流，从源头控制解码速度
-            throttleDecodeThread();
             return success;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -359,19 +454,29 @@ public class OpenALAudioPlayer {
         }
     }
 
+    public PcmBufferPool getPcmBufferPool() {
+        return pcmBufferPool;
+    }
+
     /**
-     * 内部：队列单个缓冲区（仅主线程调用）
+     * 内部：队列单个缓冲区（音频供给线程调用，回退模式下为主线程，调用方持有alLock）；alBufferData会拷贝数据，返回后audioData即归还缓冲池
      */
     private void queueAudioBuffer(ByteBuffer audioData) {
-        if (alSource == 0 || !MinecraftClient.getInstance().isOnThread()) {
-            System.err.println("[OpenALAudioPlayer] 缓冲区操作必须在主线程执行");
+        try {
+            uploadAudioBuffer(audioData);
+        } finally {
+            pcmBufferPool.release(audioData);
+        }
+    }
+
+    private void uploadAudioBuffer(ByteBuffer audioData) {
+        if (alSource == 0 || !isAlThread()) {
+            System.err.println("[OpenALAudioPlayer] 缓冲区操作必须在主线程或音频供给线程执行");
             return;
         }
 
         try {
-            IntBuffer bufferId = BufferUtils.createIntBuffer(1);
-            AL10.alGenBuffers(bufferId);
-            int buffer = bufferId.get(0);
+            int buffer = bufferNamePool.acquire();
 
             if (buffer == 0) {
                 int error = AL10.alGetError();
@@ -387,22 +492,20 @@ public class OpenALAudioPlayer {
             int bufferError = AL10.alGetError();
             if (bufferError != AL10.AL_NO_ERROR) {
                 System.err.println("[OpenALAudioPlayer] 填充缓冲区数据失败：" + getALErrorName(bufferError)
-                        + "，采样率=" + sampleRate + "，格式=" + (alFormat == AL10.AL_FORMAT_STEREO16 ? "STEREO16" : "MONO16"));
-                AL10.alDeleteBuffers(buffer); // 清理无效缓冲区
+                        + "，采样率=" + sampleRate + "，格式=" + getFormatName());
+                bufferNamePool.recycle(buffer); // 名称回收，下次重新填充
                 return;
             }
 
             // 4. 队列缓冲区到音频源
-            AL10.alSourceQueueBuffers(alSource, bufferId);
+            AL10.alSourceQueueBuffers(alSource, buffer);
             int queueError = AL10.alGetError();
             if (queueError != AL10.AL_NO_ERROR) {
                 System.err.println("[OpenALAudioPlayer] 队列缓冲区到源失败：" + getALErrorName(queueError));
-                AL10.alDeleteBuffers(buffer); // 清理无效缓冲区
+                bufferNamePool.recycle(buffer); // 名称回收，下次重新填充
                 return;
             }
-
-            activeBuffers.add(buffer);
-            //System.out.println("[OpenALAudioPlayer] 缓冲区队列成功：ID=" + buffer + "，当前活跃缓冲区数=" + activeBuffers.size());
+            //System.out.println("[OpenALAudioPlayer] 缓冲区队列成功：ID=" + buffer + "，累计生成缓冲区：" + bufferNamePool.getGeneratedCount());
 
         } catch (Exception e) {
             System.err.println("[OpenALAudioPlayer] 队列缓冲区失败：" + e.getMessage());
@@ -424,10 +527,15 @@ public class OpenALAudioPlayer {
     }
 
     private void innerPlay() {
-        this.playing = true;
-        if (alSource != 0 && openALInitialized) {
-            AL10.alSourcePlay(alSource);
-            System.out.println("[OpenALAudioPlayer] 音频播放已启动");
+        synchronized (alLock) {
+            this.playing = true;
+            if (alSource != 0 && openALInitialized) {
+                AL10.alSourcePlay(alSource);
+                System.out.println("[OpenALAudioPlayer] 音频播放已启动");
+            }
+        }
+        if (openALInitialized) {
+            startFeeder();
         }
     }
 
@@ -444,10 +552,14 @@ public class OpenALAudioPlayer {
     }
 
     private void innerPause() {
-        this.playing = false;
-        if (alSource != 0 && openALInitialized) {
-            AL10.alSourcePause(alSource);
-            System.out.println("[OpenALAudioPlayer] 音频已暂停");
+        synchronized (alLock) {
+            this.playing = false;
+            if (alSource != 0 && openALInitialized) {
+                AL10.alSourcePause(alSource);
+                // 暂停后时钟静止在当前位置
+                publishAudioClock();
+                System.out.println("[OpenALAudioPlayer] 音频已暂停");
+            }
         }
     }
 
@@ -464,27 +576,29 @@ public class OpenALAudioPlayer {
     }
 
     private void innerCleanup() {
+        // 唤醒背压等待中的解码线程；先停止供给线程，再释放AL资源
+        decodeGate.close();
+        stopFeeder();
         try {
             this.playing = false;
+            this.unqueuedSampleFrames = 0;
+            this.audioClock.reset();
+            this.writtenSampleFrames.set(0);
+            this.playedSampleFrames = 0;
+            this.appliedPitch = 1.0f;
+            this.prebuffering = true;
+            this.hasStartedPlayback = false;
             this.openALInitialized = false;
-            if (alSource != 0) {
-                AL10.alSourceStop(alSource);
-                AL10.alSourcei(alSource, AL10.AL_BUFFER, 0);
-
-                // 清理所有活跃缓冲区
-                for (int buffer : activeBuffers) {
-                    AL10.alDeleteBuffers(buffer);
-                }
-                activeBuffers.clear();
-
-                // 删除AL源
-                AL10.alDeleteSources(alSource);
+            if (output != null) {
+                // 停源、解绑缓冲区后归还给常驻输出管理器，下一路流直接复用
+                outputManager.release(output);
+                output = null;
                 alSource = 0;
             }
 
             // 清空队列
             audioQueue.clear();
-            System.out.println("[OpenALAudioPlayer] 音频资源已完全清理");
+            System.out.println("[OpenALAudioPlayer] 音频资源已清理，AL源已归还");
         } catch (Exception e) {
             System.err.println("[OpenALAudioPlayer] 清理失败：" + e.getMessage());
             e.printStackTrace();
@@ -507,15 +621,10 @@ public class OpenALAudioPlayer {
     }
 
     /**
-     * 获取音频缓冲时长（毫秒）（供解码器初始化缓冲判断）
+     * 获取音频缓冲时长（毫秒）（供解码器初始化缓冲判断），O(1)计数器，不遍历队列
      */
     public long getAudioBufferDurationMs() {
-        int totalSamplesInQueue = 0;
-        int bytesPerSample = channels * 2;
-        for (ByteBuffer buffer : audioQueue) {
-            totalSamplesInQueue += buffer.remaining() / bytesPerSample;
-        }
-        return (long) (totalSamplesInQueue * 1000.0 / sampleRate);
+        return getBufferedAudioMs();
     }
 
     /**
@@ -567,6 +676,21 @@ public class OpenALAudioPlayer {
         return channels;
     }
 
+    /**
+     * 是否输出交错float（AL_EXT_FLOAT32），OpenAL初始化完成后才确定
+     */
+    public boolean isFloatOutput() {
+        return floatOutput;
+    }
+
+    public int getBytesPerFrame() {
+        return bytesPerFrame;
+    }
+
+    private String getFormatName() {
+        return (channels == 2 ? "STEREO" : "MONO") + (floatOutput ? "_FLOAT32" : "16");
+    }
+
     // 移除手动时长相关的setter（冗余，无需再维护）
     public void setSingleBufferExactDurationMs(long durationMs) {
         // 空实现，不再需要手动维护单缓冲区时长
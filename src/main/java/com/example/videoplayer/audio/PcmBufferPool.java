@@ -0,0 +1,58 @@
+package com.example.videoplayer.audio;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PCM堆外缓冲区复用池（解码线程借出→OpenAL上传后归还），避免每个音频帧allocateDirect
+ * 容量按4KB向上取整，借出时容量不足的旧缓冲区直接丢弃并重新分配
+ */
+public class PcmBufferPool {
+    private static final int ALIGN_BYTES = 4096;
+
+    private final ConcurrentLinkedQueue<ByteBuffer> freeBuffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger freeCount = new AtomicInteger();
+    private final int maxPooled;
+    // 新分配缓冲区的最小容量（分块器设置为块大小，使帧缓冲与块缓冲可互换）
+    private volatile int minimumCapacity = 0;
+
+    public PcmBufferPool(int maxPooled) {
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * 借出至少bytes字节的缓冲区（position=0，limit=bytes，本地字节序）
+     */
+    public ByteBuffer acquire(int bytes) {
+        ByteBuffer buffer = freeBuffers.poll();
+        if (buffer != null) {
+            freeCount.decrementAndGet();
+        }
+        if (buffer == null || buffer.capacity() < bytes) {
+            int capacity = (Math.max(bytes, minimumCapacity) + ALIGN_BYTES - 1) / ALIGN_BYTES * ALIGN_BYTES;
+            buffer = ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+        }
+        buffer.clear().limit(bytes);
+        return buffer;
+    }
+
+    public void setMinimumCapacity(int bytes) {
+        this.minimumCapacity = Math.max(0, bytes);
+    }
+
+    /**
+     * 归还缓冲区（数据已上传到OpenAL或已被丢弃），池满时交给GC
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect()) {
+            return;
+        }
+        if (freeCount.incrementAndGet() <= maxPooled) {
+            freeBuffers.offer(buffer);
+        } else {
+            freeCount.decrementAndGet();
+        }
+    }
+}
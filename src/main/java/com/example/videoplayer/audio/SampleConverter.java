@@ -0,0 +1,316 @@
+package com.example.videoplayer.audio;
+
+import com.example.videoplayer.util.VideoPlayerConfig;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * 音频采样转换：平面/交错输入 → 交错S16或交错float（单声道或立体声），多声道按ITU-R BS.775下混为立体声
+ * 1. 输入先批量拷贝到复用的float平面（FloatBuffer.get(float[])为整块拷贝，无逐样本get）
+ * 2. 不超过2声道：S16输出为限幅+量化（子类VectorSampleConverter用Vector API实现SIMD版本）；
+ *    float输出（OpenAL支持AL_EXT_FLOAT32时）无需下混，FLTP→FLT只是交错
+ * 3. 多声道：按ITU系数下混（不整体归一化，前置左右声道保持原响度）→ DownmixLimiter峰值限幅 → 按输出格式量化或直接输出
+ *    旧实现把每行系数归一化到和为1，5.1输入的前置左右声道被压低约7.6dB
+ * 4. 交错写入PcmBufferPool借出的复用缓冲区
+ * 每个实例只供一个解码线程使用（内部scratch数组非线程安全）
+ */
+public class SampleConverter {
+    protected static final float S16_SCALE = 32767f;
+    protected static final float S16_INV_SCALE = 1f / 32768f;
+    // -3dB
+    private static final float MINUS_3DB = 0.70710677f;
+    private static volatile boolean kernelLogged = false;
+
+    protected final int inputChannels;
+    protected final int outputChannels;
+    // 输出交错float（true）或交错S16（false）
+    protected final boolean floatOutput;
+    // 下混矩阵：mix[输出通道][输入通道]
+    protected final float[][] mix;
+    // 多声道下混的峰值限幅（不超过2声道时不使用）
+    private final DownmixLimiter limiter = new DownmixLimiter();
+    // 复用的输入平面/输出平面/交错输出
+    protected float[][] inputPlanes = new float[0][];
+    protected short[][] outputPlanes = new short[0][];
+    protected short[] interleaved = new short[0];
+    // 多声道下混结果、float输出时的交错输出
+    protected float[][] mixedPlanes = new float[0][];
+    protected float[] interleavedFloat = new float[0];
+
+    protected SampleConverter(int inputChannels, boolean floatOutput) {
+        this.inputChannels = Math.max(1, inputChannels);
+        this.outputChannels = Math.min(2, this.inputChannels);
+        this.floatOutput = floatOutput;
+        this.mix = buildMixMatrix(this.inputChannels);
+    }
+
+    /**
+     * 按运行环境选择实现：JVM加载了jdk.incubator.vector模块（--add-modules jdk.incubator.vector）时使用SIMD内核，否则标量实现
+     * @param floatOutput 输出交错float（OpenAL AL_EXT_FLOAT32），否则交错S16
+     */
+    public static SampleConverter create(int inputChannels, boolean floatOutput) {
+        boolean vectorModule = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        if (VideoPlayerConfig.vectorAudioKernels && vectorModule) {
+            try {
+                SampleConverter converter = new VectorSampleConverter(inputChannels, floatOutput);
+                logKernelOnce("Vector API（SIMD）");
+                return converter;
+            } catch (LinkageError e) {
+                System.err.println("[SampleConverter] Vector API不可用，回退到标量实现：" + e.getMessage());
+            }
+        }
+        logKernelOnce(vectorModule || !VideoPlayerConfig.vectorAudioKernels
+                ? "标量"
+                : "标量（启用SIMD需在启动器JVM参数中加入 --add-modules jdk.incubator.vector）");
+        return new SampleConverter(inputChannels, floatOutput);
+    }
+
+    // 首次创建时打印使用的转换内核，便于确认启动器JVM参数是否生效
+    private static void logKernelOnce(String kernel) {
+        if (!kernelLogged) {
+            kernelLogged = true;
+            System.out.println("[SampleConverter] 音频转换内核：" + kernel);
+        }
+    }
+
+    /**
+     * 输出通道数：单声道输入保持单声道，其余均为立体声
+     */
+    public static int outputChannelsFor(int inputChannels) {
+        return Math.min(2, Math.max(1, inputChannels));
+    }
+
+    // FFmpeg默认声道顺序：5.1=FL FR FC LFE BL BR；7.1=FL FR FC LFE BL BR SL SR；LFE不参与下混
+    private static float[][] buildMixMatrix(int channels) {
+        if (channels == 1) {
+            return new float[][]{{1f}};
+        }
+        float[] left = new float[channels];
+        float[] right = new float[channels];
+        left[0] = 1f;
+        right[1] = 1f;
+        switch (channels) {
+            case 2 -> {
+            }
+            case 6, 8 -> {
+                left[2] = MINUS_3DB;
+                right[2] = MINUS_3DB;
+                for (int c = 4; c < channels; c += 2) {
+                    left[c] = MINUS_3DB;
+                    right[c + 1] = MINUS_3DB;
+                }
+            }
+            default -> {
+                // 未知布局：其余声道各以-3dB平均分到左右
+                for (int c = 2; c < channels; c++) {
+                    left[c] = MINUS_3DB / 2;
+                    right[c] = MINUS_3DB / 2;
+                }
+            }
+        }
+        // 不归一化：全声道同时接近满幅时由DownmixLimiter压低增益
+        return new float[][]{left, right};
+    }
+
+    /**
+     * 平面float（FLTP）→ 交错S16/float
+     */
+    public ByteBuffer convertFloatPlanar(FloatBuffer[] planes, int sampleCount, PcmBufferPool pool) {
+        ensureCapacity(sampleCount);
+        for (int c = 0; c < inputChannels; c++) {
+            FloatBuffer plane = planes[Math.min(c, planes.length - 1)].duplicate();
+            plane.rewind();
+            plane.get(inputPlanes[c], 0, sampleCount);
+        }
+        return mixAndEmit(sampleCount, pool);
+    }
+
+    /**
+     * 交错float（FLT）→ 交错S16/float（float输出且不超过2声道时为整块拷贝）
+     */
+    public ByteBuffer convertFloatInterleaved(FloatBuffer samples, int sampleCount, PcmBufferPool pool) {
+        FloatBuffer source = samples.duplicate();
+        source.rewind();
+        if (floatOutput && inputChannels <= 2) {
+            int total = sampleCount * inputChannels;
+            ByteBuffer output = pool.acquire(total * 4);
+            output.asFloatBuffer().put(source.limit(Math.min(source.limit(), total)));
+            return output;
+        }
+        ensureCapacity(sampleCount);
+        for (int i = 0; i < sampleCount; i++) {
+            for (int c = 0; c < inputChannels; c++) {
+                inputPlanes[c][i] = source.get();
+            }
+        }
+        return mixAndEmit(sampleCount, pool);
+    }
+
+    /**
+     * 平面S16（S16P）→ 交错S16/float
+     */
+    public ByteBuffer convertS16Planar(ShortBuffer[] planes, int sampleCount, PcmBufferPool pool) {
+        ensureCapacity(sampleCount);
+        for (int c = 0; c < inputChannels; c++) {
+            ShortBuffer plane = planes[Math.min(c, planes.length - 1)].duplicate();
+            plane.rewind();
+            loadS16Plane(plane, inputPlanes[c], sampleCount);
+        }
+        return mixAndEmit(sampleCount, pool);
+    }
+
+    /**
+     * 交错S16 → 交错S16/float（S16输出且声道数不超过2时为整块拷贝，否则解交错后下混）
+     */
+    public ByteBuffer convertS16Interleaved(ShortBuffer samples, int sampleCount, PcmBufferPool pool) {
+        ShortBuffer source = samples.duplicate();
+        source.rewind();
+        if (!floatOutput && inputChannels <= 2) {
+            int total = sampleCount * inputChannels;
+            ByteBuffer output = pool.acquire(total * 2);
+            output.asShortBuffer().put(source.limit(Math.min(source.limit(), total)));
+            return output;
+        }
+        ensureCapacity(sampleCount);
+        for (int i = 0; i < sampleCount; i++) {
+            for (int c = 0; c < inputChannels; c++) {
+                inputPlanes[c][i] = source.get() * S16_INV_SCALE;
+            }
+        }
+        return mixAndEmit(sampleCount, pool);
+    }
+
+    // inputPlanes → 按输出格式下混并交错写出
+    private ByteBuffer mixAndEmit(int sampleCount, PcmBufferPool pool) {
+        if (inputChannels <= 2) {
+            if (!floatOutput) {
+                mixToS16(sampleCount);
+                return emit(sampleCount, pool);
+            }
+            // 单声道/立体声的下混矩阵为单位阵，直接交错输入平面
+            return emitFloat(inputPlanes, sampleCount, pool);
+        }
+        mixToFloat(sampleCount);
+        limiter.process(mixedPlanes, outputChannels, sampleCount);
+        if (!floatOutput) {
+            quantizeS16(sampleCount);
+            return emit(sampleCount, pool);
+        }
+        return emitFloat(mixedPlanes, sampleCount, pool);
+    }
+
+    // S16平面转float（标量实现）
+    protected void loadS16Plane(ShortBuffer source, float[] destination, int sampleCount) {
+        for (int i = 0; i < sampleCount; i++) {
+            destination[i] = source.get(i) * S16_INV_SCALE;
+        }
+    }
+
+    // 下混+限幅+量化：inputPlanes → outputPlanes（标量实现，仅不超过2声道的S16输出使用）
+    protected void mixToS16(int sampleCount) {
+        for (int o = 0; o < outputChannels; o++) {
+            float[] gains = mix[o];
+            short[] output = outputPlanes[o];
+            for (int i = 0; i < sampleCount; i++) {
+                float value = 0f;
+                for (int c = 0; c < inputChannels; c++) {
+                    value += inputPlanes[c][i] * gains[c];
+                }
+                value = Math.max(-1.0f, Math.min(1.0f, value));
+                output[i] = (short) (value * S16_SCALE);
+            }
+        }
+    }
+
+    // 下混：inputPlanes → mixedPlanes（标量实现，多声道时使用；不限幅，峰值交给DownmixLimiter）
+    protected void mixToFloat(int sampleCount) {
+        for (int o = 0; o < outputChannels; o++) {
+            float[] gains = mix[o];
+            float[] output = mixedPlanes[o];
+            for (int i = 0; i < sampleCount; i++) {
+                float value = 0f;
+                for (int c = 0; c < inputChannels; c++) {
+                    value += inputPlanes[c][i] * gains[c];
+                }
+                output[i] = value;
+            }
+        }
+    }
+
+    // 量化：mixedPlanes → outputPlanes（标量实现，多声道S16输出时使用）
+    protected void quantizeS16(int sampleCount) {
+        for (int o = 0; o < outputChannels; o++) {
+            float[] input = mixedPlanes[o];
+            short[] output = outputPlanes[o];
+            for (int i = 0; i < sampleCount; i++) {
+                output[i] = (short) (Math.max(-1.0f, Math.min(1.0f, input[i])) * S16_SCALE);
+            }
+        }
+    }
+
+    // 交错写入池化缓冲区（float）
+    private ByteBuffer emitFloat(float[][] planes, int sampleCount, PcmBufferPool pool) {
+        int total = sampleCount * outputChannels;
+        ByteBuffer output = pool.acquire(total * 4);
+        if (outputChannels == 1) {
+            output.asFloatBuffer().put(planes[0], 0, sampleCount);
+            return output;
+        }
+        float[] left = planes[0];
+        float[] right = planes[1];
+        for (int i = 0, j = 0; i < sampleCount; i++, j += 2) {
+            interleavedFloat[j] = left[i];
+            interleavedFloat[j + 1] = right[i];
+        }
+        output.asFloatBuffer().put(interleavedFloat, 0, total);
+        return output;
+    }
+
+    // 交错写入池化缓冲区（S16）
+    private ByteBuffer emit(int sampleCount, PcmBufferPool pool) {
+        int total = sampleCount * outputChannels;
+        if (outputChannels == 1) {
+            System.arraycopy(outputPlanes[0], 0, interleaved, 0, sampleCount);
+        } else {
+            short[] left = outputPlanes[0];
+            short[] right = outputPlanes[1];
+            for (int i = 0, j = 0; i < sampleCount; i++, j += 2) {
+                interleaved[j] = left[i];
+                interleaved[j + 1] = right[i];
+            }
+        }
+        ByteBuffer output = pool.acquire(total * 2);
+        output.asShortBuffer().put(interleaved, 0, total);
+        return output;
+    }
+
+    private void ensureCapacity(int sampleCount) {
+        if (inputPlanes.length == inputChannels && inputPlanes[0].length >= sampleCount) {
+            return;
+        }
+        inputPlanes = new float[inputChannels][sampleCount];
+        if (inputChannels > 2) {
+            mixedPlanes = new float[outputChannels][sampleCount];
+        }
+        if (floatOutput) {
+            interleavedFloat = new float[sampleCount * outputChannels];
+        } else {
+            outputPlanes = new short[outputChannels][sampleCount];
+            interleaved = new short[sampleCount * outputChannels];
+        }
+    }
+
+    public int getInputChannels() {
+        return inputChannels;
+    }
+
+    public int getOutputChannels() {
+        return outputChannels;
+    }
+
+    public boolean isFloatOutput() {
+        return floatOutput;
+    }
+}
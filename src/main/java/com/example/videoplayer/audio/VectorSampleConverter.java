@@ -0,0 +1,141 @@
+package com.example.videoplayer.audio;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ShortBuffer;
+
+/**
+ * SampleConverter的SIMD实现（jdk.incubator.vector）
+ * 仅在JVM以 --add-modules jdk.incubator.vector 启动时由SampleConverter.create()加载，
+ * 未加载该模块时本类不会被解析，不影响标量路径
+ * 1. 单声道/立体声S16输出：每个输出声道对所有输入平面做向量FMA，再限幅、乘满幅、F2S窄化，与标量版结果逐样本一致
+ * 2. 多声道下混：同样的向量FMA，写回float平面（峰值限幅由父类的DownmixLimiter处理），S16输出再经向量限幅+量化
+ * 3. S16P载入：ShortVector经S2F扩宽为float
+ * 尾部不足一个向量长度的样本交给标量实现
+ */
+class VectorSampleConverter extends SampleConverter {
+    private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+    // 与float向量同车道数的short向量（位宽减半）
+    private static final VectorSpecies<Short> SHORT_SPECIES =
+            VectorSpecies.of(short.class, VectorShape.forBitSize(FLOAT_SPECIES.vectorBitSize() / 2));
+
+    // S16P载入时的short暂存（复用）
+    private short[] shortScratch = new short[0];
+    // 下混系数的广播向量：[输出通道][输入通道]，构造时一次性生成
+    private final FloatVector[][] mixVectors;
+
+    VectorSampleConverter(int inputChannels, boolean floatOutput) {
+        super(inputChannels, floatOutput);
+        this.mixVectors = new FloatVector[outputChannels][this.inputChannels];
+        for (int o = 0; o < outputChannels; o++) {
+            for (int c = 0; c < this.inputChannels; c++) {
+                mixVectors[o][c] = FloatVector.broadcast(FLOAT_SPECIES, mix[o][c]);
+            }
+        }
+    }
+
+    @Override
+    protected void loadS16Plane(ShortBuffer source, float[] destination, int sampleCount) {
+        if (shortScratch.length < sampleCount) {
+            shortScratch = new short[sampleCount];
+        }
+        source.get(0, shortScratch, 0, sampleCount);
+        int step = FLOAT_SPECIES.length();
+        int bound = FLOAT_SPECIES.loopBound(sampleCount);
+        int i = 0;
+        for (; i < bound; i += step) {
+            ((FloatVector) ShortVector.fromArray(SHORT_SPECIES, shortScratch, i)
+                    .convertShape(VectorOperators.S2F, FLOAT_SPECIES, 0))
+                    .mul(S16_INV_SCALE)
+                    .intoArray(destination, i);
+        }
+        for (; i < sampleCount; i++) {
+            destination[i] = shortScratch[i] * S16_INV_SCALE;
+        }
+    }
+
+    @Override
+    protected void mixToS16(int sampleCount) {
+        int step = FLOAT_SPECIES.length();
+        int bound = FLOAT_SPECIES.loopBound(sampleCount);
+        for (int o = 0; o < outputChannels; o++) {
+            float[] gains = mix[o];
+            short[] output = outputPlanes[o];
+            FloatVector[] gainVectors = mixVectors[o];
+            int i = 0;
+            for (; i < bound; i += step) {
+                FloatVector value = FloatVector.zero(FLOAT_SPECIES);
+                for (int c = 0; c < inputChannels; c++) {
+                    if (gains[c] != 0f) {
+                        value = FloatVector.fromArray(FLOAT_SPECIES, inputPlanes[c], i).fma(gainVectors[c], value);
+                    }
+                }
+                ((ShortVector) value.max(-1.0f).min(1.0f).mul(S16_SCALE)
+                        .convertShape(VectorOperators.F2S, SHORT_SPECIES, 0))
+                        .intoArray(output, i);
+            }
+            // 尾部样本
+            for (; i < sampleCount; i++) {
+                float value = 0f;
+                for (int c = 0; c < inputChannels; c++) {
+                    value += inputPlanes[c][i] * gains[c];
+                }
+                value = Math.max(-1.0f, Math.min(1.0f, value));
+                output[i] = (short) (value * S16_SCALE);
+            }
+        }
+    }
+
+    @Override
+    protected void mixToFloat(int sampleCount) {
+        int step = FLOAT_SPECIES.length();
+        int bound = FLOAT_SPECIES.loopBound(sampleCount);
+        for (int o = 0; o < outputChannels; o++) {
+            float[] gains = mix[o];
+            float[] output = mixedPlanes[o];
+            FloatVector[] gainVectors = mixVectors[o];
+            int i = 0;
+            for (; i < bound; i += step) {
+                FloatVector value = FloatVector.zero(FLOAT_SPECIES);
+                for (int c = 0; c < inputChannels; c++) {
+                    if (gains[c] != 0f) {
+                        value = FloatVector.fromArray(FLOAT_SPECIES, inputPlanes[c], i).fma(gainVectors[c], value);
+                    }
+                }
+                value.intoArray(output, i);
+            }
+            // 尾部样本
+            for (; i < sampleCount; i++) {
+                float value = 0f;
+                for (int c = 0; c < inputChannels; c++) {
+                    value += inputPlanes[c][i] * gains[c];
+                }
+                output[i] = value;
+            }
+        }
+    }
+
+    @Override
+    protected void quantizeS16(int sampleCount) {
+        int step = FLOAT_SPECIES.length();
+        int bound = FLOAT_SPECIES.loopBound(sampleCount);
+        for (int o = 0; o < outputChannels; o++) {
+            float[] input = mixedPlanes[o];
+            short[] output = outputPlanes[o];
+            int i = 0;
+            for (; i < bound; i += step) {
+                ((ShortVector) FloatVector.fromArray(FLOAT_SPECIES, input, i).max(-1.0f).min(1.0f).mul(S16_SCALE)
+                        .convertShape(VectorOperators.F2S, SHORT_SPECIES, 0))
+                        .intoArray(output, i);
+            }
+            // 尾部样本
+            for (; i < sampleCount; i++) {
+                output[i] = (short) (Math.max(-1.0f, Math.min(1.0f, input[i])) * S16_SCALE);
+            }
+        }
+    }
+}
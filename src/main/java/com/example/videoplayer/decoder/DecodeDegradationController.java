@@ -0,0 +1,106 @@
+package com.example.videoplayer.decoder;
+
+import com.example.videoplayer.util.PlaybackMetrics;
+import org.bytedeco.ffmpeg.avcodec.AVCodecContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.bytedeco.ffmpeg.global.avcodec.*;
+
+/**
+ * 解码降级控制器：根据解码输出相对主时钟的滞后，逐级让FFmpeg少做工作，而不是解码完再丢帧
+ * 级别：
+ * 0. 正常解码
+ * 1. 跳过环路滤波（skip_loop_filter=all，画质略降，省约20%~30%解码时间）
+ * 2. 再跳过非参考帧（skip_frame=nonref）
+ * 3. 仅解码关键帧（skip_frame=nonkey）
+ * 滞后持续超过阈值时升一级，滞后消失并保持一段时间后降一级；每级至少保持HOLD_MS避免抖动
+ * 仅由视频解码线程调用（修改AVCodecContext字段，在下一次解码调用时生效）
+ */
+class DecodeDegradationController {
+    private static final Logger logger = LoggerFactory.getLogger(DecodeDegradationController.class);
+
+    static final int LEVEL_NONE = 0;
+    static final int LEVEL_SKIP_LOOP_FILTER = 1;
+    static final int LEVEL_SKIP_NONREF = 2;
+    static final int LEVEL_KEYFRAME_ONLY = 3;
+    private static final String[] LEVEL_NAMES = {"正常解码", "跳过环路滤波", "跳过非参考帧", "仅解码关键帧"};
+
+    // 平滑后的滞后超过该值（视频落后主时钟）时升级
+    private static final double ESCALATE_LAG_MS = 150;
+    // 平滑后的滞后小于该值时视为有余量，可降级
+    private static final double RECOVER_LAG_MS = 40;
+    // 每个级别最短保持时间（毫秒）
+    private static final long HOLD_MS = 1000;
+    // 降级前需连续保持余量的时间（毫秒），比升级更保守，避免来回切换
+    private static final long RECOVER_HOLD_MS = 3000;
+    // 指数平滑系数
+    private static final double SMOOTHING = 0.2;
+
+    private final AVCodecContext codecContext;
+    private int level = LEVEL_NONE;
+    private double smoothedLagMs = 0;
+    private long lastLevelChangeMs = System.currentTimeMillis();
+    private long headroomSinceMs = -1;
+
+    DecodeDegradationController(AVCodecContext codecContext) {
+        this.codecContext = codecContext;
+    }
+
+    /**
+     * 每解码出一帧调用一次
+     * @param lagMs 主时钟 - 帧PTS（毫秒），正数表示解码落后于播放
+     * @param queueHasHeadroom 视频帧队列已满（解码领先于渲染消费），视为有余量
+     */
+    void observe(double lagMs, boolean queueHasHeadroom) {
+        observe(lagMs, queueHasHeadroom, System.currentTimeMillis());
+    }
+
+    // now为当前时间（毫秒），测试可注入
+    void observe(double lagMs, boolean queueHasHeadroom, long now) {
+        smoothedLagMs += SMOOTHING * (lagMs - smoothedLagMs);
+        if (now - lastLevelChangeMs < HOLD_MS) {
+            return;
+        }
+
+        if (smoothedLagMs > ESCALATE_LAG_MS && level < LEVEL_KEYFRAME_ONLY) {
+            setLevel(level + 1, now);
+            return;
+        }
+
+        if (level > LEVEL_NONE && (smoothedLagMs < RECOVER_LAG_MS || queueHasHeadroom)) {
+            if (headroomSinceMs < 0) {
+                headroomSinceMs = now;
+            } else if (now - headroomSinceMs >= RECOVER_HOLD_MS) {
+                setLevel(level - 1, now);
+            }
+        } else {
+            headroomSinceMs = -1;
+        }
+    }
+
+    private void setLevel(int newLevel, long now) {
+        logger.info("[DecodeDegradation] 解码降级级别 {} → {}（{}），平滑滞后={}ms",
+                level, newLevel, LEVEL_NAMES[newLevel], Math.round(smoothedLagMs));
+        level = newLevel;
+        lastLevelChangeMs = now;
+        headroomSinceMs = -1;
+        apply();
+        PlaybackMetrics.recordDegradationLevel(newLevel);
+    }
+
+    private void apply() {
+        codecContext.skip_loop_filter(level >= LEVEL_SKIP_LOOP_FILTER ? AVDISCARD_ALL : AVDISCARD_DEFAULT);
+        int skipFrame = AVDISCARD_DEFAULT;
+        if (level == LEVEL_SKIP_NONREF) {
+            skipFrame = AVDISCARD_NONREF;
+        } else if (level == LEVEL_KEYFRAME_ONLY) {
+            skipFrame = AVDISCARD_NONKEY;
+        }
+        codecContext.skip_frame(skipFrame);
+    }
+
+    int getLevel() {
+        return level;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.videoplayer.decoder;
+
+import com.example.videoplayer.util.VideoPlayerConfig;
+import org.bytedeco.ffmpeg.avcodec.AVCodecContext;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+
+/**
+ * 视频解码器线程配置（FFmpeg threads / thread_type）
+ * 1. threads：auto=CPU核数减去为游戏保留的核数，或固定数字
+ * 2. thread_type：frame=帧级并行（吞吐高，多N-1帧延迟），slice=片级并行（无额外延迟，依赖编码端分片），frame+slice=两者皆可
+ * 3. 每种流格式可单独覆盖：-Dvideoplayer.decodeThreads.flv=2 -Dvideoplayer.decodeThreadType.flv=slice
+ */
+final class DecoderThreading {
+    // FFmpeg avcodec.h 中的 FF_THREAD_FRAME / FF_THREAD_SLICE（JavaCPP预设未导出）
+    static final int FF_THREAD_FRAME = 1;
+    static final int FF_THREAD_SLICE = 2;
+
+    private final String format;
+    private final int threadCount;
+    private final int threadType;
+
+    private DecoderThreading(String format, int threadCount, int threadType) {
+        this.format = format;
+        this.threadCount = threadCount;
+        this.threadType = threadType;
+    }
+
+    /**
+     * 按流格式解析线程配置（格式专属配置优先，其次全局配置，最后使用格式默认值）
+     */
+    static DecoderThreading forFormat(String format) {
+        String threadsValue = System.getProperty("videoplayer.decodeThreads." + format, VideoPlayerConfig.decodeThreads);
+        String typeValue = System.getProperty("videoplayer.decodeThreadType." + format, VideoPlayerConfig.decodeThreadType);
+        if (typeValue == null || typeValue.isEmpty()) {
+            typeValue = defaultThreadType(format);
+        }
+        return new DecoderThreading(format, resolveThreadCount(threadsValue), parseThreadType(typeValue));
+    }
+
+    // FLV多为低延迟直播，默认只用片级并行避免帧级并行带来的额外延迟；HLS本身有分片缓冲，优先吞吐
+    private static String defaultThreadType(String format) {
+        return "flv".equals(format) ? "slice" : "frame+slice";
+    }
+
+    private static int resolveThreadCount(String value) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        if (value == null || value.isEmpty() || "auto".equalsIgnoreCase(value)) {
+            return Math.max(1, cores - Math.max(0, VideoPlayerConfig.reservedCores));
+        }
+        try {
+            // 0交给FFmpeg自行决定（按全部核数）
+            return Math.max(0, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("[DecoderThreading] 无效的解码线程数：" + value + "，改用auto");
+            return Math.max(1, cores - Math.max(0, VideoPlayerConfig.reservedCores));
+        }
+    }
+
+    private static int parseThreadType(String value) {
+        int type = 0;
+        for (String part : value.toLowerCase().split("[+,|]")) {
+            switch (part.trim()) {
+                case "frame" -> type |= FF_THREAD_FRAME;
+                case "slice" -> type |= FF_THREAD_SLICE;
+                default -> System.err.println("[DecoderThreading] 忽略未知的线程类型：" + part);
+            }
+        }
+        return type == 0 ? FF_THREAD_FRAME | FF_THREAD_SLICE : type;
+    }
+
+    /**
+     * 写入抓取器的视频解码选项（grabber.start()时随avcodec_open2生效）
+     */
+    void applyTo(FFmpegFrameGrabber grabber) {
+        grabber.setVideoOption("threads", String.valueOf(threadCount));
+        grabber.setVideoOption("thread_type", getThreadTypeName());
+    }
+
+    /**
+     * 写入独立解码上下文（必须在avcodec_open2之前调用）
+     */
+    void applyTo(AVCodecContext context) {
+        context.thread_count(threadCount);
+        context.thread_type(threadType);
+    }
+
+    String getThreadTypeName() {
+        return switch (threadType) {
+            case FF_THREAD_FRAME -> "frame";
+            case FF_THREAD_SLICE -> "slice";
+            default -> "frame+slice";
+        };
+    }
+
+    int getThreadCount() {
+        return threadCount;
+    }
+
+    @Override
+    public String toString() {
+        return format + "：threads=" + (threadCount == 0 ? "FFmpeg自动" : threadCount) + "，thread_type=" + getThreadTypeName();
+    }
+}
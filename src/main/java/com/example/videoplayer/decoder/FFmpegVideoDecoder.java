@@ -1,7 +1,17 @@
 package com.example.videoplayer.decoder;
 
+import com.example.videoplayer.audio.AudioChunker;
 import com.example.videoplayer.audio.OpenALAudioPlayer;
+import com.example.videoplayer.audio.PcmBufferPool;
+import com.example.videoplayer.audio.SampleConverter;
+import com.example.videoplayer.util.BackpressureGate;
+import com.example.videoplayer.util.PlaybackMetrics;
+import com.example.videoplayer.util.SpscRingBuffer;
 import com.example.videoplayer.util.VideoInfo;
+import com.example.videoplayer.util.VideoPlayerConfig;
+import org.bytedeco.ffmpeg.avformat.AVFormatContext;
+import org.bytedeco.ffmpeg.avformat.AVStream;
+import org.bytedeco.ffmpeg.global.avcodec;
 import org.bytedeco.ffmpeg.global.avutil;
 import org.bytedeco.javacv.FFmpegFrameGrabber;
 import org.bytedeco.javacv.FFmpegLogCallback;
@@ -14,8 +24,8 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 import java.nio.ShortBuffer;
-import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,14 +40,43 @@ import org.slf4j.LoggerFactory;
  */
 public class FFmpegVideoDecoder {
     private static final Logger logger = LoggerFactory.getLogger(FFmpegVideoDecoder.class);
-    // 原有变量定义
-    private final ConcurrentLinkedDeque<VideoFrameWrapper> videoFrameQueue = new ConcurrentLinkedDeque<>();
+    // 原有变量定义：解码线程→渲染线程的单生产者/单消费者无锁队列，队满丢弃最旧帧
+    private final SpscRingBuffer<VideoFrame> videoFrameQueue;
 
     private final FFmpegFrameGrabber grabber;
     private final VideoInfo videoInfo;
     private final Java2DFrameConverter frameConverter = new Java2DFrameConverter();
-    private final ReentrantLock queueLock = new ReentrantLock();
     private volatile boolean decoding = false;
+    // 直出模式：swscale直接输出RGBA，跳过Java2DFrameConverter
+    private final boolean directFrameMode;
+    // YUV平面模式：包级流水线输出YUV420P三平面，由着色器完成色彩转换（仍属直出模式）
+    private final boolean yuvFrameMode;
+    // 直出模式的堆外帧缓冲池（按视频宽高及像素布局预分配，稳态零分配）
+    private final FrameBufferPool framePool;
+    // 是否解码音频：配置禁用或流中没有音频时为false（不打开音频解码器，音频包在解复用阶段丢弃）
+    private final boolean audioDecodeEnabled;
+    // 包级流水线（解复用/音视频解码分线程），mixed模式或兼容帧模式下为null
+    private volatile PacketPipeline packetPipeline;
+    // 首个成功入队音频帧的时间戳（微秒），音频播放进度以此为零点换算到流时间基
+    private volatile long audioStartTimestampUs = VideoFrame.NO_PTS;
+    // 音频采样转换器（按输入声道数创建，同一时刻只有一个线程做音频转换）
+    private volatile SampleConverter audioConverter;
+    // 平面采样的类型化数组（随声道数重建，转换线程独占，避免每帧分配）
+    private FloatBuffer[] floatPlanes = new FloatBuffer[0];
+    private ShortBuffer[] shortPlanes = new ShortBuffer[0];
+    // 音频分块器：逐帧PCM拼接为固定时长的块后再送入OpenAL播放器（仅音频解码线程使用）
+    private AudioChunker audioChunker;
+    private OpenALAudioPlayer audioChunkerOwner;
+    // 渲染端发布的主时钟（流时间基，微秒）及发布时刻，解码线程据此外推当前时钟
+    private volatile long masterClockUs = VideoFrame.NO_PTS;
+    private volatile long masterClockNanos = 0;
+    // 视频队列背压：解码线程在队列满（包级流水线）或超过半满（混合抓取）时等待，渲染端取帧后唤醒
+    private final BackpressureGate videoQueueGate = new BackpressureGate();
+    private final BooleanSupplier videoQueueFull = () -> decoding && isVideoQueueFull();
+    private final BooleanSupplier videoQueueAboveHalf = () -> decoding && this.videoFrameQueue.size() > this.videoFrameQueueMaxSize / 2;
+    private static final long MAX_VIDEO_QUEUE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    // 视频解码线程配置（按流格式解析）
+    private final DecoderThreading decoderThreading;
     private Thread decodeThread;
     private OpenALAudioPlayer audioPlayer;
     private int audioFrameCount = 0;
@@ -73,15 +112,6 @@ public class FFmpegVideoDecoder {
     // ========== 移除：所有手动时长维护变量（冗余且有害） ==========
     // 删除：totalVideoPlayDurationMs、totalAudioPlayDurationMs、SYNC_THRESHOLD_MS、MAX_SYNC_DELAY_MS
 
-    // 视频帧包装类（仅保留帧数据，移除手动帧时长）
-    private static class VideoFrameWrapper {
-        BufferedImage frame;
-
-        public VideoFrameWrapper(BufferedImage frame) {
-            this.frame = frame;
-        }
-    }
-
     // 静态初始化FFmpeg日志（不变，原有代码）
     static {
         FFmpegLogCallback.set();
@@ -97,6 +127,14 @@ public class FFmpegVideoDecoder {
 
     // 构造方法2：手动指定格式
     public FFmpegVideoDecoder(String streamUrl, String format) throws Exception {
+        this(streamUrl, format, 0, 0);
+    }
+
+    /**
+     * @param maxOutputWidth  解码输出宽度上限（像素），0=不限制
+     * @param maxOutputHeight 解码输出高度上限（像素），0=不限制
+     */
+    public FFmpegVideoDecoder(String streamUrl, String format, int maxOutputWidth, int maxOutputHeight) throws Exception {
         this.streamUrl = streamUrl;
         this.streamFormat = format.toLowerCase();
 
@@ -121,6 +159,7 @@ public class FFmpegVideoDecoder {
             videoFrameQueueMaxSize = 8;
             logger.info("[VideoDecoder] default模式：使用通用视频队列大小（" + videoFrameQueueMaxSize + "帧）");
         }
+        this.videoFrameQueue = new SpscRingBuffer<>(videoFrameQueueMaxSize, SpscRingBuffer.OverflowPolicy.DROP_OLDEST, VideoFrame::release);
         // 初始化抓取器
         this.grabber = new FFmpegFrameGrabber(streamUrl);
 
@@ -158,6 +197,7 @@ public class FFmpegVideoDecoder {
             grabber.setOption("hls_max_buffer_size", "8388608");
             grabber.setOption("hls_timeout", "5000");
             grabber.setOption("hls_io_prealloc_size", "2097152");
+            decoderThreading = DecoderThreading.forFormat("m3u8");
 
             logger.info("[VideoDecoder] 识别为 M3U8 流，启用兼容版HLS低延迟配置");
         } else if ("flv".equals(this.streamFormat)) {
@@ -166,16 +206,45 @@ public class FFmpegVideoDecoder {
             grabber.setOption("buffer_size", "2048000");
             grabber.setOption("avio_flags", "direct");
             grabber.setOption("allowed_media_types", "video+audio");
+            decoderThreading = DecoderThreading.forFormat("flv");
             logger.info("[VideoDecoder] 识别为 FLV 流，启用 FLV 协议配置");
         } else {
             logger.info("[VideoDecoder] 启用default模式，FFmpeg自动探测格式和编码，使用通用配置");
+            decoderThreading = DecoderThreading.forFormat("default");
+        }
+
+        // 解码线程配置（混合抓取模式下随grabber.start()生效，包级流水线复用同一配置）
+        decoderThreading.applyTo(grabber);
+        logger.info("[VideoDecoder] 视频解码线程配置：" + decoderThreading);
+
+        // 直出模式：让swscale直接输出RGBA，后续仅做整行拷贝
+        this.directFrameMode = VideoPlayerConfig.isDirectFrameMode();
+        // YUV平面只由包级流水线输出；混合抓取（含流水线创建失败后的回退）仍输出RGBA
+        this.yuvFrameMode = directFrameMode && VideoPlayerConfig.isYuvFrameMode() && VideoPlayerConfig.isPacketPipeline();
+        if (directFrameMode) {
+            grabber.setPixelFormat(avutil.AV_PIX_FMT_RGBA);
+            if (yuvFrameMode) {
+                logger.info("[VideoDecoder] 视频帧输出模式：YUV420P三平面（着色器转换RGB）");
+            } else {
+                if (VideoPlayerConfig.isYuvFrameMode()) {
+                    logger.info("[VideoDecoder] YUV平面模式需要包级流水线，混合抓取模式下改用RGBA直出");
+                }
+                logger.info("[VideoDecoder] 视频帧输出模式：RGBA直出（零转换）");
+            }
+        } else {
+            logger.info("[VideoDecoder] 视频帧输出模式：BufferedImage兼容路径");
         }
 
         // 修复1：移除音频流索引硬编码，优化音频配置
-        grabber.setSampleFormat(avutil.AV_SAMPLE_FMT_FLTP);
+        // swresample模式：抓取器内部的swresample直接输出交错S16（混合抓取路径；包级流水线使用自己的重采样器）
+        grabber.setSampleFormat(VideoPlayerConfig.isNativeAudioResample() ? avutil.AV_SAMPLE_FMT_S16 : avutil.AV_SAMPLE_FMT_FLTP);
         grabber.setSampleMode(FFmpegFrameGrabber.SampleMode.RAW);
         grabber.setNumBuffers(8);
         grabber.setAudioChannels(0); // 0=自动检测通道数
+        if (!VideoPlayerConfig.audioEnabled) {
+            // 指定一个不存在的音频流索引：抓取器找不到音频流，不会打开音频解码器
+            grabber.setAudioStream(Integer.MAX_VALUE);
+        }
 
         // 启动抓取器（添加异常日志）
         try {
@@ -186,21 +255,46 @@ public class FFmpegVideoDecoder {
             throw new Exception("启动抓取器失败：" + e.getMessage(), e);
         }
 
+        this.audioDecodeEnabled = VideoPlayerConfig.audioEnabled && grabber.hasAudio();
+        if (!audioDecodeEnabled) {
+            discardAudioStreams();
+        }
+
         // 修复2：采样率异常值校验，补充默认值
         String title = this.streamFormat.toUpperCase() + "_LIVE_STREAM";
-        int width = Math.max(1, grabber.getImageWidth());
-        int height = Math.max(1, grabber.getImageHeight());
+        int sourceWidth = Math.max(1, grabber.getImageWidth());
+        int sourceHeight = Math.max(1, grabber.getImageHeight());
+        // 解码时缩放：由FFmpeg的swscale一次性缩放到屏幕所需尺寸（混合模式同样生效）
+        int[] outputSize = fitOutputSize(sourceWidth, sourceHeight, maxOutputWidth, maxOutputHeight);
+        int width = outputSize[0];
+        int height = outputSize[1];
+        if (width != sourceWidth || height != sourceHeight) {
+            grabber.setImageWidth(width);
+            grabber.setImageHeight(height);
+            logger.info("[VideoDecoder] 解码输出缩放：" + sourceWidth + "x" + sourceHeight + " → " + width + "x" + height
+                    + "（上限" + maxOutputWidth + "x" + maxOutputHeight + "）");
+        }
         int frameRate = Math.max(1, (int) grabber.getFrameRate());
 
         // 核心修复：采样率校验（如果识别为1/0，默认44100Hz）
-        int srcSampleRate = grabber.getSampleRate();
-        if (srcSampleRate <= 1) {
+        int srcSampleRate = audioDecodeEnabled ? grabber.getSampleRate() : 0;
+        if (audioDecodeEnabled && srcSampleRate <= 1) {
             System.err.println("[VideoDecoder] 采样率识别异常（" + srcSampleRate + "Hz），使用默认值44100Hz");
             srcSampleRate = 44100; // 强制设置为标准采样率
         }
 
         // 通道数校验（至少1通道）
-        int srcAudioChannels = Math.max(1, grabber.getAudioChannels());
+        // 输出声道数：多声道（5.1/7.1等）在转换时下混为立体声
+        int srcAudioChannels = audioDecodeEnabled ? SampleConverter.outputChannelsFor(grabber.getAudioChannels()) : 0;
+        if (audioDecodeEnabled && VideoPlayerConfig.isNativeAudioResample()) {
+            // 目标声道数/采样率交给swresample，解码输出即为OpenAL所需格式
+            if (VideoPlayerConfig.audioOutputSampleRate > 0) {
+                srcSampleRate = VideoPlayerConfig.audioOutputSampleRate;
+            }
+            grabber.setAudioChannels(srcAudioChannels);
+            grabber.setSampleRate(srcSampleRate);
+            logger.info("[VideoDecoder] 音频模式：swresample原生转换 → " + srcSampleRate + "Hz，" + srcAudioChannels + "声道，S16");
+        }
         long durationMs = 0;
         int duration = 0;
 
@@ -214,9 +308,54 @@ public class FFmpegVideoDecoder {
         //logger.info("[VideoDecoder] 直播流地址：" + streamUrl);
         logger.info("[VideoDecoder] 流格式：" + this.streamFormat.toUpperCase());
         logger.info("[VideoDecoder] 视频：" + width + "x" + height + "，帧率：" + frameRate + "fps");
+        if (!audioDecodeEnabled) {
+            logger.info("[VideoDecoder] 音频：" + (VideoPlayerConfig.audioEnabled ? "流中无音频" : "已禁用") + "，仅解码视频");
+        }
         logger.info("[VideoDecoder] 音频（修复后）：" + srcSampleRate + "Hz，" + srcAudioChannels + "通道，编码：" + (grabber.getAudioCodecName() == null ? "AAC(FLV默认)" : grabber.getAudioCodecName()));
-        logger.info("[VideoDecoder] 实际采样格式值：" + grabber.getSampleFormat() + "（期望=" + avutil.AV_SAMPLE_FMT_FLTP + "）");
+        logger.info("[VideoDecoder] 实际采样格式值：" + grabber.getSampleFormat());
         this.converter = new Java2DFrameConverter();
+
+        // 池容量=解码队列上限+渲染器信箱溢出槽位+渲染器待上传帧+正在上传帧+解码中帧；
+        // 分块纹理时渲染器还持有一帧正在分条带上传的帧（VideoRenderer.tileFrame），再加1
+        int poolSize = videoFrameQueueMaxSize + 4 + (VideoPlayerConfig.isTiledTexture(width, height) ? 1 : 0);
+        this.framePool = directFrameMode
+                ? new FrameBufferPool(width, height, yuvFrameMode ? VideoFrame.FORMAT_YUV420P : VideoFrame.FORMAT_RGBA, poolSize)
+                : null;
+    }
+
+    /**
+     * 把全部音频流标记为AVDISCARD_ALL，解复用器直接丢弃音频包（不再进入包队列或解码器）
+     */
+    private void discardAudioStreams() {
+        AVFormatContext formatContext = grabber.getFormatContext();
+        if (formatContext == null || formatContext.isNull()) {
+            return;
+        }
+        for (int i = 0; i < formatContext.nb_streams(); i++) {
+            AVStream stream = formatContext.streams(i);
+            if (stream.codecpar().codec_type() == avutil.AVMEDIA_TYPE_AUDIO) {
+                stream.discard(avcodec.AVDISCARD_ALL);
+            }
+        }
+    }
+
+    /**
+     * 按宽高上限等比缩小（只缩不放），结果取偶数以兼容YUV420色度下采样
+     */
+    static int[] fitOutputSize(int sourceWidth, int sourceHeight, int maxWidth, int maxHeight) {
+        double scale = 1.0;
+        if (maxWidth > 0) {
+            scale = Math.min(scale, (double) maxWidth / sourceWidth);
+        }
+        if (maxHeight > 0) {
+            scale = Math.min(scale, (double) maxHeight / sourceHeight);
+        }
+        if (scale >= 1.0) {
+            return new int[]{sourceWidth, sourceHeight};
+        }
+        int width = Math.max(2, (int) Math.round(sourceWidth * scale) & ~1);
+        int height = Math.max(2, (int) Math.round(sourceHeight * scale) & ~1);
+        return new int[]{width, height};
     }
 
     // ========== 核心重构：混合帧抓取+移除手动时长补偿 ==========
@@ -227,13 +366,13 @@ public class FFmpegVideoDecoder {
         // 2. 根据抓取模式，选择对应的grabFrame参数
         Frame frame = null;
         try {
-            if (prioritizeAudioGrab) {
+            if (prioritizeAudioGrab && audioDecodeEnabled) {
                 // 优先抓取音频：仅开启音频+同步，关闭视频+图像（快速补充音频）
                 frame = grabber.grabFrame(true, false, true, false);
                 //logger.debug("[VideoDecoder] 【优先音频模式】跳过视频帧抓取，专注补充音频队列");
             } else {
                 // 混合抓取：开启音频+视频+同步，关闭图像（原有逻辑，保证音视频双缓冲）
-                frame = grabber.grabFrame(true, true, true, false);
+                frame = grabber.grabFrame(audioDecodeEnabled, true, true, false);
                 //logger.debug("[VideoDecoder] 【混合抓取模式】同时抓取音视频帧，维持双队列平衡");
                 // 更新最后混合抓取时间戳，避免长期优先音频导致流错位
                 lastHybridGrabTime = System.currentTimeMillis();
@@ -257,42 +396,37 @@ public class FFmpegVideoDecoder {
      * 新增：更新抓取模式（滞回逻辑，规避频繁切换、队列耗尽、流错位问题）
      */
     private void updateGrabMode() {
-        queueLock.lock();
-        try {
-            // 1. 获取当前队列状态
-            int currentVideoQueueSize = videoFrameQueue.size();
-            boolean audioQueueFull = audioPlayer != null &&
-                    (audioPlayer.getAudioQueueSize() >= audioPlayer.audioQueue.remainingCapacity() * AUDIO_QUEUE_FULL_RATIO);
-            long currentTime = System.currentTimeMillis();
-
-            // 2. 滞回逻辑：高阈值切换优先音频，低阈值切换回混合抓取
-            if (!prioritizeAudioGrab) {
-                // 切换为「优先音频模式」条件：视频队列充足 + 音频队列未满 + 非刚切换回混合
-                if (currentVideoQueueSize >= VIDEO_QUEUE_HIGH_THRESHOLD
-                        && !audioQueueFull
-                        && (currentTime - lastHybridGrabTime > 500)) { // 500ms防抖，避免刚切换就回切
-                    prioritizeAudioGrab = true;
+        // 1. 获取当前队列状态（环形队列size为O(1)）
+        int currentVideoQueueSize = videoFrameQueue.size();
+        boolean audioQueueFull = audioPlayer != null &&
+                (audioPlayer.getAudioQueueSize() >= audioPlayer.audioQueue.remainingCapacity() * AUDIO_QUEUE_FULL_RATIO);
+        long currentTime = System.currentTimeMillis();
+
+        // 2. 滞回逻辑：高阈值切换优先音频，低阈值切换回混合抓取
+        if (!prioritizeAudioGrab) {
+            // 切换为「优先音频模式」条件：视频队列充足 + 音频队列未满 + 非刚切换回混合
+            if (currentVideoQueueSize >= VIDEO_QUEUE_HIGH_THRESHOLD
+                    && !audioQueueFull
+                    && (currentTime - lastHybridGrabTime > 500)) { // 500ms防抖，避免刚切换就回切
+                prioritizeAudioGrab = true;
 //                    logger.info("[VideoDecoder] 视频队列充足（{}帧≥{}帧），切换为【优先音频模式】",
 //                            currentVideoQueueSize, VIDEO_QUEUE_HIGH_THRESHOLD);
-                }
-            } else {
-                // 切换回「混合抓取模式」条件：视频队列不足 OR 音频队列已满 OR 达到定期切换间隔
-                boolean needSwitchBack = currentVideoQueueSize <= VIDEO_QUEUE_LOW_THRESHOLD
-                        || audioQueueFull
-                        || (currentTime - lastHybridGrabTime >= HYBRID_GRAB_INTERVAL);
+            }
+        } else {
+            // 切换回「混合抓取模式」条件：视频队列不足 OR 音频队列已满 OR 达到定期切换间隔
+            boolean needSwitchBack = currentVideoQueueSize <= VIDEO_QUEUE_LOW_THRESHOLD
+                    || audioQueueFull
+                    || (currentTime - lastHybridGrabTime >= HYBRID_GRAB_INTERVAL);
 
-                if (needSwitchBack) {
-                    prioritizeAudioGrab = false;
+            if (needSwitchBack) {
+                prioritizeAudioGrab = false;
 //                    String reason = currentVideoQueueSize <= VIDEO_QUEUE_LOW_THRESHOLD ? "视频队列不足"
 //                            : (audioQueueFull ? "音频队列已满" : "定期切换避免流错位");
 //                    logger.info("[VideoDecoder] {}（视频{}帧，音频{}帧），切换回【混合抓取模式】",
 //                            reason, currentVideoQueueSize,
 //                            audioPlayer != null ? audioPlayer.getAudioQueueSize() : 0);
-                    lastHybridGrabTime = currentTime; // 更新混合抓取时间戳
-                }
+                lastHybridGrabTime = currentTime; // 更新混合抓取时间戳
             }
-        } finally {
-            queueLock.unlock();
         }
     }
 
@@ -304,34 +438,71 @@ public class FFmpegVideoDecoder {
             return false;
         }
 
-        // 转换视频帧（保留原有逻辑，无修改）
-        BufferedImage bufferedImage = frameConverter.convert(frame);
-        if (bufferedImage == null) {
-            logger.error("[VideoDecoder] 视频帧转换为BufferedImage失败");
-            return false;
-        }
-
-        // 视频帧入队（简化：仅控制队列大小，不维护手动时长）
-        queueLock.lock();
-        try {
-            if (videoFrameQueue.size() >= videoFrameQueueMaxSize) {
-                // 取出并丢弃最旧帧（防止队列堆积，导致视频超速）
-                VideoFrameWrapper discardedFrame = videoFrameQueue.poll();
-//                if (discardedFrame != null) {
-//                    logger.info("[VideoDecoder] 视频队列已满，移除最旧帧（当前大小：{}）", videoFrameQueue.size());
-//                }
+        VideoFrame videoFrame;
+        if (directFrameMode) {
+            // 直出模式：swscale已输出RGBA，仅整行拷贝到堆外缓冲区
+            videoFrame = copyRgbaFrame(frame);
+            if (videoFrame == null) {
+                logger.error("[VideoDecoder] RGBA视频帧拷贝失败");
+                return false;
+            }
+        } else {
+            // 兼容模式：转换为BufferedImage（保留原有逻辑）
+            BufferedImage bufferedImage = frameConverter.convert(frame);
+            if (bufferedImage == null) {
+                logger.error("[VideoDecoder] 视频帧转换为BufferedImage失败");
+                return false;
             }
-            // 包装帧数据入队（仅保留帧数据，无手动时长）
-            VideoFrameWrapper frameWrapper = new VideoFrameWrapper(bufferedImage);
-            videoFrameQueue.offer(frameWrapper);
-            //logger.info("[VideoDecoder] 视频帧入队成功，队列大小：{}", videoFrameQueue.size());
-        } finally {
-            queueLock.unlock();
+            videoFrame = VideoFrame.ofImage(bufferedImage);
         }
 
+        enqueueVideoFrame(videoFrame.withPts(frame.timestamp));
         return true;
     }
 
+    // 视频帧入队：队满时由消费端（渲染线程取帧时）丢弃最旧帧（防止队列堆积，导致视频超速）；
+    // 渲染端长时间未取帧、溢出槽位也被占用时拒绝新帧
+    void enqueueVideoFrame(VideoFrame videoFrame) {
+        VideoFrame rejectedFrame = videoFrameQueue.push(videoFrame);
+        if (rejectedFrame != null) {
+            rejectedFrame.release();
+        }
+    }
+
+    /**
+     * 包级流水线的视频解码线程在入队前调用：队列已满时等待渲染端消费，避免解码后又被丢弃
+     */
+    void awaitVideoQueueSpace() throws InterruptedException {
+        while (decoding && isVideoQueueFull()) {
+            videoQueueGate.await(videoQueueFull, MAX_VIDEO_QUEUE_WAIT_NANOS);
+        }
+    }
+
+    /**
+     * 直出模式：将swscale输出的RGBA图像按行拷贝到帧池借出的堆外缓冲区
+     * 行序自下而上翻转（匹配OpenGL纹理坐标），每行一次批量拷贝，无逐像素循环
+     */
+    private VideoFrame copyRgbaFrame(Frame frame) {
+        if (frame.image.length == 0 || !(frame.image[0] instanceof ByteBuffer src)) {
+            return null;
+        }
+        int width = frame.imageWidth;
+        int height = frame.imageHeight;
+        int rowBytes = width * 4;
+        int stride = frame.imageStride > 0 ? frame.imageStride : rowBytes;
+        if (width <= 0 || height <= 0 || src.capacity() < stride * (height - 1) + rowBytes) {
+            return null;
+        }
+
+        VideoFrame videoFrame = framePool.lease(VideoFrame.FORMAT_RGBA, width, height);
+        ByteBuffer pixels = videoFrame.getPixels();
+        for (int row = 0; row < height; row++) {
+            pixels.put((height - 1 - row) * rowBytes, src, row * stride, rowBytes);
+        }
+        pixels.position(0).limit(rowBytes * height);
+        return videoFrame;
+    }
+
     // ========== 简化：处理混合帧中的音频帧（移除手动时长计算，调用OpenAL节流） ==========
     private boolean handleAudioFrameInMixedFrame(Frame frame) {
         if (audioPlayer == null) {
@@ -360,100 +531,166 @@ public class FFmpegVideoDecoder {
         String fmtName = getSampleFormatName(grabber.getSampleFormat());
         //logger.info("[VideoDecoder] 检测到有效音频帧：格式={}，采样率={}Hz", fmtName, frame.sampleRate);
 
-        // 保留原有音频格式转换逻辑（FLTP→S16）
-        ByteBuffer audioBuffer = null;
-        if (grabber.getSampleFormat() == avutil.AV_SAMPLE_FMT_FLTP && frame.samples[0] instanceof FloatBuffer) {
-            FloatBuffer[] floatBuffers = new FloatBuffer[frame.samples.length];
-            for (int i = 0; i < frame.samples.length; i++) {
-                if (frame.samples[i] instanceof FloatBuffer) {
-                    floatBuffers[i] = (FloatBuffer) frame.samples[i];
-                } else {
-                    logger.error("[VideoDecoder] 采样数据不是 FloatBuffer，类型：{}",
-                            (frame.samples[i] != null ? frame.samples[i].getClass().getName() : "null"));
-                    floatBuffers[i] = null;
-                }
-            }
+        ByteBuffer audioBuffer = convertSamples(frame.samples, grabber.getSampleFormat(), Math.max(1, frame.audioChannels));
+        if (audioBuffer == null) {
+            return false;
+        }
+        return enqueueAudioBuffer(audioBuffer, frame.timestamp);
+    }
 
-            boolean hasValidFloatBuffer = false;
-            for (FloatBuffer fb : floatBuffers) {
-                if (fb != null && fb.remaining() > 0) {
-                    hasValidFloatBuffer = true;
-                    break;
+    /**
+     * 音频格式转换（FLTP/S16P/S16/FLT → 交错S16或float，取决于播放器输出格式；多声道下混为立体声），混合抓取与包级流水线共用
+     * 输出缓冲区借自OpenAL播放器的PCM缓冲池，上传完成后由播放器归还
+     * @param samples 平面格式为每通道一个Buffer，交错格式为单个ShortBuffer
+     */
+    ByteBuffer convertSamples(Buffer[] samples, int sampleFormat, int channelCount) {
+        OpenALAudioPlayer player = audioPlayer;
+        if (player == null || samples == null || samples.length == 0 || samples[0] == null) {
+            return null;
+        }
+        SampleConverter converter = audioConverter;
+        boolean floatOutput = player.isFloatOutput();
+        if (converter == null || converter.getInputChannels() != channelCount || converter.isFloatOutput() != floatOutput) {
+            converter = SampleConverter.create(channelCount, floatOutput);
+            audioConverter = converter;
+            logger.info("[VideoDecoder] 音频转换器：{}，{}声道 → {}声道{}", converter.getClass().getSimpleName(),
+                    channelCount, converter.getOutputChannels(), floatOutput ? "（float）" : "（S16）");
+        }
+        PcmBufferPool pool = player.getPcmBufferPool();
+
+        if (sampleFormat == avutil.AV_SAMPLE_FMT_FLTP && samples[0] instanceof FloatBuffer) {
+            if (floatPlanes.length != samples.length) {
+                floatPlanes = new FloatBuffer[samples.length];
+            }
+            FloatBuffer[] planes = floatPlanes;
+            for (int i = 0; i < samples.length; i++) {
+                if (!(samples[i] instanceof FloatBuffer floatBuffer)) {
+                    logger.error("[VideoDecoder] 采样数据不是 FloatBuffer，类型：{}",
+                            (samples[i] != null ? samples[i].getClass().getName() : "null"));
+                    return null;
                 }
+                planes[i] = floatBuffer;
             }
-            if (!hasValidFloatBuffer) {
+            int sampleCount = planes[0].limit();
+            if (sampleCount <= 0) {
                 logger.warn("[VideoDecoder] 无有效 FloatBuffer 数据，跳过该帧");
-                return false;
+                return null;
             }
-
-            audioBuffer = convertFLTPToS16(floatBuffers);
-            if (audioBuffer == null) {
-                logger.error("[VideoDecoder] FLTP 转 16 位 PCM 失败，跳过该帧");
-                return false;
+            return converter.convertFloatPlanar(planes, sampleCount, pool);
+        } else if (sampleFormat == avutil.AV_SAMPLE_FMT_S16P && samples[0] instanceof ShortBuffer) {
+            if (shortPlanes.length != samples.length) {
+                shortPlanes = new ShortBuffer[samples.length];
             }
-        } else if (grabber.getSampleFormat() == avutil.AV_SAMPLE_FMT_S16 && frame.samples[0] instanceof ShortBuffer shortBuffer) {
-            logger.info("[VideoDecoder] 处理 S16 格式音频帧");
-            shortBuffer.rewind();
-            if (shortBuffer.remaining() > 0) {
-                int sampleCount = shortBuffer.remaining();
-                int channelCount = Math.max(1, frame.audioChannels);
-                audioBuffer = ByteBuffer.allocateDirect(sampleCount * channelCount * 2)
-                        .order(ByteOrder.nativeOrder());
-                ShortBuffer outputBuffer = audioBuffer.asShortBuffer();
-                ShortBuffer copiedBuffer = ShortBuffer.allocate(sampleCount);
-                copiedBuffer.put(shortBuffer);
-                copiedBuffer.rewind();
-                outputBuffer.put(copiedBuffer);
-                audioBuffer.flip();
-            } else {
-                audioBuffer = null;
+            ShortBuffer[] planes = shortPlanes;
+            for (int i = 0; i < samples.length; i++) {
+                if (!(samples[i] instanceof ShortBuffer shortBuffer)) {
+                    logger.error("[VideoDecoder] 采样数据不是 ShortBuffer，类型：{}",
+                            (samples[i] != null ? samples[i].getClass().getName() : "null"));
+                    return null;
+                }
+                planes[i] = shortBuffer;
             }
+            int sampleCount = planes[0].limit();
+            return sampleCount > 0 ? converter.convertS16Planar(planes, sampleCount, pool) : null;
+        } else if (sampleFormat == avutil.AV_SAMPLE_FMT_S16 && samples[0] instanceof ShortBuffer shortBuffer) {
+            // 交错S16：limit为全部通道的样本总数
+            int sampleCount = shortBuffer.limit() / Math.max(1, channelCount);
+            return sampleCount > 0 ? converter.convertS16Interleaved(shortBuffer, sampleCount, pool) : null;
+        } else if (sampleFormat == avutil.AV_SAMPLE_FMT_FLT && samples[0] instanceof FloatBuffer floatBuffer) {
+            // 交错float（swresample模式且OpenAL支持float输出时抓取器直接输出该格式）
+            int sampleCount = floatBuffer.limit() / Math.max(1, channelCount);
+            return sampleCount > 0 ? converter.convertFloatInterleaved(floatBuffer, sampleCount, pool) : null;
         } else {
             logger.error("[VideoDecoder] 不支持的音频格式：采样格式值={}，缓冲区类型={}",
-                    grabber.getSampleFormat(), frame.samples[0].getClass().getSimpleName());
+                    sampleFormat, samples[0].getClass().getSimpleName());
+            return null;
+        }
+    }
+
+    /**
+     * 音频数据入队：先经分块器拼接为固定时长的块（VideoPlayerConfig.audioChunkMs），凑满一块才送入播放器
+     * 混合抓取与包级流水线共用；audioBuffer在拷贝进块后即归还缓冲池
+     * @param timestampUs 该段音频的起始时间戳（微秒）
+     */
+    boolean enqueueAudioBuffer(ByteBuffer audioBuffer, long timestampUs) {
+        OpenALAudioPlayer player = audioPlayer;
+        if (player == null) {
             return false;
         }
+        if (audioBuffer == null || audioBuffer.remaining() == 0) {
+            logger.warn("[VideoDecoder] 音频缓冲区为空或无数据");
+            return false;
+        }
+        AudioChunker chunker = audioChunker;
+        if (chunker == null || audioChunkerOwner != player) {
+            if (chunker != null) {
+                chunker.reset();
+            }
+            chunker = new AudioChunker(player.getSampleRate(), player.getBytesPerFrame(),
+                    VideoPlayerConfig.audioChunkMs, player.getPcmBufferPool());
+            audioChunker = chunker;
+            audioChunkerOwner = player;
+            logger.info("[VideoDecoder] 音频分块：每块{}ms（{}字节）",
+                    String.format("%.1f", chunker.getChunkDurationMs()), chunker.getChunkBytes());
+        }
+        audioFrameCount++;
+        chunker.append(audioBuffer, timestampUs, this::offerAudioChunk);
+        return true;
+    }
 
-        // 音频帧入队（保留原有重试逻辑，新增调用OpenAL节流）
-        if (audioBuffer != null && audioBuffer.remaining() > 0) {
-            boolean enqueueSuccess = audioPlayer.offerAudioData(audioBuffer);
+    /**
+     * 整块入队（保留原有重试逻辑，调用OpenAL节流）
+     * @param timestampUs 块首个采样的时间戳（微秒），首块成功入队时记录为音频时钟零点
+     */
+    private boolean offerAudioChunk(ByteBuffer audioBuffer, long timestampUs) {
+        OpenALAudioPlayer player = audioPlayer;
+        if (player == null) {
+            return false;
+        }
+        // 解码背压：水位过高时在此阻塞，直到播放端消耗到低水位（每块只检查一次）
+        player.throttleDecodeThread();
+        // 入队后缓冲区可能立即被音频供给线程上传并归还，字节数需先取出
+        int chunkBytes = audioBuffer.remaining();
+        boolean enqueueSuccess = player.offerAudioData(audioBuffer);
+        if (!enqueueSuccess) {
+            Thread.yield();
+            enqueueSuccess = player.offerAudioData(audioBuffer);
             if (!enqueueSuccess) {
-                Thread.yield();
-                enqueueSuccess = audioPlayer.offerAudioData(audioBuffer);
-                if (!enqueueSuccess) {
-                    logger.warn("[VideoDecoder] 音频队列已满，入队失败（已重试1次）");
-                    return false;
-                }
+                logger.warn("[VideoDecoder] 音频队列已满，入队失败（已重试1次）");
+                player.getPcmBufferPool().release(audioBuffer);
+                return false;
             }
+        }
 
-            // 移除：手动时长更新（不再需要）
-            audioFrameCount++;
-            totalAudioBytes += audioBuffer.remaining();
-//            logger.info("[VideoDecoder] 音频帧入队成功：第{}帧，字节数={}",
-//                    audioFrameCount, audioBuffer.remaining());
-
-            // 核心优化：调用OpenAL的解码节流，避免解码过快
-            audioPlayer.throttleDecodeThread();
-            return true;
-        } else {
-            logger.warn("[VideoDecoder] 音频缓冲区为空或无数据");
-            return false;
+        if (audioStartTimestampUs == VideoFrame.NO_PTS && timestampUs != VideoFrame.NO_PTS) {
+            audioStartTimestampUs = timestampUs;
         }
+        totalAudioBytes += chunkBytes;
+        return true;
     }
 
-    // ========== 简化：视频队列缓冲控制（调用OpenAL节流，避免堆积） ==========
+    // ========== 视频队列背压（混合抓取模式） ==========
+    /**
+     * 视频队列超过半满时阻塞解码线程，渲染端取帧后唤醒
+     * 混合抓取时同一线程也在产出音频：最长只等到音频缓冲降到抖动缓冲目标，避免为等视频消费而让音频欠载
+     */
     private void controlVideoQueueBuffer() {
-        int currentQueueSize = videoFrameQueue.size();
-
-        // 核心优化：基于OpenAL的节流逻辑，而非自定义休眠
-        // 视频队列超过阈值时，休眠解码线程，匹配OpenAL的播放速度
-        if (currentQueueSize > videoFrameQueueMaxSize / 2) {
-            try {
-                // 休眠时间匹配OpenAL的缓冲阈值，避免视频队列堆积
-                Thread.sleep(Math.min(10, currentQueueSize - videoFrameQueueMaxSize / 2));
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+        if (videoFrameQueue.size() <= videoFrameQueueMaxSize / 2) {
+            return;
+        }
+        long maxWaitNanos = MAX_VIDEO_QUEUE_WAIT_NANOS;
+        OpenALAudioPlayer player = audioPlayer;
+        if (player != null) {
+            long audioHeadroomMs = player.getBufferedAudioMs() - player.getJitterBuffer().getTargetMs();
+            maxWaitNanos = Math.min(maxWaitNanos, TimeUnit.MILLISECONDS.toNanos(Math.max(0, audioHeadroomMs)));
+        }
+        if (maxWaitNanos <= 0) {
+            return;
+        }
+        try {
+            videoQueueGate.await(videoQueueAboveHalf, maxWaitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -467,62 +704,6 @@ public class FFmpegVideoDecoder {
         // 空实现，由OpenAL硬件时序自动对齐
     }
 
-    // ========== 原有方法：FLTP转S16（不变） ==========
-    private ByteBuffer convertFLTPToS16(FloatBuffer[] floatBuffers) {
-        if (floatBuffers == null || floatBuffers.length == 0 || floatBuffers[0] == null) {
-            System.err.println("[VideoDecoder] FLTP转换：输入缓冲区无效");
-            return null;
-        }
-
-        FloatBuffer leftBuf = floatBuffers[0].duplicate();
-        leftBuf.rewind();
-        int sampleCount = leftBuf.remaining();
-
-        if (sampleCount <= 0) {
-            System.err.println("[VideoDecoder] 无效样本数：" + sampleCount);
-            return null;
-        }
-
-        int channelCount = Math.min(2, floatBuffers.length); // 最多立体声
-        int bytesPerSample = 2;
-        int totalBytes = sampleCount * channelCount * bytesPerSample;
-
-        ByteBuffer outputBuffer = ByteBuffer.allocateDirect(totalBytes);
-        outputBuffer.order(ByteOrder.nativeOrder());
-        ShortBuffer shortBuffer = outputBuffer.asShortBuffer();
-
-//        logger.info("[VideoDecoder] 转换前 - 总字节数=" + totalBytes +
-//                "，ShortBuffer容量=" + shortBuffer.capacity() +
-//                "，样本数=" + sampleCount + "，通道数=" + channelCount);
-
-        FloatBuffer rightBuf = (floatBuffers.length > 1 && floatBuffers[1] != null)
-                ? floatBuffers[1].duplicate() : leftBuf.duplicate();
-        rightBuf.rewind();
-
-        int writtenSamples = 0;
-        for (int i = 0; i < sampleCount; i++) {
-            float left = leftBuf.get();
-            left = Math.max(-1.0f, Math.min(1.0f, left));
-            shortBuffer.put((short) (left * 32767));
-
-            float right = rightBuf.get();
-            right = Math.max(-1.0f, Math.min(1.0f, right));
-            shortBuffer.put((short) (right * 32767));
-
-            writtenSamples++;
-        }
-
-        shortBuffer.flip();
-        outputBuffer.position(0);
-        outputBuffer.limit(shortBuffer.limit() * bytesPerSample);
-
-//        logger.info("[VideoDecoder] 转换后 - 写入样本数=" + writtenSamples +
-//                "，ShortBuffer剩余=" + shortBuffer.remaining() +
-//                "，ByteBuffer有效字节数=" + outputBuffer.remaining());
-
-        return outputBuffer;
-    }
-
     // ========== 原有方法：获取采样格式名称（不变） ==========
     private String getSampleFormatName(int fmtValue) {
         if (fmtValue == avutil.AV_SAMPLE_FMT_FLTP) {
@@ -539,17 +720,10 @@ public class FFmpegVideoDecoder {
     }
 
     // ========== 简化：获取视频帧（移除手动时长扣除） ==========
-    public BufferedImage pollVideoFrame() {
-        queueLock.lock();
-        try {
-            VideoFrameWrapper frameWrapper = videoFrameQueue.poll();
-            if (frameWrapper != null) {
-                return frameWrapper.frame;
-            }
-            return null;
-        } finally {
-            queueLock.unlock();
-        }
+    public VideoFrame pollVideoFrame() {
+        VideoFrame frame = videoFrameQueue.poll();
+        videoQueueGate.signalIfWaiting(frame != null);
+        return frame;
     }
 
     // ========== 原有方法：停止解码（不变，移除时长重置） ==========
@@ -557,8 +731,9 @@ public class FFmpegVideoDecoder {
         // 第一步：空指针防护
         Thread localDecodeThread = this.decodeThread;
 
-        // 1. 强制终止解码循环
+        // 1. 强制终止解码循环，唤醒背压等待中的解码线程
         decoding = false;
+        videoQueueGate.close();
         logger.info("[VideoDecoder] 强制终止解码循环");
 
         // 2. 中断并等待线程终止
@@ -586,6 +761,13 @@ public class FFmpegVideoDecoder {
         // 3. 置空线程引用
         this.decodeThread = null;
 
+        // 4. 停止包级流水线（需在关闭抓取器之前释放其独立的解码上下文）
+        PacketPipeline localPipeline = this.packetPipeline;
+        this.packetPipeline = null;
+        if (localPipeline != null) {
+            localPipeline.stop();
+        }
+
         // 第二步：彻底释放FFmpeg原生资源
         try {
             if (grabber != null) {
@@ -599,21 +781,25 @@ public class FFmpegVideoDecoder {
         }
 
         // 第三步：清空队列+置空所有引用
-        queueLock.lock();
-        try {
-            videoFrameQueue.clear();
-            logger.info("[VideoDecoder] 视频帧队列已清空");
-        } finally {
-            queueLock.unlock();
+        videoFrameQueue.drain(VideoFrame::release);
+        logger.info("[VideoDecoder] 视频帧队列已清空");
+
+        // 丢弃未凑满的音频块，置空音频播放器引用
+        if (audioChunker != null) {
+            audioChunker.reset();
+            audioChunker = null;
+            audioChunkerOwner = null;
         }
-
-        // 置空音频播放器引用
         audioPlayer = null;
 
         // 最终日志
         logger.info("[VideoDecoder] 解码器资源已完全释放，线程状态：" +
                 (localDecodeThread == null ? "已销毁" : (localDecodeThread.isAlive() ? "仍存活" : "已终止")));
         logger.info("[VideoDecoder] " + streamFormat.toUpperCase() + " 解码停止，累计处理音频帧=" + audioFrameCount);
+        if (framePool != null) {
+            logger.info("[VideoDecoder] 帧缓冲池统计：" + framePool.getStatsSummary());
+        }
+        logger.info("[VideoDecoder] 播放指标：" + PlaybackMetrics.getSummary());
     }
 
     // ========== 原有Getter/Setter方法（不变） ==========
@@ -621,15 +807,72 @@ public class FFmpegVideoDecoder {
         return this.videoInfo;
     }
 
+    /**
+     * 渲染端每帧发布当前主时钟，供解码降级控制器衡量解码滞后
+     */
+    public void updateMasterClock(long clockUs) {
+        masterClockNanos = System.nanoTime();
+        masterClockUs = clockUs;
+    }
+
+    // 按发布时刻外推的当前主时钟，尚未发布时返回VideoFrame.NO_PTS
+    long estimateMasterClockUs() {
+        long clockUs = masterClockUs;
+        if (clockUs == VideoFrame.NO_PTS) {
+            return VideoFrame.NO_PTS;
+        }
+        return clockUs + (System.nanoTime() - masterClockNanos) / 1000;
+    }
+
+    boolean isVideoQueueFull() {
+        return videoFrameQueue.size() >= videoFrameQueueMaxSize;
+    }
+
+    // 播放器是否以交错float输出（AL_EXT_FLOAT32），OpenAL初始化完成后有效
+    boolean isFloatAudioOutput() {
+        OpenALAudioPlayer player = audioPlayer;
+        return player != null && player.isFloatOutput();
+    }
+
+    // 音频输出缓冲池（借自OpenAL播放器），未绑定播放器时返回null
+    PcmBufferPool getPcmBufferPool() {
+        OpenALAudioPlayer player = audioPlayer;
+        return player != null ? player.getPcmBufferPool() : null;
+    }
+
+    /**
+     * 首个音频帧的时间戳（微秒），尚无音频入队时返回VideoFrame.NO_PTS
+     */
+    public long getAudioStartTimestampUs() {
+        return audioStartTimestampUs;
+    }
+
+    /**
+     * 是否解码音频（配置启用且流中有音频），为false时不需要创建音频播放器
+     */
+    public boolean hasAudio() {
+        return audioDecodeEnabled;
+    }
+
     public VideoInfo getVideoInfo() {
         return videoInfo;
     }
 
     public void setAudioPlayer(OpenALAudioPlayer audioPlayer) {
         this.audioPlayer = audioPlayer;
+        if (audioPlayer != null) {
+            // 无时长的直播流才做漂移修正；点播流解码领先是常态
+            boolean live = grabber == null || grabber.getLengthInTime() <= 0;
+            audioPlayer.getJitterBuffer().setDriftCorrection(live);
+            logger.info("[VideoDecoder] 抖动缓冲漂移修正：{}", live ? "启用（直播流）" : "关闭（点播流）");
+        }
         logger.info("[VideoDecoder] 音频播放器已绑定");
     }
 
+    public FrameBufferPool getFramePool() {
+        return framePool;
+    }
+
     public boolean isDecoding() {
         return decoding && this.decodeThread != null && this.decodeThread.isAlive();
     }
@@ -649,13 +892,8 @@ public class FFmpegVideoDecoder {
         long videoBufferMs = 0;
         long audioBufferMs = 0;
 
-        queueLock.lock();
-        try {
-            if (videoInfo.getFrameRate() > 0) {
-                videoBufferMs = Math.round(videoFrameQueue.size() * 1000.0 / videoInfo.getFrameRate());
-            }
-        } finally {
-            queueLock.unlock();
+        if (videoInfo.getFrameRate() > 0) {
+            videoBufferMs = Math.round(videoFrameQueue.size() * 1000.0 / videoInfo.getFrameRate());
         }
 
         synchronized (bufferLock) {
@@ -675,8 +913,27 @@ public class FFmpegVideoDecoder {
     }
 
     // ========== 原有方法：解码循环（简化，移除手动时长更新） ==========
+    /**
+     * 启动包级解码流水线（仅直接帧模式），创建失败时回退到混合抓取模式
+     */
+    private boolean startPacketPipeline() {
+        if (!VideoPlayerConfig.isPacketPipeline() || !directFrameMode) {
+            return false;
+        }
+        if (packetPipeline == null) {
+            try {
+                packetPipeline = new PacketPipeline(this, grabber, framePool, decoderThreading, audioDecodeEnabled && audioPlayer != null);
+            } catch (Exception e) {
+                System.err.println("[VideoDecoder] 包级流水线创建失败，回退到混合抓取模式：" + e.getMessage());
+                return false;
+            }
+            packetPipeline.start();
+            logger.info("[VideoDecoder] 已启用包级解码流水线（解复用/视频解码/音频解码分线程）");
+        }
+        return true;
+    }
+
     private void decodeLoop() {
-        int decodeCount = 0;
         while (decoding) {
             try {
                 // 等待OpenAL音频播放器初始化
@@ -685,9 +942,25 @@ public class FFmpegVideoDecoder {
                     logger.info("[VideoDecoder] 等待 OpenAL 播放器初始化...");
                 }
 
-                // 填充初始缓冲
-                long m3u8MinBuffer = 3000;
-                long currentMinBuffer = "m3u8".equals(streamFormat) ? m3u8MinBuffer : MIN_BUFFER_DURATION;
+                // 播放器输出格式在OpenAL初始化后确定：swresample模式下让混合抓取的swresample直接输出交错float
+                if (VideoPlayerConfig.isNativeAudioResample() && isFloatAudioOutput()
+                        && grabber.getSampleFormat() != avutil.AV_SAMPLE_FMT_FLT) {
+                    grabber.setSampleFormat(avutil.AV_SAMPLE_FMT_FLT);
+                    logger.info("[VideoDecoder] 播放器支持float输出，swresample改为输出交错float");
+                }
+
+                // 包级流水线：本线程只负责解复用，音视频解码各自独立线程
+                if (startPacketPipeline()) {
+                    while (decoding) {
+                        if (!packetPipeline.demuxOnce()) {
+                            Thread.sleep(10);
+                        }
+                    }
+                    return;
+                }
+
+                // 填充初始缓冲（有音频时以抖动缓冲的当前目标延迟为准）
+                long currentMinBuffer = audioPlayer != null ? audioPlayer.getJitterBuffer().getTargetMs() : MIN_BUFFER_DURATION;
                 logger.info("[VideoDecoder] 开始填充初始缓冲（最小需要" + currentMinBuffer + "ms）");
 
                 long bufferFillStartTime = System.currentTimeMillis();
@@ -701,18 +974,9 @@ public class FFmpegVideoDecoder {
                 }
                 logger.info("[VideoDecoder] 初始缓冲填充完成，开始正常播放");
 
-                // 正常解码阶段：全速解码+OpenAL节流
+                // 正常解码阶段：全速解码，由音频入队与视频入队处的背压控制速度
                 while (decoding) {
                     decodeSingleFrame();
-                    decodeCount++;
-
-                    // 每解码10帧，执行一次节流（强化队列控制）
-                    if (decodeCount % 10 == 0) {
-                        if (audioPlayer != null) {
-                            audioPlayer.throttleDecodeThread();
-                        }
-                        decodeCount = 0;
-                    }
                 }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
@@ -0,0 +1,81 @@
+package com.example.videoplayer.decoder;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 固定容量的堆外帧缓冲池（解码器→队列→渲染器→GL上传后归还），每个池只服务一种像素布局（RGBA或YUV420P）
+ * 1. 启动时按视频宽高一次性分配全部直接缓冲区，稳态播放零分配
+ * 2. 帧通过VideoFrame的引用计数归还，计数归零时自动回池
+ * 3. 池耗尽、尺寸或像素布局不符时临时分配非池化帧（计为miss），不阻塞解码线程
+ */
+public class FrameBufferPool {
+    private final int width;
+    private final int height;
+    private final int pixelFormat;
+    private final int frameBytes;
+    private final int capacity;
+    // ArrayBlockingQueue内部为定长数组，归还/借出都不产生节点对象
+    private final ArrayBlockingQueue<VideoFrame> freeFrames;
+
+    // 统计：借出次数、未命中次数、当前借出数、借出峰值
+    private final AtomicLong leaseCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger highWaterMark = new AtomicInteger();
+
+    public FrameBufferPool(int width, int height, int pixelFormat, int capacity) {
+        this.width = width;
+        this.height = height;
+        this.pixelFormat = pixelFormat;
+        this.frameBytes = VideoFrame.frameBytes(pixelFormat, width, height);
+        this.capacity = Math.max(1, capacity);
+        this.freeFrames = new ArrayBlockingQueue<>(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(frameBytes).order(ByteOrder.nativeOrder());
+            freeFrames.offer(VideoFrame.pooled(width, height, pixelFormat, buffer, this));
+        }
+        System.out.println("[FrameBufferPool] 初始化：" + this.capacity + "个" + width + "x" + height
+                + (pixelFormat == VideoFrame.FORMAT_YUV420P ? " YUV420P" : " RGBA") + "缓冲区，共" + (long) frameBytes * this.capacity / 1024 / 1024 + "MB");
+    }
+
+    /**
+     * 借出一帧（引用计数=1，由调用方负责release）
+     * 尺寸/像素布局不匹配或池耗尽时返回临时分配的非池化帧
+     */
+    public VideoFrame lease(int frameFormat, int frameWidth, int frameHeight) {
+        leaseCount.incrementAndGet();
+        VideoFrame frame = (frameFormat == pixelFormat && frameWidth == width && frameHeight == height) ? freeFrames.poll() : null;
+        if (frame == null) {
+            missCount.incrementAndGet();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(VideoFrame.frameBytes(frameFormat, frameWidth, frameHeight))
+                    .order(ByteOrder.nativeOrder());
+            return VideoFrame.pooled(frameWidth, frameHeight, frameFormat, buffer, null);
+        }
+        frame.onLease();
+        int current = inUse.incrementAndGet();
+        highWaterMark.accumulateAndGet(current, Math::max);
+        return frame;
+    }
+
+    // 由VideoFrame.release()在引用计数归零时回调
+    void recycle(VideoFrame frame) {
+        inUse.decrementAndGet();
+        freeFrames.offer(frame);
+    }
+
+    public long getLeaseCount() { return leaseCount.get(); }
+    public long getMissCount() { return missCount.get(); }
+    public int getInUse() { return inUse.get(); }
+    public int getHighWaterMark() { return highWaterMark.get(); }
+    public int getCapacity() { return capacity; }
+    public int getPixelFormat() { return pixelFormat; }
+
+    public String getStatsSummary() {
+        return "借出=" + leaseCount.get() + "，未命中=" + missCount.get()
+                + "，当前借出=" + inUse.get() + "/" + capacity + "，峰值=" + highWaterMark.get();
+    }
+}
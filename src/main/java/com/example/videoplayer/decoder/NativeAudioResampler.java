@@ -0,0 +1,128 @@
+package com.example.videoplayer.decoder;
+
+import com.example.videoplayer.audio.PcmBufferPool;
+import org.bytedeco.ffmpeg.avutil.AVChannelLayout;
+import org.bytedeco.ffmpeg.avutil.AVFrame;
+import org.bytedeco.ffmpeg.swresample.SwrContext;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.PointerPointer;
+import org.lwjgl.system.MemoryUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+
+import static org.bytedeco.ffmpeg.global.avutil.*;
+import static org.bytedeco.ffmpeg.global.swresample.*;
+
+/**
+ * 原生音频重采样（swresample）：解码帧 → 交错S16（或OpenAL支持AL_EXT_FLOAT32时的交错float），直接写入PCM缓冲池借出的堆外缓冲区
+ * 格式转换、声道下混与采样率转换全部在FFmpeg内完成，Java侧不再逐样本处理
+ * 输入格式/声道布局/采样率变化时自动重建SwrContext
+ * 仅由音频解码线程使用
+ */
+class NativeAudioResampler {
+    private static final Logger logger = LoggerFactory.getLogger(NativeAudioResampler.class);
+
+    private final int outputChannels;
+    private final int outputSampleRate;
+    private final int outputFormat;
+    private final int bytesPerSample;
+    private final AVChannelLayout outputLayout = new AVChannelLayout();
+    private final PointerPointer<BytePointer> outputPlanes = new PointerPointer<>(1);
+    // 输入帧data数组的包装（按帧对象缓存；data为AVFrame首个成员，帧地址即data数组地址）
+    private AVFrame inputFrame;
+    private PointerPointer<BytePointer> inputPlanes;
+
+    private SwrContext swrContext;
+    private int inputFormat = -1;
+    private int inputSampleRate = -1;
+    private int inputChannels = -1;
+
+    NativeAudioResampler(int outputChannels, int outputSampleRate, boolean floatOutput) {
+        this.outputChannels = outputChannels;
+        this.outputSampleRate = outputSampleRate;
+        this.outputFormat = floatOutput ? AV_SAMPLE_FMT_FLT : AV_SAMPLE_FMT_S16;
+        this.bytesPerSample = floatOutput ? 4 : 2;
+        av_channel_layout_default(outputLayout, outputChannels);
+    }
+
+    /**
+     * @return 交错S16/float数据（position=0，limit=有效字节数），失败返回null
+     */
+    ByteBuffer convert(AVFrame frame, PcmBufferPool pool) {
+        if (!ensureContext(frame)) {
+            return null;
+        }
+        int maxOutputSamples = swr_get_out_samples(swrContext, frame.nb_samples());
+        if (maxOutputSamples <= 0) {
+            return null;
+        }
+        int bytesPerFrame = outputChannels * bytesPerSample;
+        ByteBuffer output = pool.acquire(maxOutputSamples * bytesPerFrame);
+        NativePointers.put(outputPlanes, 0, MemoryUtil.memAddress0(output));
+        int converted = swr_convert(swrContext, outputPlanes, maxOutputSamples, inputPlanesOf(frame), frame.nb_samples());
+        if (converted <= 0) {
+            if (converted < 0) {
+                logger.warn("[NativeAudioResampler] swr_convert失败，错误码={}", converted);
+            }
+            pool.release(output);
+            return null;
+        }
+        output.position(0).limit(converted * bytesPerFrame);
+        return output;
+    }
+
+    // 解码线程始终传入同一个AVFrame，包装只创建一次；超过8声道时extended_data另行分配，按帧读取
+    private PointerPointer<BytePointer> inputPlanesOf(AVFrame frame) {
+        if (NativePointers.extendedData(frame) != frame.address()) {
+            return frame.extended_data();
+        }
+        if (inputFrame != frame) {
+            inputFrame = frame;
+            inputPlanes = new PointerPointer<>(frame);
+        }
+        return inputPlanes;
+    }
+
+    private boolean ensureContext(AVFrame frame) {
+        int format = frame.format();
+        int sampleRate = frame.sample_rate();
+        int channels = frame.ch_layout().nb_channels();
+        if (swrContext != null && format == inputFormat && sampleRate == inputSampleRate && channels == inputChannels) {
+            return true;
+        }
+        freeContext();
+
+        SwrContext context = new SwrContext(null);
+        int ret = swr_alloc_set_opts2(context, outputLayout, outputFormat, outputSampleRate,
+                frame.ch_layout(), format, sampleRate, 0, null);
+        if (ret < 0 || context.isNull() || swr_init(context) < 0) {
+            logger.error("[NativeAudioResampler] 创建SwrContext失败，错误码={}", ret);
+            if (!context.isNull()) {
+                swr_free(context);
+            }
+            return false;
+        }
+        swrContext = context;
+        inputFormat = format;
+        inputSampleRate = sampleRate;
+        inputChannels = channels;
+        logger.info("[NativeAudioResampler] swresample：{}Hz/{}声道/格式{} → {}Hz/{}声道/{}",
+                sampleRate, channels, format, outputSampleRate, outputChannels, bytesPerSample == 4 ? "FLT" : "S16");
+        return true;
+    }
+
+    private void freeContext() {
+        if (swrContext != null) {
+            swr_free(swrContext);
+            swrContext = null;
+        }
+    }
+
+    void close() {
+        freeContext();
+        av_channel_layout_uninit(outputLayout);
+        outputPlanes.close();
+    }
+}
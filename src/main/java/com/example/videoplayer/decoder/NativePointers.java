@@ -0,0 +1,41 @@
+package com.example.videoplayer.decoder;
+
+import org.bytedeco.ffmpeg.avutil.AVFrame;
+import org.bytedeco.javacpp.Loader;
+import org.bytedeco.javacpp.PointerPointer;
+import org.lwjgl.system.MemoryUtil;
+
+import static org.lwjgl.system.Pointer.POINTER_SIZE;
+
+/**
+ * 原生指针数组的零分配读写：直接按地址读写uint8_t*[]，不再为每帧创建JavaCPP的BytePointer/PointerPointer包装对象
+ * 仅用于解码线程上已由调用方保证有效的AVFrame与复用的目标指针数组
+ */
+final class NativePointers {
+    // AVFrame.extended_data字段偏移（平面音频超过8声道时不等于data）
+    private static final long EXTENDED_DATA_OFFSET = Loader.offsetof(AVFrame.class, "extended_data");
+
+    private NativePointers() {
+    }
+
+    /**
+     * 把地址写入指针数组的第index项
+     */
+    static void put(PointerPointer<?> array, int index, long address) {
+        MemoryUtil.memPutAddress(array.address() + (long) index * POINTER_SIZE, address);
+    }
+
+    /**
+     * 帧的extended_data数组地址
+     */
+    static long extendedData(AVFrame frame) {
+        return MemoryUtil.memGetAddress(frame.address() + EXTENDED_DATA_OFFSET);
+    }
+
+    /**
+     * 帧第plane个平面的数据地址（按extended_data读取，支持任意声道数）
+     */
+    static long planeAddress(AVFrame frame, int plane) {
+        return MemoryUtil.memGetAddress(extendedData(frame) + (long) plane * POINTER_SIZE);
+    }
+}
@@ -0,0 +1,508 @@
+package com.example.videoplayer.decoder;
+
+import com.example.videoplayer.audio.PcmBufferPool;
+import com.example.videoplayer.util.VideoPlayerConfig;
+import org.bytedeco.ffmpeg.avcodec.AVCodec;
+import org.bytedeco.ffmpeg.avcodec.AVCodecContext;
+import org.bytedeco.ffmpeg.avcodec.AVPacket;
+import org.bytedeco.ffmpeg.avformat.AVFormatContext;
+import org.bytedeco.ffmpeg.avformat.AVStream;
+import org.bytedeco.ffmpeg.avutil.AVFrame;
+import org.bytedeco.ffmpeg.avutil.AVRational;
+import org.bytedeco.ffmpeg.swscale.SwsContext;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.DoublePointer;
+import org.bytedeco.javacpp.IntPointer;
+import org.bytedeco.javacpp.PointerPointer;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.lwjgl.system.MemoryUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+import static org.bytedeco.ffmpeg.global.avcodec.*;
+import static org.bytedeco.ffmpeg.global.avformat.av_find_best_stream;
+import static org.bytedeco.ffmpeg.global.avutil.*;
+import static org.bytedeco.ffmpeg.global.swscale.*;
+
+/**
+ * 包级解复用/解码流水线（替代单线程grabFrame混合抓取）
+ * 1. 解复用：解码主线程通过grabber.grabPacket()读取AVPacket，按流分发到音频/视频包队列
+ * 2. 解码：音频、视频各一个独立线程，使用各自的AVCodecContext解码，互不阻塞
+ * 3. 视频帧由swscale直接输出RGBA到帧池缓冲区（负行距完成上下翻转）；YUV平面模式下输出YUV420P三平面（不翻转），
+ *    同源格式同尺寸时swscale只做平面拷贝，并按帧的colorspace/color_range标注色彩矩阵与取值范围
+ * 4. 包队列按毫秒限制缓冲时长；解复用经PacketRouter分发，视频包队列满时停放视频包而不阻塞，慢速视频解码不再饿死音频
+ */
+class PacketPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(PacketPipeline.class);
+    // 解码线程等待包的超时（毫秒），用于及时响应停止信号
+    private static final long PACKET_WAIT_MS = 50;
+
+    private final FFmpegVideoDecoder decoder;
+    private final FFmpegFrameGrabber grabber;
+    private final FrameBufferPool framePool;
+    private final int videoStreamIndex;
+    private final int audioStreamIndex;
+    private final AVCodecContext videoCodecContext;
+    private final AVCodecContext audioCodecContext;
+    private final PacketQueue videoPackets;
+    private final PacketQueue audioPackets;
+    // 解复用分发（仅解复用线程使用，stop时关闭）
+    private final PacketRouter router;
+    // 视频解码降级（skip_loop_filter / skip_frame），仅视频解码线程使用
+    private final DecodeDegradationController degradation;
+    // swresample音频模式下的原生重采样器（仅音频解码线程使用），Java转换模式为null
+    private final NativeAudioResampler audioResampler;
+    // 各流时间基（秒/tick），用于把best_effort_timestamp换算为微秒（与grabber的Frame.timestamp一致）
+    private final double videoSecondsPerTick;
+    private final double audioSecondsPerTick;
+    private final AVFrame videoAvFrame = av_frame_alloc();
+    private final AVFrame audioAvFrame = av_frame_alloc();
+
+    // swscale上下文与目标指针（解码视频线程独占，复用避免每帧分配）
+    private SwsContext swsContext;
+    private final PointerPointer<BytePointer> swsDst = new PointerPointer<>(4);
+    private final IntPointer swsDstStride = new IntPointer(4);
+    // videoAvFrame的data/linesize数组视图：data是AVFrame的首个成员，帧地址即data数组地址；两者地址终生不变，只包装一次
+    private final PointerPointer<BytePointer> videoFrameData = new PointerPointer<>(videoAvFrame);
+    private final IntPointer videoFrameLinesize = videoAvFrame.linesize();
+    // 音频平面视图缓存（仅音频解码线程使用）：FFmpeg帧缓冲取自其内部缓冲池，地址反复出现，地址不变时复用同一视图
+    private Buffer[] audioPlanes = new Buffer[0];
+    private long[] audioPlaneAddresses = new long[0];
+
+    private Thread videoDecodeThread;
+    private Thread audioDecodeThread;
+    private volatile boolean running = false;
+
+    PacketPipeline(FFmpegVideoDecoder decoder, FFmpegFrameGrabber grabber, FrameBufferPool framePool,
+                   DecoderThreading threading, boolean decodeAudio) throws Exception {
+        this.decoder = decoder;
+        this.grabber = grabber;
+        this.framePool = framePool;
+
+        AVFormatContext formatContext = grabber.getFormatContext();
+        if (formatContext == null || formatContext.isNull()) {
+            throw new Exception("抓取器未启动，无法获取AVFormatContext");
+        }
+        this.videoStreamIndex = av_find_best_stream(formatContext, AVMEDIA_TYPE_VIDEO, -1, -1, (AVCodec) null, 0);
+        this.audioStreamIndex = decodeAudio
+                ? av_find_best_stream(formatContext, AVMEDIA_TYPE_AUDIO, -1, videoStreamIndex, (AVCodec) null, 0)
+                : -1;
+        if (videoStreamIndex < 0) {
+            throw new Exception("未找到视频流");
+        }
+
+        AVStream videoStream = formatContext.streams(videoStreamIndex);
+        this.videoCodecContext = openDecoder(videoStream, "视频", threading);
+        double videoFps = av_q2d(videoStream.avg_frame_rate()) > 0 ? av_q2d(videoStream.avg_frame_rate()) : 25.0;
+        this.videoPackets = createQueue("video", videoStream, 1.0 / videoFps, VideoPlayerConfig.videoPacketBufferMs);
+        this.videoSecondsPerTick = av_q2d(videoStream.time_base());
+        this.degradation = new DecodeDegradationController(videoCodecContext);
+
+        if (audioStreamIndex >= 0) {
+            AVStream audioStream = formatContext.streams(audioStreamIndex);
+            this.audioCodecContext = openDecoder(audioStream, "音频", null);
+            int sampleRate = Math.max(1, audioStream.codecpar().sample_rate());
+            // AAC单帧1024采样
+            this.audioPackets = createQueue("audio", audioStream, 1024.0 / sampleRate, VideoPlayerConfig.audioPacketBufferMs);
+            this.audioSecondsPerTick = av_q2d(audioStream.time_base());
+            this.audioResampler = VideoPlayerConfig.isNativeAudioResample()
+                    ? new NativeAudioResampler(decoder.getVideoInfo().getAudioChannels(), decoder.getVideoInfo().getSampleRate(),
+                    decoder.isFloatAudioOutput())
+                    : null;
+        } else {
+            this.audioCodecContext = null;
+            this.audioPackets = null;
+            this.audioSecondsPerTick = 0;
+            this.audioResampler = null;
+        }
+        // 停放上限与视频包队列等长：视频侧总缓冲最多为配置值的两倍，超过即跳至下一个关键帧
+        this.router = new PacketRouter(videoPackets, audioPackets, VideoPlayerConfig.videoPacketBufferMs, PACKET_WAIT_MS);
+
+        logger.info("[PacketPipeline] 初始化完成：视频流#" + videoStreamIndex + "，音频流#" + audioStreamIndex
+                + "，视频包缓冲上限=" + VideoPlayerConfig.videoPacketBufferMs + "ms，音频包缓冲上限=" + VideoPlayerConfig.audioPacketBufferMs + "ms");
+    }
+
+    private static PacketQueue createQueue(String name, AVStream stream, double defaultDurationSeconds, long maxBufferMs) {
+        AVRational timeBase = stream.time_base();
+        double secondsPerTick = av_q2d(timeBase) > 0 ? av_q2d(timeBase) : 1.0 / 90000;
+        long defaultDurationTicks = Math.round(defaultDurationSeconds / secondsPerTick);
+        return new PacketQueue(name, secondsPerTick * 1000.0, defaultDurationTicks, maxBufferMs);
+    }
+
+    // threading为null时保持FFmpeg默认线程配置（音频解码开销小，无需多线程）
+    private AVCodecContext openDecoder(AVStream stream, String label, DecoderThreading threading) throws Exception {
+        AVCodec codec = avcodec_find_decoder(stream.codecpar().codec_id());
+        if (codec == null || codec.isNull()) {
+            throw new Exception("找不到" + label + "解码器，codec_id=" + stream.codecpar().codec_id());
+        }
+        AVCodecContext context = avcodec_alloc_context3(codec);
+        int ret = avcodec_parameters_to_context(context, stream.codecpar());
+        if (ret < 0) {
+            avcodec_free_context(context);
+            throw new Exception("复制" + label + "解码参数失败，错误码=" + ret);
+        }
+        context.pkt_timebase(stream.time_base());
+        if (threading != null) {
+            threading.applyTo(context);
+        }
+        ret = avcodec_open2(context, codec, (PointerPointer) null);
+        if (ret < 0) {
+            avcodec_free_context(context);
+            throw new Exception("打开" + label + "解码器失败，错误码=" + ret);
+        }
+        logger.info("[PacketPipeline] " + label + "解码器已打开：" + codec.name().getString()
+                + "，线程数=" + context.thread_count() + "，线程类型=" + context.active_thread_type());
+        return context;
+    }
+
+    void start() {
+        running = true;
+        videoDecodeThread = new Thread(this::videoDecodeLoop, "FFmpeg-Video-Decode-Thread");
+        videoDecodeThread.setPriority(Thread.NORM_PRIORITY);
+        videoDecodeThread.start();
+        if (audioPackets != null) {
+            audioDecodeThread = new Thread(this::audioDecodeLoop, "FFmpeg-Audio-Decode-Thread");
+            // 音频断流直接可闻，优先级高于视频
+            audioDecodeThread.setPriority(Thread.NORM_PRIORITY + 1);
+            audioDecodeThread.start();
+        }
+    }
+
+    /**
+     * 解复用一个包并分发到对应流的包队列（在解码主线程调用），单次调用在满队列上最多等待PACKET_WAIT_MS
+     * @return 暂无数据（断流/读到结尾）时返回false
+     */
+    boolean demuxOnce() throws Exception {
+        // 音频包队列仍满：本次不读取新包（期间已尝试释放停放的视频包）
+        if (!router.retryPending()) {
+            return true;
+        }
+        AVPacket packet = grabber.grabPacket();
+        if (packet == null || packet.isNull()) {
+            return false;
+        }
+        try {
+            int streamIndex = packet.stream_index();
+            if (streamIndex == videoStreamIndex) {
+                router.routeVideo(av_packet_clone(packet));
+            } else if (streamIndex == audioStreamIndex && audioPackets != null) {
+                router.routeAudio(av_packet_clone(packet));
+            }
+        } finally {
+            av_packet_unref(packet);
+        }
+        return true;
+    }
+
+    // ========== 视频解码线程 ==========
+    private void videoDecodeLoop() {
+        while (running) {
+            AVPacket packet = null;
+            try {
+                packet = videoPackets.take(PACKET_WAIT_MS);
+                if (packet == null) {
+                    continue;
+                }
+                int ret = avcodec_send_packet(videoCodecContext, packet);
+                if (ret < 0 && ret != AVERROR_EAGAIN()) {
+                    logger.warn("[PacketPipeline] 视频包送入解码器失败，错误码={}", ret);
+                    continue;
+                }
+                while (running && avcodec_receive_frame(videoCodecContext, videoAvFrame) >= 0) {
+                    try {
+                        publishVideoFrame(videoAvFrame);
+                    } finally {
+                        av_frame_unref(videoAvFrame);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.error("[PacketPipeline] 视频解码异常：", e);
+            } finally {
+                if (packet != null) {
+                    av_packet_free(packet);
+                }
+            }
+        }
+        logger.info("[PacketPipeline] 视频解码线程退出");
+    }
+
+    // swscale直接写入帧池缓冲区：目标指针指向最后一行、行距取负，实现上下翻转
+    // frame恒为videoAvFrame，源指针直接使用预先包装好的videoFrameData/videoFrameLinesize
+    private void publishVideoFrame(AVFrame frame) throws InterruptedException {
+        long ptsUs = toMicros(frame.best_effort_timestamp(), videoSecondsPerTick);
+        long clockUs = decoder.estimateMasterClockUs();
+        if (ptsUs != VideoFrame.NO_PTS && clockUs != VideoFrame.NO_PTS) {
+            degradation.observe((clockUs - ptsUs) / 1000.0, decoder.isVideoQueueFull());
+        }
+
+        decoder.awaitVideoQueueSpace();
+        if (!running) {
+            return;
+        }
+        VideoFrame videoFrame = framePool.lease(framePool.getPixelFormat(), decoder.getVideoInfo().getWidth(), decoder.getVideoInfo().getHeight());
+        if (videoFrame.isYuv()) {
+            if (convertToYuvPlanes(frame, videoFrame)) {
+                decoder.enqueueVideoFrame(videoFrame.withPts(ptsUs));
+            } else {
+                videoFrame.release();
+            }
+            return;
+        }
+        int dstWidth = videoFrame.getWidth();
+        int dstHeight = videoFrame.getHeight();
+        int rowBytes = dstWidth * 4;
+
+        swsContext = sws_getCachedContext(swsContext,
+                frame.width(), frame.height(), frame.format(),
+                dstWidth, dstHeight, AV_PIX_FMT_RGBA,
+                SWS_BILINEAR, null, null, (DoublePointer) null);
+        if (swsContext == null || swsContext.isNull()) {
+            logger.error("[PacketPipeline] 创建swscale上下文失败");
+            videoFrame.release();
+            return;
+        }
+
+        ByteBuffer pixels = videoFrame.getPixels();
+        NativePointers.put(swsDst, 0, videoFrame.getPixelAddress() + (long) (dstHeight - 1) * rowBytes);
+        swsDstStride.put(0, -rowBytes);
+        sws_scale(swsContext, videoFrameData, videoFrameLinesize, 0, frame.height(), swsDst, swsDstStride);
+        pixels.position(0).limit(rowBytes * dstHeight);
+
+        decoder.enqueueVideoFrame(videoFrame.withPts(ptsUs));
+    }
+
+    /**
+     * swscale输出YUV420P三平面到帧池缓冲区（Y、U、V紧密相连，行序自上而下）
+     * 源为全范围YUVJ格式时目标取YUVJ420P，避免swscale把全范围压缩为有限范围；yuv→yuv转换不涉及色彩矩阵，
+     * 因此输出沿用源的colorspace与取值范围
+     */
+    private boolean convertToYuvPlanes(AVFrame frame, VideoFrame videoFrame) {
+        int dstWidth = videoFrame.getWidth();
+        int dstHeight = videoFrame.getHeight();
+        int chromaWidth = VideoFrame.chromaWidth(dstWidth);
+        int chromaHeight = VideoFrame.chromaHeight(dstHeight);
+        int srcFormat = frame.format();
+        boolean jpegRange = isJpegRangeFormat(srcFormat);
+
+        swsContext = sws_getCachedContext(swsContext,
+                frame.width(), frame.height(), srcFormat,
+                dstWidth, dstHeight, jpegRange ? AV_PIX_FMT_YUVJ420P : AV_PIX_FMT_YUV420P,
+                SWS_BILINEAR, null, null, (DoublePointer) null);
+        if (swsContext == null || swsContext.isNull()) {
+            logger.error("[PacketPipeline] 创建swscale上下文失败");
+            return false;
+        }
+
+        ByteBuffer pixels = videoFrame.getPixels();
+        long lumaBytes = (long) dstWidth * dstHeight;
+        long chromaBytes = (long) chromaWidth * chromaHeight;
+        long base = videoFrame.getPixelAddress();
+        NativePointers.put(swsDst, 0, base);
+        NativePointers.put(swsDst, 1, base + lumaBytes);
+        NativePointers.put(swsDst, 2, base + lumaBytes + chromaBytes);
+        swsDstStride.put(0, dstWidth);
+        swsDstStride.put(1, chromaWidth);
+        swsDstStride.put(2, chromaWidth);
+        sws_scale(swsContext, videoFrameData, videoFrameLinesize, 0, frame.height(), swsDst, swsDstStride);
+        pixels.position(0).limit(VideoFrame.frameBytes(VideoFrame.FORMAT_YUV420P, dstWidth, dstHeight));
+
+        boolean fullRange = jpegRange || frame.color_range() == AVCOL_RANGE_JPEG;
+        videoFrame.withColorimetry(colorMatrixOf(frame.colorspace(), dstHeight), fullRange);
+        return true;
+    }
+
+    private static boolean isJpegRangeFormat(int pixelFormat) {
+        return pixelFormat == AV_PIX_FMT_YUVJ420P || pixelFormat == AV_PIX_FMT_YUVJ422P
+                || pixelFormat == AV_PIX_FMT_YUVJ444P || pixelFormat == AV_PIX_FMT_YUVJ440P
+                || pixelFormat == AV_PIX_FMT_YUVJ411P;
+    }
+
+    // 未标注色彩空间时按常规约定：高清（≥720行）取BT.709，标清取BT.601；BT.2020近似按BT.709处理
+    private static int colorMatrixOf(int colorspace, int height) {
+        if (colorspace == AVCOL_SPC_BT709 || colorspace == AVCOL_SPC_BT2020_NCL || colorspace == AVCOL_SPC_BT2020_CL) {
+            return VideoFrame.MATRIX_BT709;
+        }
+        if (colorspace == AVCOL_SPC_UNSPECIFIED || colorspace == AVCOL_SPC_RESERVED) {
+            return height >= 720 ? VideoFrame.MATRIX_BT709 : VideoFrame.MATRIX_BT601;
+        }
+        return VideoFrame.MATRIX_BT601;
+    }
+
+    // ========== 音频解码线程 ==========
+    private void audioDecodeLoop() {
+        while (running) {
+            AVPacket packet = null;
+            try {
+                packet = audioPackets.take(PACKET_WAIT_MS);
+                if (packet == null) {
+                    continue;
+                }
+                int ret = avcodec_send_packet(audioCodecContext, packet);
+                if (ret < 0 && ret != AVERROR_EAGAIN()) {
+                    logger.warn("[PacketPipeline] 音频包送入解码器失败，错误码={}", ret);
+                    continue;
+                }
+                while (running && avcodec_receive_frame(audioCodecContext, audioAvFrame) >= 0) {
+                    try {
+                        publishAudioFrame(audioAvFrame);
+                    } finally {
+                        av_frame_unref(audioAvFrame);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.error("[PacketPipeline] 音频解码异常：", e);
+            } finally {
+                if (packet != null) {
+                    av_packet_free(packet);
+                }
+            }
+        }
+        logger.info("[PacketPipeline] 音频解码线程退出");
+    }
+
+    // 将AVFrame的平面/交错采样包装为Buffer数组（视图与数组均复用），复用解码器已有的格式转换
+    private void publishAudioFrame(AVFrame frame) {
+        int sampleFormat = frame.format();
+        int sampleCount = frame.nb_samples();
+        int channels = Math.max(1, frame.ch_layout().nb_channels());
+        if (sampleCount <= 0) {
+            return;
+        }
+        long timestampUs = toMicros(frame.best_effort_timestamp(), audioSecondsPerTick);
+
+        if (audioResampler != null) {
+            // swresample模式：FFmpeg直接写出交错S16/float，无Java侧转换
+            PcmBufferPool pool = decoder.getPcmBufferPool();
+            ByteBuffer pcm = pool != null ? audioResampler.convert(frame, pool) : null;
+            if (pcm != null) {
+                decoder.enqueueAudioBuffer(pcm, timestampUs);
+            }
+            return;
+        }
+
+        Buffer[] samples;
+        if (sampleFormat == AV_SAMPLE_FMT_FLTP) {
+            samples = wrapAudioPlanes(frame, channels, sampleCount, true);
+        } else if (sampleFormat == AV_SAMPLE_FMT_S16P) {
+            samples = wrapAudioPlanes(frame, channels, sampleCount, false);
+        } else if (sampleFormat == AV_SAMPLE_FMT_S16) {
+            samples = wrapAudioPlanes(frame, 1, sampleCount * channels, false);
+        } else if (sampleFormat == AV_SAMPLE_FMT_FLT) {
+            samples = wrapAudioPlanes(frame, 1, sampleCount * channels, true);
+        } else {
+            logger.error("[PacketPipeline] 不支持的音频采样格式：{}", sampleFormat);
+            return;
+        }
+
+        ByteBuffer pcm = decoder.convertSamples(samples, sampleFormat, channels);
+        if (pcm != null) {
+            decoder.enqueueAudioBuffer(pcm, timestampUs);
+        }
+    }
+
+    /**
+     * 把帧的各平面包装为FloatBuffer/ShortBuffer视图（limit=planeSamples），平面地址与上次相同时直接复用视图
+     * 新视图按linesize（含对齐填充）包装，同一缓冲区上样本数更多的后续帧也能复用
+     */
+    private Buffer[] wrapAudioPlanes(AVFrame frame, int planeCount, int planeSamples, boolean floatSamples) {
+        if (audioPlanes.length != planeCount) {
+            audioPlanes = new Buffer[planeCount];
+            audioPlaneAddresses = new long[planeCount];
+        }
+        int bytesPerSample = floatSamples ? 4 : 2;
+        for (int c = 0; c < planeCount; c++) {
+            long address = NativePointers.planeAddress(frame, c);
+            Buffer view = audioPlanes[c];
+            if (view == null || audioPlaneAddresses[c] != address || view.capacity() < planeSamples
+                    || (view instanceof FloatBuffer) != floatSamples) {
+                int capacityBytes = Math.max(planeSamples * bytesPerSample, frame.linesize(0));
+                ByteBuffer bytes = MemoryUtil.memByteBuffer(address, capacityBytes);
+                view = floatSamples ? bytes.asFloatBuffer() : bytes.asShortBuffer();
+                audioPlanes[c] = view;
+                audioPlaneAddresses[c] = address;
+            }
+            view.clear().limit(planeSamples);
+        }
+        return audioPlanes;
+    }
+
+    private static long toMicros(long pts, double secondsPerTick) {
+        if (pts == AV_NOPTS_VALUE || secondsPerTick <= 0) {
+            return VideoFrame.NO_PTS;
+        }
+        return Math.round(pts * secondsPerTick * 1_000_000.0);
+    }
+
+    long getVideoBufferedMs() {
+        return videoPackets.getBufferedMs();
+    }
+
+    long getAudioBufferedMs() {
+        return audioPackets != null ? audioPackets.getBufferedMs() : 0;
+    }
+
+    /**
+     * 停止流水线：关闭包队列、等待解码线程退出、释放解码器与swscale资源
+     */
+    void stop() {
+        running = false;
+        videoPackets.close();
+        if (audioPackets != null) {
+            audioPackets.close();
+        }
+        router.close();
+        joinQuietly(videoDecodeThread);
+        joinQuietly(audioDecodeThread);
+        if (isAlive(videoDecodeThread) || isAlive(audioDecodeThread)) {
+            // 解码线程仍在使用解码器上下文，宁可泄漏也不能释放后崩溃
+            logger.warn("[PacketPipeline] 解码线程未退出，跳过原生资源释放");
+            return;
+        }
+
+        avcodec_free_context(videoCodecContext);
+        if (audioCodecContext != null) {
+            avcodec_free_context(audioCodecContext);
+        }
+        av_frame_free(videoAvFrame);
+        av_frame_free(audioAvFrame);
+        if (audioResampler != null) {
+            audioResampler.close();
+        }
+        if (swsContext != null) {
+            sws_freeContext(swsContext);
+            swsContext = null;
+        }
+        swsDst.close();
+        swsDstStride.close();
+        logger.info("[PacketPipeline] 流水线已停止");
+    }
+
+    private static boolean isAlive(Thread thread) {
+        return thread != null && thread != Thread.currentThread() && thread.isAlive();
+    }
+
+    private void joinQuietly(Thread thread) {
+        if (thread == null || thread == Thread.currentThread()) {
+            return;
+        }
+        thread.interrupt();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            logger.warn("[PacketPipeline] 线程{}未在1秒内退出", thread.getName());
+        }
+    }
+}
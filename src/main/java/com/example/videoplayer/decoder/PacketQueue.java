@@ -0,0 +1,158 @@
+package com.example.videoplayer.decoder;
+
+import org.bytedeco.ffmpeg.avcodec.AVPacket;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.bytedeco.ffmpeg.global.avcodec.av_packet_free;
+
+/**
+ * 单路流的压缩包队列（解复用线程→解码线程），容量按缓冲时长（毫秒）而非包数量限制
+ * 1. 包时长来自AVPacket.duration，缺失时使用流的默认帧时长估算
+ * 2. 超过时长上限时入队最多等待调用方给定的毫秒数（解复用线程不会无限期阻塞在某一路队列上），关闭后所有等待方立即返回
+ * 3. 队列持有的AVPacket均为av_packet_clone得到的独立引用，出队后由调用方av_packet_free
+ */
+class PacketQueue {
+    // 兜底包数上限，防止时长信息异常时无限堆积（2的幂，兼作时长环形数组的容量）
+    private static final int MAX_PACKETS = 4096;
+
+    private final String name;
+    private final ArrayDeque<AVPacket> packets = new ArrayDeque<>();
+    // 与packets一一对应的包时长（tick），环形数组避免每包装箱Long；durationHead为队首包的下标
+    private final long[] durations = new long[MAX_PACKETS];
+    private int durationHead = 0;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final double msPerTick;
+    private final long defaultDurationTicks;
+    private final long maxBufferMs;
+    private long bufferedTicks = 0;
+    private boolean closed = false;
+
+    PacketQueue(String name, double msPerTick, long defaultDurationTicks, long maxBufferMs) {
+        this.name = name;
+        this.msPerTick = msPerTick;
+        this.defaultDurationTicks = Math.max(1, defaultDurationTicks);
+        this.maxBufferMs = maxBufferMs;
+    }
+
+    /**
+     * 入队：缓冲时长达到上限时最多等待timeoutMs（0为不等待）
+     * @return 已入队或队列已关闭（包已被释放）时返回true；等待超时队列仍满时返回false，包仍归调用方所有
+     */
+    boolean offer(AVPacket packet, long timeoutMs) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            while (!closed && isFullLocked()) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = notFull.awaitNanos(remainingNanos);
+            }
+            if (closed) {
+                av_packet_free(packet);
+                return true;
+            }
+            long duration = durationTicksOf(packet);
+            durations[(durationHead + packets.size()) & (MAX_PACKETS - 1)] = duration;
+            packets.addLast(packet);
+            bufferedTicks += duration;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 出队（最多等待timeoutMs），超时或已关闭返回null
+     */
+    AVPacket take(long timeoutMs) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            while (!closed && packets.isEmpty()) {
+                if (remainingNanos <= 0) {
+                    return null;
+                }
+                remainingNanos = notEmpty.awaitNanos(remainingNanos);
+            }
+            if (closed) {
+                return null;
+            }
+            AVPacket packet = packets.pollFirst();
+            bufferedTicks -= durations[durationHead];
+            durationHead = (durationHead + 1) & (MAX_PACKETS - 1);
+            notFull.signal();
+            return packet;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 关闭队列：释放所有剩余包并唤醒全部等待线程
+     */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            AVPacket packet;
+            while ((packet = packets.pollFirst()) != null) {
+                av_packet_free(packet);
+            }
+            durationHead = 0;
+            bufferedTicks = 0;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getBufferedMs() {
+        lock.lock();
+        try {
+            return getBufferedMsLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long getBufferedMsLocked() {
+        return (long) (bufferedTicks * msPerTick);
+    }
+
+    private boolean isFullLocked() {
+        return !packets.isEmpty() && (getBufferedMsLocked() >= maxBufferMs || packets.size() >= MAX_PACKETS);
+    }
+
+    private long durationTicksOf(AVPacket packet) {
+        return packet.duration() > 0 ? packet.duration() : defaultDurationTicks;
+    }
+
+    /**
+     * 包的时长（毫秒，缺失时按流的默认帧时长估算）
+     */
+    double durationMsOf(AVPacket packet) {
+        return durationTicksOf(packet) * msPerTick;
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return packets.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.videoplayer.decoder;
+
+import org.bytedeco.ffmpeg.avcodec.AVPacket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+
+import static org.bytedeco.ffmpeg.global.avcodec.AV_PKT_FLAG_KEY;
+import static org.bytedeco.ffmpeg.global.avcodec.av_packet_free;
+
+/**
+ * 解复用分发：把克隆出的包送入音频/视频包队列，任一路队列满都不会让解复用线程无限期阻塞
+ * 1. 视频包队列满时，视频包按顺序停放在本地，解复用继续读取，音频包照常入队——慢速视频解码不再饿死音频
+ * 2. 停放的视频时长超过上限（视频解码持续跟不上）时丢弃全部停放包，并丢弃后续视频包直到下一个关键帧，
+ *    保证送入解码器的包序列始终从关键帧开始
+ * 3. 音频包队列满时最多等待waitMs，仍满则保留该包由下次调用重试；每次调用前先尝试把停放的视频包送入队列
+ * 4. 没有音频流时不停放：视频包队列满即分段等待（无音频可饿死，背压直接传给解复用）
+ * 由解复用线程调用；close()可由其他线程调用，方法之间以对象锁互斥
+ */
+class PacketRouter {
+    private static final Logger logger = LoggerFactory.getLogger(PacketRouter.class);
+
+    private final PacketQueue videoPackets;
+    // 无音频流时为null
+    private final PacketQueue audioPackets;
+    private final double maxParkedMs;
+    private final long waitMs;
+
+    private final ArrayDeque<AVPacket> parkedVideo = new ArrayDeque<>();
+    private double parkedMs = 0;
+    // 音频包队列满时暂存的一个音频包
+    private AVPacket pendingAudio;
+    private boolean skippingToKeyframe = false;
+    private long droppedVideoPackets = 0;
+    private boolean closed = false;
+
+    /**
+     * @param maxParkedMs 停放视频包的时长上限（毫秒），超过后跳至下一个关键帧
+     * @param waitMs 单次调用在满队列上的最长等待（毫秒），用于及时响应停止信号
+     */
+    PacketRouter(PacketQueue videoPackets, PacketQueue audioPackets, long maxParkedMs, long waitMs) {
+        this.videoPackets = videoPackets;
+        this.audioPackets = audioPackets;
+        this.maxParkedMs = Math.max(1, maxParkedMs);
+        this.waitMs = waitMs;
+    }
+
+    /**
+     * 重试上次未能入队的音频包（期间先尝试释放停放的视频包）
+     * @return 没有待入队的音频包时返回true；音频包队列仍满时返回false，调用方不应继续读取新包
+     */
+    synchronized boolean retryPending() throws InterruptedException {
+        flushParkedVideo();
+        if (pendingAudio == null) {
+            return true;
+        }
+        if (!audioPackets.offer(pendingAudio, waitMs)) {
+            return false;
+        }
+        pendingAudio = null;
+        return true;
+    }
+
+    /**
+     * 分发视频包（所有权转移给本对象）
+     */
+    synchronized void routeVideo(AVPacket packet) throws InterruptedException {
+        if (closed) {
+            av_packet_free(packet);
+            return;
+        }
+        if (skippingToKeyframe) {
+            if ((packet.flags() & AV_PKT_FLAG_KEY) == 0) {
+                av_packet_free(packet);
+                droppedVideoPackets++;
+                return;
+            }
+            skippingToKeyframe = false;
+            logger.info("[PacketRouter] 已跳至关键帧，累计丢弃视频包{}个", droppedVideoPackets);
+        }
+
+        flushParkedVideo();
+        if (parkedVideo.isEmpty() && videoPackets.offer(packet, 0)) {
+            return;
+        }
+        if (audioPackets == null) {
+            // 无音频流：直接等待视频包队列（队列关闭时offer会释放包并返回true）
+            while (!videoPackets.offer(packet, waitMs)) {
+                // 继续等待
+            }
+            return;
+        }
+
+        parkedVideo.addLast(packet);
+        parkedMs += videoPackets.durationMsOf(packet);
+        if (parkedMs > maxParkedMs) {
+            droppedVideoPackets += parkedVideo.size();
+            logger.warn("[PacketRouter] 视频解码持续落后（停放{}ms），丢弃{}个视频包并跳至下一个关键帧",
+                    (long) parkedMs, parkedVideo.size());
+            freeParkedVideo();
+            skippingToKeyframe = true;
+        }
+    }
+
+    /**
+     * 分发音频包（所有权转移给本对象）：音频包队列满时最多等待waitMs，仍满则保留到下次retryPending
+     * 调用前须保证retryPending()已返回true（同一时刻最多一个待入队音频包）
+     */
+    synchronized void routeAudio(AVPacket packet) throws InterruptedException {
+        if (closed || audioPackets == null) {
+            av_packet_free(packet);
+            return;
+        }
+        if (pendingAudio != null) {
+            throw new IllegalStateException("上一个音频包尚未入队");
+        }
+        if (!audioPackets.offer(packet, waitMs)) {
+            pendingAudio = packet;
+        }
+    }
+
+    // 按顺序把停放的视频包送入视频包队列（不等待）
+    private void flushParkedVideo() throws InterruptedException {
+        AVPacket head;
+        while ((head = parkedVideo.peekFirst()) != null) {
+            double durationMs = videoPackets.durationMsOf(head);
+            if (!videoPackets.offer(head, 0)) {
+                return;
+            }
+            parkedVideo.pollFirst();
+            parkedMs -= durationMs;
+        }
+        parkedMs = 0;
+    }
+
+    private void freeParkedVideo() {
+        AVPacket packet;
+        while ((packet = parkedVideo.pollFirst()) != null) {
+            av_packet_free(packet);
+        }
+        parkedMs = 0;
+    }
+
+    synchronized long getParkedMs() {
+        return (long) parkedMs;
+    }
+
+    synchronized long getDroppedVideoPackets() {
+        return droppedVideoPackets;
+    }
+
+    /**
+     * 释放停放与暂存的包，之后分发的包直接释放
+     */
+    synchronized void close() {
+        closed = true;
+        freeParkedVideo();
+        if (pendingAudio != null) {
+            av_packet_free(pendingAudio);
+            pendingAudio = null;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.videoplayer.decoder;
+
+import org.lwjgl.system.MemoryUtil;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 解码器→渲染器之间传递的视频帧
+ * 两种载荷二选一：
+ * 1. pixels：堆外缓冲区，按pixelFormat分两种布局
+ *    - RGBA：行序已自下而上翻转（与OpenGL纹理坐标一致），可直接上传纹理
+ *    - YUV420P：Y、U、V三平面紧密相连（无行填充），行序自上而下（不翻转，由着色器翻转纹理坐标），
+ *      附带色彩矩阵（BT.601/709）与取值范围（limited/full），供着色器转换为RGB
+ * 2. image：兼容模式下Java2DFrameConverter输出的BufferedImage
+ * 引用计数：持有者用完必须调用release()，池化帧在计数归零时回到FrameBufferPool
+ * 时间戳：ptsUs为流时间基下的呈现时间（微秒），与音频帧时间戳同一基准
+ */
+public class VideoFrame {
+    // 无时间戳（解码器未给出PTS），渲染端按到达顺序立即呈现
+    public static final long NO_PTS = Long.MIN_VALUE;
+    // 像素布局
+    public static final int FORMAT_RGBA = 0;
+    public static final int FORMAT_YUV420P = 1;
+    // YUV→RGB色彩矩阵
+    public static final int MATRIX_BT601 = 0;
+    public static final int MATRIX_BT709 = 1;
+
+    private final int width;
+    private final int height;
+    private final int pixelFormat;
+    private final ByteBuffer pixels;
+    // pixels的原生地址（池化缓冲区终生不变，创建时取一次，写入时不再包装BytePointer）
+    private final long pixelAddress;
+    private final BufferedImage image;
+    private final FrameBufferPool pool;
+    private final AtomicInteger refCount = new AtomicInteger(1);
+    private volatile long ptsUs = NO_PTS;
+    // 仅YUV420P帧有效
+    private volatile int colorMatrix = MATRIX_BT601;
+    private volatile boolean fullRange = false;
+
+    private VideoFrame(int width, int height, int pixelFormat, ByteBuffer pixels, BufferedImage image, FrameBufferPool pool) {
+        this.width = width;
+        this.height = height;
+        this.pixelFormat = pixelFormat;
+        this.pixels = pixels;
+        this.pixelAddress = pixels != null ? MemoryUtil.memAddress0(pixels) : 0L;
+        this.image = image;
+        this.pool = pool;
+    }
+
+    // pool为null表示非池化帧（池未命中时临时分配），release后交给GC
+    static VideoFrame pooled(int width, int height, int pixelFormat, ByteBuffer pixels, FrameBufferPool pool) {
+        return new VideoFrame(width, height, pixelFormat, pixels, null, pool);
+    }
+
+    public static VideoFrame ofImage(BufferedImage image) {
+        return new VideoFrame(image.getWidth(), image.getHeight(), FORMAT_RGBA, null, image, null);
+    }
+
+    /**
+     * 指定像素布局下一帧的字节数（YUV420P色度平面宽高向上取整）
+     */
+    public static int frameBytes(int pixelFormat, int width, int height) {
+        if (pixelFormat == FORMAT_YUV420P) {
+            return width * height + 2 * chromaWidth(width) * chromaHeight(height);
+        }
+        return width * height * 4;
+    }
+
+    public static int chromaWidth(int width) {
+        return (width + 1) / 2;
+    }
+
+    public static int chromaHeight(int height) {
+        return (height + 1) / 2;
+    }
+
+    // 从池中借出时重置状态
+    void onLease() {
+        refCount.set(1);
+        ptsUs = NO_PTS;
+        colorMatrix = MATRIX_BT601;
+        fullRange = false;
+        pixels.clear();
+    }
+
+    public VideoFrame retain() {
+        refCount.incrementAndGet();
+        return this;
+    }
+
+    public void release() {
+        int remaining = refCount.decrementAndGet();
+        if (remaining == 0 && pool != null) {
+            pool.recycle(this);
+        } else if (remaining < 0) {
+            System.err.println("[VideoFrame] 重复释放帧（引用计数=" + remaining + "）");
+        }
+    }
+
+    VideoFrame withPts(long ptsUs) {
+        this.ptsUs = ptsUs;
+        return this;
+    }
+
+    VideoFrame withColorimetry(int colorMatrix, boolean fullRange) {
+        this.colorMatrix = colorMatrix;
+        this.fullRange = fullRange;
+        return this;
+    }
+
+    public boolean hasPts() {
+        return ptsUs != NO_PTS;
+    }
+
+    public boolean isDirect() {
+        return pixels != null;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getPixelFormat() { return pixelFormat; }
+    public boolean isYuv() { return pixelFormat == FORMAT_YUV420P; }
+    public int getColorMatrix() { return colorMatrix; }
+    public boolean isFullRange() { return fullRange; }
+    public ByteBuffer getPixels() { return pixels; }
+    long getPixelAddress() { return pixelAddress; }
+    public BufferedImage getImage() { return image; }
+    public long getPtsUs() { return ptsUs; }
+}
@@ -0,0 +1,366 @@
+package com.example.videoplayer.render;
+
+import com.example.videoplayer.util.PlaybackMetrics;
+import com.example.videoplayer.util.VideoPlayerConfig;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL21;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL32;
+import org.lwjgl.opengl.GL44;
+import org.lwjgl.opengl.GLCapabilities;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 像素缓冲对象（PBO）环：纹理上传异步化，渲染线程只下发一条PBO→纹理的拷贝命令
+ * 槽位状态：空闲 → 写入中（帧处理线程独占）→ 就绪（最新帧）→ 上传中（拷贝已提交，等待栅栏）→ 空闲
+ * 1. 持久映射模式（GL 4.4 / ARB_buffer_storage）：glBufferStorage + GL_MAP_PERSISTENT_BIT|GL_MAP_COHERENT_BIT，
+ *    映射地址在环的整个生命周期内有效，帧处理线程直接把RGBA写进显存映射区；
+ *    每次提交拷贝后插入glFenceSync，渲染线程每帧非阻塞查询，栅栏到达后槽位才回到空闲，GPU读取中的槽位不会被覆盖
+ * 2. 孤立模式（不支持持久映射或videoplayer.pboPersistent=false时）：渲染线程预先为空闲槽位glBufferData孤立旧存储并映射，把映射区交给帧处理线程直接写入；
+ *    上传时解除映射再拷贝到纹理，槽位回到空闲（未映射），下一次uploadLatest重新孤立并映射。
+ *    渲染线程不再整帧memCopy，由驱动负责同步，不需要栅栏
+ * 就绪槽位只保留最新一帧：新帧发布时未上传的旧帧直接回到空闲
+ * 创建/上传/销毁仅渲染线程调用；acquireForWrite/publish/cancel由帧处理线程调用
+ */
+public final class PboUploadRing {
+    private static final int FREE = 0;
+    private static final int WRITING = 1;
+    private static final int READY = 2;
+    private static final int UPLOADING = 3;
+
+    /**
+     * 一个槽位：PBO名称 + 写入目标（映射区；孤立模式下未映射时为null）
+     */
+    public static final class Slot {
+        private final int pbo;
+        private ByteBuffer memory;
+        private int state = FREE;
+        private long fence = 0;
+
+        private Slot(int pbo, ByteBuffer memory) {
+            this.pbo = pbo;
+            this.memory = memory;
+        }
+
+        /**
+         * 写入目标：position=0，limit=帧大小
+         */
+        public ByteBuffer buffer() {
+            return memory.clear();
+        }
+    }
+
+    private final Slot[] slots;
+    private final int width;
+    private final int height;
+    private final int frameBytes;
+    private final boolean persistent;
+    private int writersActive = 0;
+    private boolean closed = false;
+
+    private PboUploadRing(Slot[] slots, int width, int height, boolean persistent) {
+        this.slots = slots;
+        this.width = width;
+        this.height = height;
+        this.frameBytes = width * height * 4;
+        this.persistent = persistent;
+    }
+
+    /**
+     * 创建PBO环（渲染线程），失败时返回null（调用方继续使用客户端内存上传）
+     */
+    public static PboUploadRing create(int width, int height, int slotCount) {
+        GLCapabilities caps = GL.getCapabilities();
+        boolean persistent = VideoPlayerConfig.pboPersistentMapping && (caps.OpenGL44 || caps.GL_ARB_buffer_storage);
+        long frameBytes = (long) width * height * 4;
+        Slot[] slots = new Slot[Math.max(2, slotCount)];
+        int created = 0;
+        try {
+            for (; created < slots.length; created++) {
+                int pbo = GL15.glGenBuffers();
+                GL15.glBindBuffer(GL21.GL_PIXEL_UNPACK_BUFFER, pbo);
+                ByteBuffer memory;
+                if (persistent) {
+                    int flags = GL30.GL_MAP_WRITE_BIT | GL44.GL_MAP_PERSISTENT_BIT | GL44.GL_MAP_COHERENT_BIT;
+                    GL44.glBufferStorage(GL21.GL_PIXEL_UNPACK_BUFFER, frameBytes, flags);
+                    memory = GL30.glMapBufferRange(GL21.GL_PIXEL_UNPACK_BUFFER, 0, frameBytes, flags);
+                } else {
+                    memory = orphanAndMap(frameBytes);
+                }
+                if (memory == null) {
+                    GL15.glDeleteBuffers(pbo);
+                    throw new IllegalStateException("PBO映射失败");
+                }
+                slots[created] = new Slot(pbo, memory);
+            }
+            int error = GL11.glGetError();
+            if (error != GL11.GL_NO_ERROR) {
+                throw new IllegalStateException("GL错误：" + error);
+            }
+        } catch (Exception e) {
+            System.err.println("[PboUploadRing] 创建失败，回退为客户端内存上传：" + e.getMessage());
+            for (int i = 0; i < created; i++) {
+                deleteSlot(slots[i]);
+            }
+            GL15.glBindBuffer(GL21.GL_PIXEL_UNPACK_BUFFER, 0);
+            return null;
+        }
+        GL15.glBindBuffer(GL21.GL_PIXEL_UNPACK_BUFFER, 0);
+        System.out.println("[PboUploadRing] 已创建" + slots.length + "个PBO（" + width + "x" + height + "），模式："
+                + (persistent ? "持久映射+栅栏" : "孤立重分配"));
+        return new PboUploadRing(slots, width, height, persistent);
+    }
+
+    /**
+     * 借出一个可写槽位（帧处理线程）：优先取已映射的空闲槽位，否则取代尚未上传的就绪帧；
+     * 全部槽位都在GPU读取中（或孤立模式下尚未重新映射）时返回null，调用方丢弃该帧
+     */
+    public synchronized Slot acquireForWrite() {
+        if (closed) {
+            return null;
+        }
+        Slot candidate = null;
+        for (Slot slot : slots) {
+            if (slot.state == FREE && slot.memory != null) {
+                candidate = slot;
+                break;
+            }
+            if (slot.state == READY) {
+                candidate = slot;
+            }
+        }
+        if (candidate == null) {
+            return null;
+        }
+        if (candidate.state == READY) {
+            // 就绪帧尚未上传即被更新的帧取代
+            PlaybackMetrics.recordSupersededFrameSkipped();
+        }
+        candidate.state = WRITING;
+        writersActive++;
+        return candidate;
+    }
+
+    /**
+     * 写入完成，发布为最新帧（帧处理线程）；更早的就绪帧回到空闲
+     */
+    public synchronized void publish(Slot slot) {
+        endWrite();
+        if (closed) {
+            slot.state = FREE;
+            return;
+        }
+        for (Slot other : slots) {
+            if (other != slot && other.state == READY) {
+                other.state = FREE;
+                PlaybackMetrics.recordSupersededFrameSkipped();
+            }
+        }
+        slot.state = READY;
+    }
+
+    /**
+     * 放弃写入（帧处理线程，如尺寸不符）
+     */
+    public synchronized void cancel(Slot slot) {
+        endWrite();
+        slot.state = FREE;
+    }
+
+    private void endWrite() {
+        writersActive--;
+        if (writersActive == 0) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * 是否有待上传的就绪帧
+     */
+    public synchronized boolean hasPendingFrame() {
+        for (Slot slot : slots) {
+            if (slot.state == READY) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 渲染线程：回收栅栏已到达的槽位，并把最新就绪帧从PBO拷贝到纹理
+     * 调用方已绑定目标纹理并设置好解包参数
+     * @param allocate 纹理尚未分配存储时为true（glTexImage2D），否则glTexSubImage2D
+     * @return 是否提交了一次上传
+     */
+    public boolean uploadLatest(boolean allocate) {
+        if (persistent) {
+            reclaimSignaledSlots();
+        } else {
+            mapFreeSlots();
+        }
+        Slot slot;
+        synchronized (this) {
+            slot = null;
+            for (Slot candidate : slots) {
+                if (candidate.state == READY) {
+                    slot = candidate;
+                    break;
+                }
+            }
+            if (slot == null || closed) {
+                return false;
+            }
+            slot.state = UPLOADING;
+        }
+
+        GL15.glBindBuffer(GL21.GL_PIXEL_UNPACK_BUFFER, slot.pbo);
+        boolean submitted = false;
+        try {
+            if (!persistent) {
+                // 帧处理线程已写完映射区：解除映射后PBO才能作为拷贝源；映射区交还驱动，槽位待重新孤立映射
+                synchronized (this) {
+                    slot.memory = null;
+                }
+                if (!GL15.glUnmapBuffer(GL21.GL_PIXEL_UNPACK_BUFFER)) {
+                    // 映射期间存储内容丢失（如显示模式切换），丢弃该帧
+                    return false;
+                }
+            }
+            // 像素指针为PBO内偏移0
+            if (allocate) {
+                GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA8, width, height, 0,
+                        GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, 0L);
+            } else {
+                GL11.glTexSubImage2D(GL11.GL_TEXTURE_2D, 0, 0, 0, width, height,
+                        GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, 0L);
+            }
+            synchronized (this) {
+                if (persistent) {
+                    slot.fence = GL32.glFenceSync(GL32.GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+                } else {
+                    slot.state = FREE;
+                }
+            }
+            submitted = true;
+            return true;
+        } finally {
+            GL15.glBindBuffer(GL21.GL_PIXEL_UNPACK_BUFFER, 0);
+            if (!submitted) {
+                // 上传失败：槽位没有栅栏可等，直接回到空闲
+                synchronized (this) {
+                    slot.state = FREE;
+                }
+            }
+        }
+    }
+
+    // 孤立模式：为未映射的空闲槽位孤立旧存储（驱动分配新存储，不等待GPU读完上一帧）并映射，交给帧处理线程写入
+    private void mapFreeSlots() {
+        boolean bound = false;
+        for (Slot slot : slots) {
+            synchronized (this) {
+                if (closed || slot.state != FREE || slot.memory != null) {
+                    continue;
+                }
+            }
+            GL15.glBindBuffer(GL21.GL_PIXEL_UNPACK_BUFFER, slot.pbo);
+            bound = true;
+            ByteBuffer mapped = orphanAndMap(frameBytes);
+            if (mapped == null) {
+                // 映射失败：保持未映射，下一帧再试
+                continue;
+            }
+            synchronized (this) {
+                slot.memory = mapped;
+            }
+        }
+        if (bound) {
+            GL15.glBindBuffer(GL21.GL_PIXEL_UNPACK_BUFFER, 0);
+        }
+    }
+
+    // 调用方已绑定PBO
+    private static ByteBuffer orphanAndMap(long frameBytes) {
+        GL15.glBufferData(GL21.GL_PIXEL_UNPACK_BUFFER, frameBytes, GL15.GL_STREAM_DRAW);
+        return GL30.glMapBufferRange(GL21.GL_PIXEL_UNPACK_BUFFER, 0, frameBytes,
+                GL30.GL_MAP_WRITE_BIT | GL30.GL_MAP_INVALIDATE_BUFFER_BIT);
+    }
+
+    // 非阻塞查询栅栏，GPU已读完的槽位回到空闲
+    private void reclaimSignaledSlots() {
+        for (Slot slot : slots) {
+            long fence;
+            synchronized (this) {
+                if (slot.state != UPLOADING || slot.fence == 0) {
+                    continue;
+                }
+                fence = slot.fence;
+            }
+            int status = GL32.glClientWaitSync(fence, 0, 0L);
+            if (status == GL32.GL_ALREADY_SIGNALED || status == GL32.GL_CONDITION_SATISFIED || status == GL32.GL_WAIT_FAILED) {
+                GL32.glDeleteSync(fence);
+                synchronized (this) {
+                    slot.fence = 0;
+                    slot.state = FREE;
+                }
+            }
+        }
+    }
+
+    /**
+     * 销毁（渲染线程）：拒绝新的写入，等待正在写入映射区的帧处理线程完成后再解除映射并删除PBO
+     */
+    public void destroy() {
+        synchronized (this) {
+            closed = true;
+            long deadline = System.nanoTime() + 1_000_000_000L;
+            while (writersActive > 0) {
+                long remainingMs = (deadline - System.nanoTime()) / 1_000_000L;
+                if (remainingMs <= 0) {
+                    System.err.println("[PboUploadRing] 等待写入线程超时，强制释放");
+                    break;
+                }
+                try {
+                    wait(remainingMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        for (Slot slot : slots) {
+            if (slot.fence != 0) {
+                GL32.glDeleteSync(slot.fence);
+                slot.fence = 0;
+            }
+            deleteSlot(slot);
+        }
+        System.out.println("[PboUploadRing] PBO已释放");
+    }
+
+    // 两种模式下仍处于映射状态的槽位先解除映射
+    private static void deleteSlot(Slot slot) {
+        if (slot.memory != null) {
+            GL15.glBindBuffer(GL21.GL_PIXEL_UNPACK_BUFFER, slot.pbo);
+            GL15.glUnmapBuffer(GL21.GL_PIXEL_UNPACK_BUFFER);
+            GL15.glBindBuffer(GL21.GL_PIXEL_UNPACK_BUFFER, 0);
+            slot.memory = null;
+        }
+        GL15.glDeleteBuffers(slot.pbo);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean isPersistent() {
+        return persistent;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.videoplayer.render;
+
+import com.example.videoplayer.util.VideoPlayerConfig;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * ARGB像素（int[]）→ 上下翻转的RGBA字节转换内核（BufferedImage兼容路径使用）
+ * 1. 通过目标缓冲区的小端IntBuffer视图按整行批量写入：RGBA字节序在小端下即int值 A<<24|B<<16|G<<8|R，
+ *    每像素只需交换R/B两个字节（C2可自动向量化），不再逐字节put
+ * 2. 翻转按行进行：源第y行转换到行暂存区后整行写到目标第(h-1-y)行（绝对位置批量put，不移动position）
+ * 3. 大帧按行切分为条带，交给共享ForkJoinPool并行转换；条带任务与行暂存区按帧尺寸预分配，稳态零分配
+ * 同一实例同一时刻只能由一个线程调用convert
+ */
+final class RgbaFrameConverter {
+    // 像素数达到该值才并行（720p起），更小的帧调度开销大于收益
+    private static final int PARALLEL_MIN_PIXELS = 1280 * 720;
+    // 每个条带至少的行数
+    private static final int MIN_ROWS_PER_STRIPE = 64;
+    private static final ForkJoinPool POOL = createPool();
+
+    private final int width;
+    private final int height;
+    private final StripeTask[] stripes;
+    private final ConvertTask root;
+    private final StripeTask single;
+
+    RgbaFrameConverter(int width, int height) {
+        this.width = width;
+        this.height = height;
+        int stripeCount = (long) width * height >= PARALLEL_MIN_PIXELS
+                ? Math.max(1, Math.min(POOL.getParallelism(), height / MIN_ROWS_PER_STRIPE))
+                : 1;
+        this.stripes = new StripeTask[stripeCount];
+        int rowsPerStripe = (height + stripeCount - 1) / stripeCount;
+        for (int i = 0; i < stripeCount; i++) {
+            int fromRow = Math.min(height, i * rowsPerStripe);
+            int toRow = Math.min(height, fromRow + rowsPerStripe);
+            stripes[i] = new StripeTask(fromRow, toRow, new int[width]);
+        }
+        this.single = stripes[0];
+        this.root = new ConvertTask();
+    }
+
+    /**
+     * 转换整帧：argb为width*height个自上而下的ARGB像素，结果写入target的[0, width*height*4)，position=0，limit=帧大小
+     */
+    void convert(int[] argb, ByteBuffer target) {
+        target.clear().limit(width * height * 4);
+        IntBuffer view = target.duplicate().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        if (stripes.length == 1) {
+            convertRows(argb, view, single.row, 0, height);
+            return;
+        }
+        for (StripeTask stripe : stripes) {
+            stripe.reinitialize();
+            stripe.argb = argb;
+            stripe.target = view;
+        }
+        root.reinitialize();
+        POOL.invoke(root);
+    }
+
+    int getStripeCount() {
+        return stripes.length;
+    }
+
+    private void convertRows(int[] argb, IntBuffer target, int[] row, int fromRow, int toRow) {
+        for (int y = fromRow; y < toRow; y++) {
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                int pixel = argb[offset + x];
+                // 交换R/B：ARGB → 小端RGBA
+                row[x] = (pixel & 0xFF00FF00) | ((pixel >>> 16) & 0xFF) | ((pixel & 0xFF) << 16);
+            }
+            target.put((height - 1 - y) * width, row, 0, width);
+        }
+    }
+
+    private final class ConvertTask extends RecursiveAction {
+        @Override
+        protected void compute() {
+            invokeAll(stripes);
+        }
+    }
+
+    private final class StripeTask extends RecursiveAction {
+        final int fromRow;
+        final int toRow;
+        final int[] row;
+        int[] argb;
+        IntBuffer target;
+
+        StripeTask(int fromRow, int toRow, int[] row) {
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.row = row;
+        }
+
+        @Override
+        protected void compute() {
+            convertRows(argb, target, row, fromRow, toRow);
+            argb = null;
+            target = null;
+        }
+    }
+
+    private static ForkJoinPool createPool() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int parallelism = Math.max(1, Math.min(4, cores - Math.max(0, VideoPlayerConfig.reservedCores)));
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("VideoFrameConvert-Worker-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+}
@@ -0,0 +1,413 @@
+package com.example.videoplayer.render;
+
+import com.example.videoplayer.decoder.VideoFrame;
+import com.example.videoplayer.util.PlaybackMetrics;
+import com.example.videoplayer.util.VideoPlayerConfig;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.textures.AddressMode;
+import com.mojang.blaze3d.textures.FilterMode;
+import com.mojang.blaze3d.textures.GpuTexture;
+import com.mojang.blaze3d.textures.GpuTextureView;
+import com.mojang.blaze3d.textures.TextureFormat;
+import net.minecraft.client.texture.GlTexture;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 分块视频纹理：宽或高超过单张纹理上限（GL_MAX_TEXTURE_SIZE或配置的分块边长）的视频拆分为网格，
+ * 每块一张RGBA8纹理（YUV平面模式下为一组YuvPlaneTextures），VirtualTV按网格逐块绘制对应的子矩形；
+ * 启用上传时间预算时，未超限的视频也走本类（1x1网格），以便按预算分摊上传
+ * 1. 各块直接从整帧缓冲区上传：UNPACK_ROW_LENGTH取整帧宽度，SKIP_PIXELS/SKIP_ROWS定位子区域，无需拷贝
+ * 2. 按时间预算分条带上传：每个渲染帧在uploadBudgetMs内按行条带逐块上传，条带行数由UploadScheduler按实测耗时自适应，
+ *    一帧的上传可跨越多个渲染帧，单个渲染帧的上传耗时不再随分辨率增长
+ * 3. 双缓冲：条带写入后台纹理，整帧所有块上传完成后前后台一起交换，绘制只使用前台纹理，不会显示上传到一半的帧
+ * 4. 块纹理按首帧的像素布局（RGBA/YUV）延迟创建，布局变化时重建
+ * 5. 相邻块重叠：块纹理在与其他块相邻的边上多上传一圈邻块像素（RGBA 1像素；YUV 2像素，即色度1像素，保持色度对齐），
+ *    绘制时UV内缩到块本身的区域，线性过滤在块边缘采到的是真实邻块像素而不是CLAMP_TO_EDGE的边缘复制，消除半像素接缝；
+ *    画面外缘不扩展，效果与单张纹理一致
+ * 块坐标为帧缓冲区内的像素坐标：RGBA行序自下而上，YUV行序自上而下；块边长取偶数，保证色度平面对齐
+ * 全部方法仅渲染线程调用
+ */
+public final class TiledVideoTexture {
+    /**
+     * 一个分块：帧内像素区域（绘制区域）+ 含重叠边的纹理区域 + 该区域的前台（绘制）/后台（上传）纹理
+     */
+    public static final class Tile {
+        private final int x;
+        private final int y;
+        private final int width;
+        private final int height;
+        // 纹理覆盖的帧内区域：绘制区域向相邻块方向各扩展padding像素，随块纹理一起确定
+        private int texX;
+        private int texY;
+        private int texWidth;
+        private int texHeight;
+        private TileTextures front;
+        private TileTextures back;
+        private boolean ready = false;
+
+        private Tile(int x, int y, int width, int height) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            setPadding(0, x + width, y + height);
+        }
+
+        // 按重叠宽度确定纹理区域，帧边缘一侧不扩展
+        private void setPadding(int padding, int frameWidth, int frameHeight) {
+            texX = Math.max(0, x - padding);
+            texY = Math.max(0, y - padding);
+            texWidth = Math.min(frameWidth, x + width + padding) - texX;
+            texHeight = Math.min(frameHeight, y + height + padding) - texY;
+        }
+
+        /**
+         * 前台纹理是否已有完整的一帧（未就绪的块不绘制）
+         */
+        public boolean isReady() {
+            return ready;
+        }
+
+        public GpuTextureView getRgbaView() {
+            return front != null ? front.rgbaView : null;
+        }
+
+        public YuvPlaneTextures getYuvPlanes() {
+            return front != null ? front.yuvPlanes : null;
+        }
+
+        // 上传目标：双缓冲时为后台纹理，否则直接写前台
+        private TileTextures uploadTarget() {
+            return back != null ? back : front;
+        }
+
+        private void swap() {
+            if (back != null) {
+                TileTextures previous = front;
+                front = back;
+                back = previous;
+            }
+            ready = true;
+        }
+
+        private void closeTextures() {
+            if (front != null) {
+                front.close();
+                front = null;
+            }
+            if (back != null) {
+                back.close();
+                back = null;
+            }
+            ready = false;
+        }
+    }
+
+    /**
+     * 一块的一组纹理（RGBA或YUV三平面之一）
+     */
+    private static final class TileTextures {
+        private GpuTexture rgbaTexture;
+        private GpuTextureView rgbaView;
+        private YuvPlaneTextures yuvPlanes;
+
+        private static TileTextures create(Tile tile, boolean yuv, String label) {
+            TileTextures textures = new TileTextures();
+            try {
+                if (yuv) {
+                    textures.yuvPlanes = YuvPlaneTextures.create(tile.texWidth, tile.texHeight);
+                    if (textures.yuvPlanes == null) {
+                        throw new IllegalStateException("YUV平面纹理创建失败");
+                    }
+                } else {
+                    var device = RenderSystem.getDevice();
+                    textures.rgbaTexture = device.createTexture("videoplayer:video_tile_" + tile.x + "_" + tile.y + "_" + label, 5,
+                            TextureFormat.RGBA8, tile.texWidth, tile.texHeight, 1, 1);
+                    textures.rgbaTexture.setTextureFilter(FilterMode.LINEAR, false);
+                    textures.rgbaTexture.setAddressMode(AddressMode.CLAMP_TO_EDGE);
+                    textures.rgbaView = device.createTextureView(textures.rgbaTexture);
+                }
+            } catch (RuntimeException e) {
+                textures.close();
+                throw e;
+            }
+            return textures;
+        }
+
+        private void close() {
+            if (rgbaView != null) {
+                rgbaView.close();
+                rgbaView = null;
+            }
+            if (rgbaTexture != null) {
+                rgbaTexture.close();
+                rgbaTexture = null;
+            }
+            if (yuvPlanes != null) {
+                yuvPlanes.close();
+                yuvPlanes = null;
+            }
+        }
+    }
+
+    private final Tile[] tiles;
+    private final int width;
+    private final int height;
+    private final int columns;
+    private final int rows;
+    private final UploadScheduler scheduler = new UploadScheduler();
+    // 块纹理当前的像素布局，texturesCreated为false时尚未创建
+    private boolean yuv = false;
+    private boolean texturesCreated = false;
+    // 块纹理创建失败后不再逐帧重试
+    private boolean creationFailed = false;
+    // 当前帧的上传进度：块游标 + 块内行游标；passActive为false时没有进行中的帧
+    private int tileCursor = 0;
+    private int rowCursor = 0;
+    private boolean passActive = false;
+    private boolean passFailed = false;
+    private int passStripes = 0;
+
+    private TiledVideoTexture(int width, int height, int tileSize) {
+        this.width = width;
+        this.height = height;
+        this.columns = (width + tileSize - 1) / tileSize;
+        this.rows = (height + tileSize - 1) / tileSize;
+        this.tiles = new Tile[columns * rows];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int tileX = column * tileSize;
+                int tileY = row * tileSize;
+                tiles[row * columns + column] = new Tile(tileX, tileY,
+                        Math.min(tileSize, width - tileX), Math.min(tileSize, height - tileY));
+            }
+        }
+    }
+
+    /**
+     * 按块边长上限划分网格（块纹理在首次上传时创建）
+     */
+    public static TiledVideoTexture create(int width, int height, int maxTileSize) {
+        int tileSize = Math.max(2, maxTileSize & ~1);
+        TiledVideoTexture texture = new TiledVideoTexture(width, height, tileSize);
+        System.out.println("[TiledVideoTexture] 视频" + width + "x" + height + "划分为"
+                + texture.columns + "x" + texture.rows + "块（块边长" + tileSize + "），上传预算："
+                + (isBudgeted() ? VideoPlayerConfig.uploadBudgetMs + "ms/帧（双缓冲）" : "无（整帧一次上传）"));
+        return texture;
+    }
+
+    private static boolean isBudgeted() {
+        return VideoPlayerConfig.uploadBudgetMs > 0;
+    }
+
+    /**
+     * 开始上传新的一帧：从第一块第一行开始
+     */
+    public void beginFrame() {
+        tileCursor = 0;
+        rowCursor = 0;
+        passActive = true;
+        passFailed = false;
+        passStripes = 0;
+    }
+
+    /**
+     * 在本渲染帧的时间预算内继续上传当前帧（未启用预算时一次上传全部块），每次调用至少推进一个条带
+     * @param frame 直出帧（YUV帧必须提供，用于取平面布局与色彩参数），兼容模式为null
+     * @param pixels 整帧像素（RGBA）；YUV帧时忽略，直接使用frame的缓冲区
+     * @return 当前帧是否已上传完成（完成后前后台纹理已交换，调用方即可归还帧）
+     */
+    public boolean uploadNext(VideoFrame frame, ByteBuffer pixels) {
+        if (!passActive) {
+            return true;
+        }
+        boolean frameYuv = frame != null && frame.isYuv();
+        if (!ensureTextures(frameYuv)) {
+            passActive = false;
+            return true;
+        }
+        long budgetNanos = (long) (VideoPlayerConfig.uploadBudgetMs * 1_000_000L);
+        int rowAlignment = frameYuv ? 2 : 1;
+        long start = System.nanoTime();
+        int stripes = 0;
+        while (tileCursor < tiles.length) {
+            Tile tile = tiles[tileCursor];
+            // 每行字节数：RGBA 4字节/像素；YUV420P平均1.5字节/像素
+            long rowBytes = frameYuv ? tile.texWidth + tile.texWidth / 2 : tile.texWidth * 4L;
+            int rowCount = tile.texHeight - rowCursor;
+            if (budgetNanos > 0) {
+                long remaining = budgetNanos - (System.nanoTime() - start);
+                if (remaining <= 0 && stripes > 0) {
+                    break;
+                }
+                rowCount = Math.min(rowCount, scheduler.rowsWithin(Math.max(0, remaining), rowBytes, rowAlignment));
+            }
+            long stripeStart = System.nanoTime();
+            boolean uploaded = frameYuv
+                    ? tile.uploadTarget().yuvPlanes.uploadRows(frame, tile.texX, tile.texY, rowCursor, rowCount)
+                    : uploadRgbaRows(tile, pixels, rowCursor, rowCount);
+            scheduler.record(rowBytes * rowCount, System.nanoTime() - stripeStart);
+            passFailed |= !uploaded;
+            stripes++;
+            rowCursor += rowCount;
+            if (rowCursor >= tile.texHeight) {
+                tileCursor++;
+                rowCursor = 0;
+            }
+        }
+        passStripes += stripes;
+        PlaybackMetrics.recordTextureUpload(System.nanoTime() - start);
+        if (tileCursor < tiles.length) {
+            return false;
+        }
+
+        passActive = false;
+        if (passFailed) {
+            // 上传出错的帧不交换，继续显示上一帧
+            return true;
+        }
+        for (Tile tile : tiles) {
+            tile.swap();
+        }
+        PlaybackMetrics.recordUploadPass(passStripes);
+        return true;
+    }
+
+    private boolean uploadRgbaRows(Tile tile, ByteBuffer pixels, int rowOffset, int rowCount) {
+        if (pixels == null || pixels.capacity() < width * height * 4) {
+            return false;
+        }
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, ((GlTexture) tile.uploadTarget().rgbaTexture).getGlId());
+        GL11.glPixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
+        GL11.glPixelStorei(GL11.GL_UNPACK_ROW_LENGTH, width);
+        GL11.glPixelStorei(GL11.GL_UNPACK_SKIP_PIXELS, tile.texX);
+        GL11.glPixelStorei(GL11.GL_UNPACK_SKIP_ROWS, tile.texY + rowOffset);
+        try {
+            GL11.nglTexSubImage2D(GL11.GL_TEXTURE_2D, 0, 0, rowOffset, tile.texWidth, rowCount,
+                    GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, MemoryUtil.memAddress0(pixels));
+        } finally {
+            GL11.glPixelStorei(GL11.GL_UNPACK_ROW_LENGTH, 0);
+            GL11.glPixelStorei(GL11.GL_UNPACK_SKIP_PIXELS, 0);
+            GL11.glPixelStorei(GL11.GL_UNPACK_SKIP_ROWS, 0);
+            GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
+        }
+        int glError = GL11.glGetError();
+        if (glError != GL11.GL_NO_ERROR) {
+            System.err.println("[TiledVideoTexture] 分块上传错误：" + glError + "（块(" + tile.x + "," + tile.y + ")，行" + rowOffset + "）");
+            return false;
+        }
+        return true;
+    }
+
+    // 按像素布局创建（或重建）全部块纹理；启用上传预算时每块创建前后台两组
+    private boolean ensureTextures(boolean frameYuv) {
+        if (texturesCreated && yuv == frameYuv) {
+            return true;
+        }
+        if (creationFailed) {
+            return false;
+        }
+        closeTextures();
+        boolean doubleBuffered = isBudgeted();
+        // 只有一块时没有相邻块，不扩展
+        int padding = tiles.length == 1 ? 0 : (frameYuv ? 2 : 1);
+        try {
+            for (Tile tile : tiles) {
+                tile.setPadding(padding, width, height);
+                tile.front = TileTextures.create(tile, frameYuv, "a");
+                if (doubleBuffered) {
+                    tile.back = TileTextures.create(tile, frameYuv, "b");
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("[TiledVideoTexture] 创建分块纹理失败：" + e.getMessage());
+            closeTextures();
+            creationFailed = true;
+            return false;
+        }
+        yuv = frameYuv;
+        texturesCreated = true;
+        return true;
+    }
+
+    public int getTileCount() {
+        return tiles.length;
+    }
+
+    public Tile getTile(int index) {
+        return tiles[index];
+    }
+
+    public boolean isYuv() {
+        return yuv;
+    }
+
+    // 块在屏幕四边形内的位置（0~1，原点为屏幕左下角）
+    public float getTileLeft(int index) {
+        return (float) tiles[index].x / width;
+    }
+
+    public float getTileRight(int index) {
+        Tile tile = tiles[index];
+        return (float) (tile.x + tile.width) / width;
+    }
+
+    public float getTileBottom(int index) {
+        Tile tile = tiles[index];
+        // RGBA缓冲区首行为画面底部；YUV首行为画面顶部
+        return yuv ? 1.0f - (float) (tile.y + tile.height) / height : (float) tile.y / height;
+    }
+
+    public float getTileTop(int index) {
+        Tile tile = tiles[index];
+        return yuv ? 1.0f - (float) tile.y / height : (float) (tile.y + tile.height) / height;
+    }
+
+    // 块本身区域在块纹理内的UV（扣除重叠边）：V1对应四边形底边、V2对应顶边；
+    // YUV着色器的顶点阶段按1-V取纹理行（首行为画面顶部），因此YUV的V取镜像
+    public float getTileU1(int index) {
+        Tile tile = tiles[index];
+        return (float) (tile.x - tile.texX) / tile.texWidth;
+    }
+
+    public float getTileU2(int index) {
+        Tile tile = tiles[index];
+        return (float) (tile.x - tile.texX + tile.width) / tile.texWidth;
+    }
+
+    public float getTileV1(int index) {
+        Tile tile = tiles[index];
+        return yuv ? 1.0f - (float) (tile.y - tile.texY + tile.height) / tile.texHeight
+                : (float) (tile.y - tile.texY) / tile.texHeight;
+    }
+
+    public float getTileV2(int index) {
+        Tile tile = tiles[index];
+        return yuv ? 1.0f - (float) (tile.y - tile.texY) / tile.texHeight
+                : (float) (tile.y - tile.texY + tile.height) / tile.texHeight;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    private void closeTextures() {
+        for (Tile tile : tiles) {
+            tile.closeTextures();
+        }
+        texturesCreated = false;
+    }
+
+    public void close() {
+        closeTextures();
+        passActive = false;
+        System.out.println("[TiledVideoTexture] 分块纹理已释放");
+    }
+}
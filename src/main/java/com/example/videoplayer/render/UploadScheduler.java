@@ -0,0 +1,41 @@
+package com.example.videoplayer.render;
+
+/**
+ * 纹理上传时间预算调度：以实测上传耗时（指数平滑的纳秒/字节）估算本渲染帧剩余预算内还能上传多少行
+ * 条带行数随实测耗时自适应：驱动拷贝快时一帧内上传更多行（条带数少），慢时自动拆得更细
+ * 仅渲染线程使用
+ */
+final class UploadScheduler {
+    // 尚无测量值时的初始估计（约2GB/s）
+    private static final double INITIAL_NANOS_PER_BYTE = 0.5;
+    private static final double SMOOTHING = 0.2;
+    // 过小的上传以调用开销为主，不参与估算
+    private static final long MIN_SAMPLE_BYTES = 64 * 1024;
+
+    private double nanosPerByte = INITIAL_NANOS_PER_BYTE;
+
+    /**
+     * 剩余预算内可上传的行数（按rowAlignment向下取整，至少rowAlignment行，保证每帧都有进展）
+     */
+    int rowsWithin(long remainingNanos, long rowBytes, int rowAlignment) {
+        double rows = remainingNanos / (nanosPerByte * Math.max(1, rowBytes));
+        long aligned = (long) Math.min(rows, Integer.MAX_VALUE);
+        aligned -= aligned % rowAlignment;
+        return (int) Math.max(rowAlignment, aligned);
+    }
+
+    /**
+     * 记录一次上传的字节数与渲染线程实际耗时
+     */
+    void record(long bytes, long nanos) {
+        if (bytes < MIN_SAMPLE_BYTES || nanos <= 0) {
+            return;
+        }
+        double sample = (double) nanos / bytes;
+        nanosPerByte += SMOOTHING * (sample - nanosPerByte);
+    }
+
+    double getNanosPerByte() {
+        return nanosPerByte;
+    }
+}
@@ -2,20 +2,37 @@ package com.example.videoplayer.render;
 
 import com.example.videoplayer.VideoPlayerMod;
 import com.example.videoplayer.decoder.FFmpegVideoDecoder;
+import com.example.videoplayer.decoder.VideoFrame;
+import com.example.videoplayer.util.MasterClock;
+import com.example.videoplayer.util.PlaybackMetrics;
+import com.example.videoplayer.util.SpscRingBuffer;
+import org.lwjgl.system.MemoryUtil;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.util.math.Vec3d;
 
-import java.awt.Image;
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.nio.ByteBuffer;
-import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
 
 public class VideoRenderer {
     private final VideoPlayerMod mod;
-    private final ConcurrentLinkedDeque<BufferedImage> videoFrameQueue = new ConcurrentLinkedDeque<>();
-    private final Semaphore semaphore = new Semaphore(0);
-    private final ByteBuffer byteBuffer;
+    // 渲染线程→帧处理线程的单槽"最新者胜"信箱：帧处理线程来不及处理时，新帧取代旧帧（由帧处理线程在取帧时丢弃旧帧），
+    // 只有最终会显示的帧才做转换/上传；空闲时帧处理线程park，入队后unpark唤醒
+    private final SpscRingBuffer<VideoFrame> videoFrameQueue = new SpscRingBuffer<>(1, SpscRingBuffer.OverflowPolicy.OVERWRITE_LATEST,
+            superseded -> {
+                superseded.release();
+                PlaybackMetrics.recordSupersededFrameSkipped();
+            });
+    private final Thread frameProcessThread;
+    // 帧处理线程运行标志：cleanup()置为false后，帧处理线程（信箱的消费者）清空信箱并退出
+    private volatile boolean frameProcessing = true;
+    // 兼容模式双缓冲：frontBuffer为已发布待上传的帧，backBuffer供帧处理线程在锁外转换，转换完成后在frameLock内交换引用
+    private ByteBuffer frontBuffer;
     private final Object videoTexture;
     private final int videoWidth;
     private final int videoHeight;
@@ -30,13 +47,30 @@ public class VideoRenderer {
     // 新增：帧就绪同步（核心解决异步数据撕裂）
     private volatile boolean isFrameReady = false; // 帧是否就绪（可用于纹理更新）
     private final Object frameLock = new Object(); // 帧同步锁
-    private ByteBuffer frameByteBuffer; // 新增：专用帧缓冲区，避免复用导致的指针混乱
+    private ByteBuffer backBuffer;
+    // 待上传的像素数据：兼容模式指向frontBuffer，直出模式直接指向解码器输出的RGBA（或YUV平面）缓冲区
+    private ByteBuffer uploadBuffer;
+    // 直出模式下uploadBuffer所属的池化帧，上传完成后归还
+    private VideoFrame uploadFrame;
+    // 分块纹理正在按预算分条带上传的帧（跨多个渲染帧持有，整帧上传完成后归还），仅在frameLock内访问
+    private VideoFrame tileFrame;
+    private ByteBuffer tileBuffer;
+    // 兼容模式：上传中的前缓冲被分块纹理接管期间顶替它的空闲缓冲区（延迟分配），上传完成后换回
+    private ByteBuffer spareBuffer;
+    // 兼容模式复用的缩放画布（TYPE_INT_ARGB，直接读取其像素数组）及ARGB→RGBA转换内核，避免每帧分配
+    private final BufferedImage scaledFrame;
+    private final int[] scaledPixels;
+    private final RgbaFrameConverter rgbaConverter;
 
     // VirtualTV集成
     private final VirtualTV virtualTV;
     private final net.minecraft.client.MinecraftClient mc = net.minecraft.client.MinecraftClient.getInstance();
-    // 新增：音频进度锚点（记录上一次渲染对应的音频进度，避免重复渲染）
-    private double lastAudioProgress = 0.0;
+    // 主时钟零点（流时间基，微秒）：主时钟 = 零点 + 主时钟播放进度
+    private long clockOriginUs = VideoFrame.NO_PTS;
+    // 帧呈现所跟随的主时钟
+    private volatile MasterClock masterClock;
+    // PTS晚于主时钟、等待呈现的帧（仅渲染线程访问）
+    private VideoFrame pendingFrame;
     // 每帧对应的音频时长（秒/帧），基于视频帧率计算
     private double secondsPerFrame;
 
@@ -50,101 +84,173 @@ public class VideoRenderer {
 
         this.textureWidth = videoWidth;
         this.textureHeight = videoHeight;
-        // 修改：不再复用单个ByteBuffer，改为每次帧处理创建新缓冲区（避免指针偏移累积）
-        this.byteBuffer = ByteBuffer.allocateDirect(textureWidth * textureHeight * 4);
-        this.frameByteBuffer = ByteBuffer.allocateDirect(textureWidth * textureHeight * 4);
+        this.frontBuffer = ByteBuffer.allocateDirect(textureWidth * textureHeight * 4);
+        this.backBuffer = ByteBuffer.allocateDirect(textureWidth * textureHeight * 4);
+        this.scaledFrame = new BufferedImage(textureWidth, textureHeight, BufferedImage.TYPE_INT_ARGB);
+        this.scaledPixels = ((DataBufferInt) scaledFrame.getRaster().getDataBuffer()).getData();
+        this.rgbaConverter = new RgbaFrameConverter(textureWidth, textureHeight);
         this.videoTexture = mod.genTexture(textureWidth, textureHeight);
 
         System.out.println("[VideoRenderer] 初始化：视频尺寸" + videoWidth + "x" + videoHeight +
                 "，纹理尺寸" + textureWidth + "x" + textureHeight + "，帧间隔" + frameIntervalMs + "ms，每帧音频时长" + secondsPerFrame + "秒");
 
-        new Thread(this::frameProcessLoop, "VideoFrameProcess-Thread").start();
+        this.frameProcessThread = new Thread(this::frameProcessLoop, "VideoFrameProcess-Thread");
+        this.frameProcessThread.start();
         this.virtualTV = new VirtualTV(mod, this);
     }
 
     // 原有frameProcessLoop方法保留
     private void frameProcessLoop() {
-        while (true) {
+        while (frameProcessing) {
             try {
-                semaphore.acquire();
-                while (!videoFrameQueue.isEmpty()) {
-                    BufferedImage frame = videoFrameQueue.poll();
-                    if (frame != null) {
-                        processFrameToByteBuffer(frame);
-                    }
+                VideoFrame frame = videoFrameQueue.poll();
+                if (frame == null) {
+                    LockSupport.park(this);
+                    continue;
+                }
+                if (frame.isDirect()) {
+                    publishDirectFrame(frame);
+                } else if (!videoFrameQueue.isEmpty()) {
+                    // 取出后又到达了更新的帧：当前帧不会被显示，跳过缩放与像素转换
+                    frame.release();
+                    PlaybackMetrics.recordSupersededFrameSkipped();
+                } else {
+                    processFrameToByteBuffer(frame.getImage());
                 }
             } catch (Exception e) {
                 System.err.println("[VideoRenderer] 帧处理异常：" + e.getMessage());
                 e.printStackTrace();
             }
         }
+        videoFrameQueue.drain(VideoFrame::release);
     }
 
-    // 原有processFrameToByteBuffer方法保留
-    // 你的原有方法，仅补充一行needUpload = true;
+    /**
+     * 直出模式：解码器已输出翻转好的RGBA（或YUV420P三平面），直接交给纹理上传，不做任何像素处理
+     */
+    private void publishDirectFrame(VideoFrame frame) {
+        if (frame.getWidth() != textureWidth || frame.getHeight() != textureHeight) {
+            System.err.println("[VideoRenderer] " + (frame.isYuv() ? "YUV" : "RGBA") + "帧尺寸" + frame.getWidth() + "x" + frame.getHeight()
+                    + "与纹理尺寸" + textureWidth + "x" + textureHeight + "不一致，跳过该帧");
+            frame.release();
+            return;
+        }
+        // YUV帧由渲染线程直接上传到三张平面纹理，不经过RGBA的PBO环
+        PboUploadRing ring = frame.isYuv() ? null : getWritableRing();
+        if (ring != null) {
+            // PBO路径：在本线程把帧拷进PBO后立即归还帧池，渲染线程只下发拷贝命令
+            PboUploadRing.Slot slot = ring.acquireForWrite();
+            if (slot != null) {
+                ByteBuffer pixels = frame.getPixels();
+                ByteBuffer target = slot.buffer();
+                int bytes = Math.min(pixels.remaining(), target.remaining());
+                MemoryUtil.memCopy(MemoryUtil.memAddress(pixels), MemoryUtil.memAddress(target), bytes);
+                frame.release();
+                ring.publish(slot);
+            } else {
+                // 全部槽位仍在GPU读取中：GPU已落后，丢弃该帧
+                frame.release();
+                PlaybackMetrics.recordSupersededFrameSkipped();
+            }
+            return;
+        }
+        synchronized (frameLock) {
+            // 尚未上传就被新帧覆盖的旧帧直接归还帧池
+            if (uploadFrame != null) {
+                uploadFrame.release();
+                PlaybackMetrics.recordSupersededFrameSkipped();
+            }
+            uploadFrame = frame;
+            uploadBuffer = frame.getPixels();
+            isFrameReady = true;
+            needUpload = true;
+        }
+    }
+
+    /**
+     * 兼容模式：缩放到画布 → 锁外转换为翻转后的RGBA写入后缓冲 → frameLock内交换前后缓冲引用并发布
+     * 渲染线程上传时同样持有frameLock，交换后不会再读取被换下的缓冲区，因此转换全程无需持锁
+     */
     private void processFrameToByteBuffer(BufferedImage frame) {
         if (frame == null) return;
-        BufferedImage scaledFrame = resizeImage(frame, textureWidth, textureHeight);
+        resizeImage(frame, scaledFrame);
+
+        PboUploadRing ring = getWritableRing();
+        if (ring != null) {
+            // PBO路径：直接转换进PBO映射区（两种模式下都不再经过CPU暂存区）
+            PboUploadRing.Slot slot = ring.acquireForWrite();
+            if (slot != null) {
+                rgbaConverter.convert(scaledPixels, slot.buffer());
+                ring.publish(slot);
+            } else {
+                PlaybackMetrics.recordSupersededFrameSkipped();
+            }
+            return;
+        }
 
-        int[] pixels = new int[textureWidth * textureHeight];
-        scaledFrame.getRGB(0, 0, textureWidth, textureHeight, pixels, 0, textureWidth);
+        ByteBuffer target = backBuffer;
+        rgbaConverter.convert(scaledPixels, target);
 
-        // 加锁：确保帧数据写入过程不被渲染线程打断
         synchronized (frameLock) {
-            // 重置帧缓冲区指针（避免偏移累积）
-            frameByteBuffer.clear();
-            // 修复：像素遍历顺序（从上到下，匹配OpenGL纹理坐标，解决从下到上花屏）
-            for (int h = 0; h < textureHeight; h++) {
-                for (int w = 0; w < textureWidth; w++) {
-                    // 原逻辑：h * textureWidth + w（从下到上），改为：(textureHeight - 1 - h) * textureWidth + w（从上到下）
-                    int pixel = pixels[(textureHeight - 1 - h) * textureWidth + w]; // 翻转Y轴，匹配OpenGL纹理
-                    frameByteBuffer.put((byte) ((pixel >> 16) & 0xFF)); // R
-                    frameByteBuffer.put((byte) ((pixel >> 8) & 0xFF));  // G
-                    frameByteBuffer.put((byte) (pixel & 0xFF));         // B
-                    frameByteBuffer.put((byte) ((pixel >> 24) & 0xFF)); // A
-                }
+            if (needUpload) {
+                // 上一帧尚未上传即被覆盖
+                PlaybackMetrics.recordSupersededFrameSkipped();
             }
-            // 固定缓冲区指针（flip()：将写模式转为读模式，position=0，limit=有效数据长度）
-            frameByteBuffer.flip();
-            // 拷贝到渲染缓冲区（避免帧处理线程与渲染线程直接竞争）
-            byteBuffer.clear();
-            byteBuffer.put(frameByteBuffer);
-            byteBuffer.flip();
-            // 标记帧就绪，允许纹理更新
+            backBuffer = frontBuffer;
+            frontBuffer = target;
+            uploadBuffer = target;
+            // 标记帧就绪，通知render()上传纹理
             isFrameReady = true;
-
-            // ========== 仅补充这1行！打通needUpload闭环（对应问题2） ==========
-            needUpload = true; // 帧数据准备完成，标记需要上传纹理，通知render()执行updateTexture
-            // ==================================================================
+            needUpload = true;
         }
     }
 
 
 
-    // 原有resizeImage方法保留
-    private BufferedImage resizeImage(BufferedImage originalImage, int targetWidth, int targetHeight) {
+    // 尺寸与本渲染器纹理一致的PBO环，不可用时返回null（走客户端内存上传）
+    private PboUploadRing getWritableRing() {
+        PboUploadRing ring = mod.getPboUploadRing();
+        if (ring == null || ring.getWidth() != textureWidth || ring.getHeight() != textureHeight) {
+            return null;
+        }
+        return ring;
+    }
+
+    // 等比缩放到复用画布（居中留黑边），直接drawImage缩放，不再经过getScaledInstance中间图
+    private void resizeImage(BufferedImage originalImage, BufferedImage outputImage) {
+        int targetWidth = outputImage.getWidth();
+        int targetHeight = outputImage.getHeight();
         float scaleX = (float) targetWidth / originalImage.getWidth();
         float scaleY = (float) targetHeight / originalImage.getHeight();
         float scale = Math.min(scaleX, scaleY);
 
         int newWidth = (int) (originalImage.getWidth() * scale);
         int newHeight = (int) (originalImage.getHeight() * scale);
-
-        Image resultingImage = originalImage.getScaledInstance(newWidth, newHeight, Image.SCALE_AREA_AVERAGING);
-        BufferedImage outputImage = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_ARGB);
         int x = (targetWidth - newWidth) / 2;
         int y = (targetHeight - newHeight) / 2;
-        outputImage.getGraphics().drawImage(resultingImage, x, y, null);
-        return outputImage;
+
+        Graphics2D graphics = outputImage.createGraphics();
+        try {
+            graphics.setComposite(AlphaComposite.Src);
+            if (newWidth != targetWidth || newHeight != targetHeight) {
+                graphics.setColor(new Color(0, 0, 0, 0));
+                graphics.fillRect(0, 0, targetWidth, targetHeight);
+            }
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(originalImage, x, y, newWidth, newHeight, null);
+        } finally {
+            graphics.dispose();
+        }
     }
 
-    // ========== 核心重构：基于OpenAL音频进度同步视频帧（抛弃固定间隔） ==========
+    // ========== 核心重构：基于PTS与主时钟调度视频帧（替代按帧率计数） ==========
     /**
-     * 以音频进度为唯一基准，计算并消费对应视频帧
+     * 以音频进度为主时钟，按帧PTS选择应呈现的视频帧
      * 逻辑：
-     * 1. 获取当前OpenAL音频播放进度（秒）
-     * 2. 计算当前应该渲染的视频帧索引（音频进度 / 每帧音频时长）
-     * 3. 消费视频帧直到对齐该索引，实现音视频精准同步
+     * 1. 主时钟 = 时钟零点 + 已播放音频时长，换算到流时间基（微秒）
+     * 2. 取出所有PTS ≤ 主时钟的帧，只保留最新一帧交给帧处理线程，更早的过期帧直接归还（不做任何转换）
+     * 3. PTS晚于主时钟的帧暂存为pendingFrame，等待时钟追上
+     * 可变帧率、29.97fps以及解码端丢帧都不会再累积漂移
      */
     public void updateFrame() {
         // 前置判断：播放器未初始化/未播放，直接返回
@@ -152,59 +258,137 @@ public class VideoRenderer {
             return;
         }
 
-        // 1. 获取当前OpenAL音频真实播放进度（硬件级，无累积误差）
-        double currentAudioProgress = mod.getPlaybackProgressInSeconds();
-        if (currentAudioProgress <= 0.0) {
+        // 1. 获取主时钟进度（音频/系统/服务端）
+        MasterClock clock = masterClock;
+        if (clock == null) {
             return;
         }
+        long progressUs = clock.getPositionUs();
+        if (progressUs == MasterClock.NOT_STARTED) {
+            // 首帧已解码：系统时钟由此开始计时；音频/服务端时钟仍需等待各自的数据源
+            if (pendingFrame == null) {
+                pendingFrame = videoDecoder.pollVideoFrame();
+            }
+            if (pendingFrame == null) {
+                return;
+            }
+            clock.onFirstFrame();
+            progressUs = clock.getPositionUs();
+            if (progressUs == MasterClock.NOT_STARTED) {
+                return;
+            }
+        }
 
-        // 2. 过滤无效进度（避免回退导致重复渲染）
-        if (currentAudioProgress < lastAudioProgress) {
-            lastAudioProgress = currentAudioProgress;
-            return;
+        // 2. 取出所有已到期的帧，只保留最新一帧
+        VideoFrame presentFrame = null;
+        while (videoDecoder.isDecoding()) {
+            VideoFrame frame = pendingFrame != null ? pendingFrame : videoDecoder.pollVideoFrame();
+            pendingFrame = null;
+            if (frame == null) {
+                break;
+            }
+            if (frame.hasPts() && clockOriginUs == VideoFrame.NO_PTS) {
+                // 时钟零点：优先取首个音频帧时间戳，无音频时以首个视频帧对齐当前进度
+                long audioStartUs = videoDecoder.getAudioStartTimestampUs();
+                clockOriginUs = audioStartUs != VideoFrame.NO_PTS ? audioStartUs : frame.getPtsUs() - progressUs;
+            }
+            if (frame.hasPts() && frame.getPtsUs() > clockOriginUs + progressUs) {
+                // 尚未到呈现时间
+                pendingFrame = frame;
+                break;
+            }
+            if (presentFrame != null) {
+                presentFrame.release();
+                PlaybackMetrics.recordStaleFrameDropped();
+            }
+            presentFrame = frame;
         }
 
-        // 3. 计算当前应该渲染的视频帧数量（已播放音频时长 / 每帧对应的音频时长）
-        long expectedFrameCount = (long) (currentAudioProgress / secondsPerFrame);
-        long lastFrameCount = (long) (lastAudioProgress / secondsPerFrame);
-
-        // 4. 消费视频帧直到对齐预期帧数量（核心：音视频时序绑定）
-        long framesToConsume = expectedFrameCount - lastFrameCount;
-        if (framesToConsume > 0) {
-            int consumedFrames = 0;
-            while (consumedFrames < framesToConsume && videoDecoder.isDecoding()) {
-                BufferedImage newFrame = videoDecoder.pollVideoFrame();
-                if (newFrame != null) {
-                    videoFrameQueue.offer(newFrame);
-                    semaphore.release();
-                    consumedFrames++;
-                } else {
-                    // 无帧可消费，跳出循环，等待下一次解码
-                    break;
-                }
+        if (clockOriginUs != VideoFrame.NO_PTS) {
+            videoDecoder.updateMasterClock(clockOriginUs + progressUs);
+        }
+
+        // 3. 交给帧处理线程，并记录音视频偏移
+        if (presentFrame != null) {
+            if (presentFrame.hasPts()) {
+                PlaybackMetrics.recordPresentedFrame((presentFrame.getPtsUs() - clockOriginUs - progressUs) / 1000);
             }
+            // 帧处理线程尚未取走的上一帧由其在取帧时丢弃；信箱的溢出槽位也被占用（帧处理线程长时间未取帧）时本帧被拒绝
+            VideoFrame rejected = videoFrameQueue.push(presentFrame);
+            if (rejected != null) {
+                rejected.release();
+                PlaybackMetrics.recordSupersededFrameSkipped();
+            }
+            LockSupport.unpark(frameProcessThread);
+        }
+    }
 
-            // 5. 更新音频进度锚点，记录本次渲染对应的进度
-            lastAudioProgress = currentAudioProgress;
+    /**
+     * 分块纹理：上一帧的全部条带上传完成后才接管下一帧，每个渲染帧在上传预算内推进，整帧完成（前后台纹理交换）后归还帧；
+     * 上传期间到达的新帧照常在uploadFrame中被更新的帧取代
+     * 兼容模式接管frontBuffer时用spareBuffer顶替，帧处理线程交换前后缓冲不会再轮到上传中的缓冲区
+     */
+    private void uploadTiles(TiledVideoTexture tiled) {
+        synchronized (frameLock) {
+            if (tileBuffer == null && isFrameReady && needUpload) {
+                needUpload = false;
+                isFrameReady = false;
+                tileFrame = uploadFrame;
+                tileBuffer = uploadBuffer;
+                uploadFrame = null;
+                if (tileFrame == null && tileBuffer == frontBuffer) {
+                    if (spareBuffer == null) {
+                        spareBuffer = ByteBuffer.allocateDirect(textureWidth * textureHeight * 4);
+                    }
+                    frontBuffer = spareBuffer;
+                    spareBuffer = null;
+                }
+                tiled.beginFrame();
+            }
+            if (tileBuffer == null) {
+                return;
+            }
+            if (mod.uploadTiles(tiled, tileFrame, tileBuffer)) {
+                releaseTileFrame();
+            }
+        }
+    }
 
-            // 6. 队列积压预警（调试用）
-//            if (videoFrameQueue.size() > 20) {
-//                System.out.println("[VideoRenderer] 视频帧队列积压，当前大小=" + videoFrameQueue.size() +
-//                        "，预期帧=" + expectedFrameCount + "，已消费=" + consumedFrames);
-//            }
+    // 整帧上传完成（或渲染器清理）：归还池化帧，兼容模式的缓冲区回到空闲（调用方持有frameLock）
+    private void releaseTileFrame() {
+        if (tileFrame != null) {
+            tileFrame.release();
+            tileFrame = null;
+        } else if (tileBuffer != null) {
+            spareBuffer = tileBuffer;
         }
+        tileBuffer = null;
     }
 
     // 修复：render方法中3D渲染的异常处理和逻辑
     public void render() {
+        if (videoTexture instanceof TiledVideoTexture tiled) {
+            uploadTiles(tiled);
+            return;
+        }
         // 第一步：纹理更新逻辑（移除display判断，避免跳过状态重置）
+        // PBO路径：回收GPU已读完的槽位并下发最新帧的拷贝命令（PBO环尚未创建时顺带创建）
+        boolean pboUploaded = mod.uploadFromPboRing(videoTexture);
         synchronized (frameLock) {
             if (isFrameReady && needUpload) {
                 // 1. 直接移除display相关判断，不再return，确保后续逻辑执行
                 needUpload = false; // 执行纹理更新后，标记为无需再上传
-                synchronized (byteBuffer) {
-                    // 2. 执行纹理更新（核心：将byteBuffer的帧数据更新到视频纹理）
-                    mod.updateTexture(videoTexture, textureWidth, textureHeight, byteBuffer);
+                // 2. 执行纹理更新（核心：将待上传帧数据更新到视频纹理）
+                // PBO环创建前发布的帧比刚经PBO上传的帧旧，直接丢弃
+                if (uploadFrame != null && uploadFrame.isYuv()) {
+                    mod.uploadYuvFrame(uploadFrame);
+                } else if (!pboUploaded) {
+                    mod.updateTexture(videoTexture, textureWidth, textureHeight, uploadBuffer);
+                }
+                // 上传完成（或已拷贝到中转缓冲区），归还池化帧
+                if (uploadFrame != null) {
+                    uploadFrame.release();
+                    uploadFrame = null;
                 }
                 // 3. 重置帧就绪标记，避免重复更新同一帧
                 isFrameReady = false;
@@ -236,11 +420,33 @@ public class VideoRenderer {
 
     // 原有cleanup方法保留
     public void cleanup() {
-        videoFrameQueue.clear();
+        // 信箱只能由其消费者清空：通知帧处理线程清空后退出，等待其结束后再释放待上传帧
+        frameProcessing = false;
+        LockSupport.unpark(frameProcessThread);
+        try {
+            frameProcessThread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (frameProcessThread.isAlive()) {
+            System.err.println("[VideoRenderer] 帧处理线程未在1秒内退出");
+        }
+        if (pendingFrame != null) {
+            pendingFrame.release();
+            pendingFrame = null;
+        }
+        synchronized (frameLock) {
+            if (uploadFrame != null) {
+                uploadFrame.release();
+                uploadFrame = null;
+            }
+            releaseTileFrame();
+            uploadBuffer = null;
+        }
         currentFrame = null;
         needUpload = false;
         lastRenderTime = 0;
-        lastAudioProgress = 0.0; // 重置音频进度锚点
+        clockOriginUs = VideoFrame.NO_PTS; // 重置主时钟零点
         System.out.println("[VideoRenderer] 资源已清理");
     }
 
@@ -249,6 +455,10 @@ public class VideoRenderer {
         this.videoDecoder = decoder;
     }
 
+    public void setMasterClock(MasterClock clock) {
+        this.masterClock = clock;
+    }
+
     // 原有getVideoTexture方法保留
     public Object getVideoTexture() {
         return videoTexture;
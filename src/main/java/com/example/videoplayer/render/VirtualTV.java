@@ -1,6 +1,8 @@
 package com.example.videoplayer.render;
 
 import com.example.videoplayer.VideoPlayerMod;
+import com.mojang.blaze3d.pipeline.RenderPipeline;
+import com.mojang.blaze3d.textures.GpuTextureView;
 import fi.dy.masa.malilib.render.MaLiLibPipelines;
 import fi.dy.masa.malilib.render.RenderContext;
 import net.minecraft.client.MinecraftClient;
@@ -68,12 +70,8 @@ public class VirtualTV {
         );
 
         // 2. 智能计算宽高（避免X/Z差值为0导致宽度为0）
-        float xDiff = (float) (maxPos.x - minPos.x);
-        float zDiff = (float) (maxPos.z - minPos.z);
-        // 优先用X轴差值作为宽度，若X轴无差值（如10→10），则用Z轴差值
-        this.screenWidth = Math.abs(xDiff) > 0.01f ? Math.abs(xDiff) : Math.abs(zDiff);
-        // 高度固定用Y轴差值
-        this.screenHeight = (float) Math.abs(maxPos.y - minPos.y);
+        this.screenWidth = computeScreenWidth(minPos, maxPos);
+        this.screenHeight = computeScreenHeight(minPos, maxPos);
         // Z轴偏移取maxPos的Z值（保证显示层次）
         this.screenOffsetZ = (float) (maxPos.z - minPos.z);
 
@@ -82,6 +80,22 @@ public class VirtualTV {
         updateScreenNormal();
     }
 
+    /**
+     * 按坐标范围计算屏幕宽度（格）：优先用X轴差值，若X轴无差值（如10→10），则用Z轴差值
+     */
+    public static float computeScreenWidth(Vec3d minPos, Vec3d maxPos) {
+        float xDiff = (float) (maxPos.x - minPos.x);
+        float zDiff = (float) (maxPos.z - minPos.z);
+        return Math.abs(xDiff) > 0.01f ? Math.abs(xDiff) : Math.abs(zDiff);
+    }
+
+    /**
+     * 按坐标范围计算屏幕高度（格）：固定用Y轴差值
+     */
+    public static float computeScreenHeight(Vec3d minPos, Vec3d maxPos) {
+        return (float) Math.abs(maxPos.y - minPos.y);
+    }
+
     // ========== 新增：设置旋转角度（与MC视角一致） ==========
     /**
      * 设置绕Y轴的旋转角度（MC视角）
@@ -134,7 +148,9 @@ public class VirtualTV {
     public void renderTvScreen(MatrixStack matrixStack) throws Exception {
         // 前置判断：1. 纹理无效 2. 相机在背面 → 不渲染
         int videoTextureId = mod.getVideoTextureGLId();
-        if (videoTextureId == -1 || mc.player == null || mc.world == null || mc.gameRenderer.getCamera() == null) {
+        // 分块纹理与YUV平面模式没有单张RGBA纹理，按各自的纹理判断
+        if ((videoTextureId == -1 && mod.getTiledVideoTexture() == null && mod.getYuvPlaneTextures() == null)
+                || mc.player == null || mc.world == null || mc.gameRenderer.getCamera() == null) {
             return;
         }
         // 关键：相机在屏幕背面时，直接返回，不渲染
@@ -205,11 +221,54 @@ public class VirtualTV {
                                     float u1, float v1, float u2, float v2,
                                     float r, float g, float b, float a,
                                     int textureId) throws Exception {
-        RenderSystem.setShaderTexture(0, mod.getGpuTextureView());
+        // 分块纹理：每块绘制为屏幕内对应的子矩形，UV内缩到块本身区域（块纹理含与邻块重叠的边）
+        TiledVideoTexture tiled = mod.getTiledVideoTexture();
+        if (tiled != null) {
+            for (int i = 0; i < tiled.getTileCount(); i++) {
+                TiledVideoTexture.Tile tile = tiled.getTile(i);
+                if (!tile.isReady()) {
+                    continue;
+                }
+                float left = tiled.getTileLeft(i);
+                float bottom = tiled.getTileBottom(i);
+                drawQuad(matrixStack,
+                        x + width * left, y + height * bottom, z,
+                        width * (tiled.getTileRight(i) - left), height * (tiled.getTileTop(i) - bottom),
+                        tiled.getTileU1(i), tiled.getTileV1(i), tiled.getTileU2(i), tiled.getTileV2(i),
+                        r, g, b, a,
+                        tile.getRgbaView(), tiled.isYuv() ? tile.getYuvPlanes() : null);
+            }
+            return;
+        }
+        drawQuad(matrixStack, x, y, z, width, height, u1, v1, u2, v2, r, g, b, a,
+                mod.getGpuTextureView(), mod.getYuvPlaneTextures());
+    }
+
+    // 绘制一个带纹理的四边形：yuvPlanes非空时三张平面纹理分别绑定到Sampler0~2，由着色器转换为RGB；否则绘制RGBA纹理
+    private void drawQuad(MatrixStack matrixStack,
+                          float x, float y, float z,
+                          float width, float height,
+                          float u1, float v1, float u2, float v2,
+                          float r, float g, float b, float a,
+                          GpuTextureView rgbaView, YuvPlaneTextures yuvPlanes) {
+        RenderPipeline pipeline;
+        GpuTextureView previousSampler1 = null;
+        GpuTextureView previousSampler2 = null;
+        if (yuvPlanes != null) {
+            previousSampler1 = RenderSystem.getShaderTexture(1);
+            previousSampler2 = RenderSystem.getShaderTexture(2);
+            RenderSystem.setShaderTexture(0, yuvPlanes.getView(0));
+            RenderSystem.setShaderTexture(1, yuvPlanes.getView(1));
+            RenderSystem.setShaderTexture(2, yuvPlanes.getView(2));
+            pipeline = yuvPlanes.getPipeline();
+        } else {
+            RenderSystem.setShaderTexture(0, rgbaView);
+            pipeline = MaLiLibPipelines.POSITION_TEX_COLOR_MASA_LEQUAL_DEPTH;
+        }
 
         RenderContext renderContext = new RenderContext(
                 () -> "tv_screen_textured_quad",
-                MaLiLibPipelines.POSITION_TEX_COLOR_MASA_LEQUAL_DEPTH
+                pipeline
         );
 
         BufferBuilder buffer = renderContext.getBuilder();
@@ -249,6 +308,11 @@ public class VirtualTV {
             System.out.println("Failed to render TV screen quad" + e);
         } finally {
             renderContext.close();
+            if (yuvPlanes != null) {
+                // 还原Sampler1/2（原版用于叠加层/光照贴图），平面纹理不残留在全局着色器纹理槽中
+                RenderSystem.setShaderTexture(1, previousSampler1);
+                RenderSystem.setShaderTexture(2, previousSampler2);
+            }
         }
     }
 
@@ -0,0 +1,176 @@
+package com.example.videoplayer.render;
+
+import com.example.videoplayer.decoder.VideoFrame;
+import com.mojang.blaze3d.pipeline.RenderPipeline;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.textures.AddressMode;
+import com.mojang.blaze3d.textures.FilterMode;
+import com.mojang.blaze3d.textures.GpuTexture;
+import com.mojang.blaze3d.textures.GpuTextureView;
+import com.mojang.blaze3d.textures.TextureFormat;
+import net.minecraft.client.texture.GlTexture;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.system.MemoryUtil;
+
+/**
+ * YUV420P三平面纹理：Y（宽×高）、U/V（各为宽/2×高/2）三张单通道RED8纹理，每像素上传1.5字节（RGBA为4字节）
+ * 色彩转换在YuvVideoPipelines的片元着色器中完成，CPU侧不再做任何像素转换
+ * 也可作为TiledVideoTexture的一个分块，从更大的帧中按行条带上传子区域（区域起点与条带起始行须为偶数，保证色度平面对齐）
+ * 创建/上传/关闭仅渲染线程调用
+ */
+public final class YuvPlaneTextures {
+    private static final String[] PLANE_NAMES = {"y", "u", "v"};
+
+    private final GpuTexture[] textures = new GpuTexture[3];
+    private final GpuTextureView[] views = new GpuTextureView[3];
+    private final int width;
+    private final int height;
+    // 最近一次上传帧的色彩参数，决定绘制时使用的管线
+    private int colorMatrix = VideoFrame.MATRIX_BT601;
+    private boolean fullRange = false;
+    private boolean hasFrame = false;
+
+    private YuvPlaneTextures(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * 创建三张平面纹理，失败时返回null
+     */
+    public static YuvPlaneTextures create(int width, int height) {
+        YuvPlaneTextures planes = new YuvPlaneTextures(width, height);
+        try {
+            var device = RenderSystem.getDevice();
+            for (int i = 0; i < 3; i++) {
+                int planeWidth = i == 0 ? width : VideoFrame.chromaWidth(width);
+                int planeHeight = i == 0 ? height : VideoFrame.chromaHeight(height);
+                GpuTexture texture = device.createTexture("videoplayer:video_plane_" + PLANE_NAMES[i], 5,
+                        TextureFormat.RED8, planeWidth, planeHeight, 1, 1);
+                texture.setTextureFilter(FilterMode.LINEAR, false);
+                texture.setAddressMode(AddressMode.CLAMP_TO_EDGE);
+                planes.textures[i] = texture;
+                planes.views[i] = device.createTextureView(texture);
+            }
+        } catch (Exception e) {
+            System.err.println("[YuvPlaneTextures] 创建平面纹理失败：" + e.getMessage());
+            planes.close();
+            return null;
+        }
+        System.out.println("[YuvPlaneTextures] 已创建YUV420P平面纹理：" + width + "x" + height);
+        return planes;
+    }
+
+    /**
+     * 上传一帧的三个平面（调用方持有帧引用，上传完成后由调用方release）
+     * @return 是否上传成功
+     */
+    public boolean upload(VideoFrame frame) {
+        if (frame.getWidth() != width || frame.getHeight() != height) {
+            return false;
+        }
+        return uploadRows(frame, 0, 0, 0, height);
+    }
+
+    /**
+     * 从帧中以(x, y)为起点（帧内像素坐标，自上而下）的子区域上传第[rowOffset, rowOffset+rowCount)行
+     * rowOffset须为偶数；rowCount为奇数时只能是子区域的最后一个条带
+     * @return 是否上传成功
+     */
+    public boolean uploadRows(VideoFrame frame, int x, int y, int rowOffset, int rowCount) {
+        int frameWidth = frame.getWidth();
+        int frameHeight = frame.getHeight();
+        if (!frame.isYuv() || ((x | y | rowOffset) & 1) != 0 || rowCount <= 0 || rowOffset + rowCount > height
+                || x + width > frameWidth || y + height > frameHeight) {
+            return false;
+        }
+        long address = MemoryUtil.memAddress0(frame.getPixels());
+        int frameChromaWidth = VideoFrame.chromaWidth(frameWidth);
+        long lumaBytes = (long) frameWidth * frameHeight;
+        long chromaBytes = (long) frameChromaWidth * VideoFrame.chromaHeight(frameHeight);
+
+        // 平面行紧密排列，宽度可能为奇数，按1字节对齐解包；行长取整帧平面宽度，子区域由SKIP偏移定位
+        GL11.glPixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
+        try {
+            uploadPlane(0, frameWidth, x, y + rowOffset, rowOffset, width, rowCount, address);
+            int chromaWidth = VideoFrame.chromaWidth(width);
+            int chromaRowOffset = rowOffset / 2;
+            int chromaRowEnd = rowOffset + rowCount >= height ? VideoFrame.chromaHeight(height) : (rowOffset + rowCount) / 2;
+            int chromaSkipRows = (y + rowOffset) / 2;
+            uploadPlane(1, frameChromaWidth, x / 2, chromaSkipRows, chromaRowOffset, chromaWidth,
+                    chromaRowEnd - chromaRowOffset, address + lumaBytes);
+            uploadPlane(2, frameChromaWidth, x / 2, chromaSkipRows, chromaRowOffset, chromaWidth,
+                    chromaRowEnd - chromaRowOffset, address + lumaBytes + chromaBytes);
+        } finally {
+            GL11.glPixelStorei(GL11.GL_UNPACK_ROW_LENGTH, 0);
+            GL11.glPixelStorei(GL11.GL_UNPACK_SKIP_ROWS, 0);
+            GL11.glPixelStorei(GL11.GL_UNPACK_SKIP_PIXELS, 0);
+            GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
+        }
+        int glError = GL11.glGetError();
+        if (glError != GL11.GL_NO_ERROR) {
+            System.err.println("[YuvPlaneTextures] 平面纹理上传错误：" + glError);
+            return false;
+        }
+        colorMatrix = frame.getColorMatrix();
+        fullRange = frame.isFullRange();
+        hasFrame = true;
+        return true;
+    }
+
+    private void uploadPlane(int plane, int rowLength, int skipPixels, int skipRows, int yOffset,
+                             int planeWidth, int planeRows, long address) {
+        if (planeRows <= 0) {
+            return;
+        }
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, ((GlTexture) textures[plane]).getGlId());
+        GL11.glPixelStorei(GL11.GL_UNPACK_ROW_LENGTH, rowLength);
+        GL11.glPixelStorei(GL11.GL_UNPACK_SKIP_PIXELS, skipPixels);
+        GL11.glPixelStorei(GL11.GL_UNPACK_SKIP_ROWS, skipRows);
+        GL11.nglTexSubImage2D(GL11.GL_TEXTURE_2D, 0, 0, yOffset, planeWidth, planeRows,
+                GL11.GL_RED, GL11.GL_UNSIGNED_BYTE, address);
+    }
+
+    /**
+     * 是否已上传过至少一帧（此前绘制仍使用RGBA纹理）
+     */
+    public boolean hasFrame() {
+        return hasFrame;
+    }
+
+    /**
+     * 平面纹理视图：0=Y，1=U，2=V
+     */
+    public GpuTextureView getView(int plane) {
+        return views[plane];
+    }
+
+    /**
+     * 与最近一帧色彩矩阵/取值范围匹配的绘制管线
+     */
+    public RenderPipeline getPipeline() {
+        return YuvVideoPipelines.get(colorMatrix, fullRange);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public void close() {
+        for (int i = 0; i < 3; i++) {
+            if (views[i] != null) {
+                views[i].close();
+                views[i] = null;
+            }
+            if (textures[i] != null) {
+                textures[i].close();
+                textures[i] = null;
+            }
+        }
+        hasFrame = false;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.videoplayer.render;
+
+import com.example.videoplayer.decoder.VideoFrame;
+import com.mojang.blaze3d.pipeline.RenderPipeline;
+import com.mojang.blaze3d.platform.DepthTestFunction;
+import com.mojang.blaze3d.shaders.UniformType;
+import net.minecraft.client.gl.RenderPipelines;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+import net.minecraft.util.Identifier;
+
+/**
+ * YUV420P三平面 → RGB的着色器管线（assets/videoplayer/shaders/core/yuv_video）
+ * 色彩矩阵（BT.601/709）与取值范围（limited/full）通过着色器宏区分，共4条管线，
+ * 顶点格式、深度测试与malilib的POSITION_TEX_COLOR_MASA_LEQUAL_DEPTH一致，可直接替换VirtualTV的绘制管线
+ */
+public final class YuvVideoPipelines {
+    private static final Identifier SHADER = Identifier.of("videoplayer", "core/yuv_video");
+    // 下标：色彩矩阵 * 2 + (全范围 ? 1 : 0)
+    private static final RenderPipeline[] PIPELINES = {
+            create("bt601_limited", false, false),
+            create("bt601_full", false, true),
+            create("bt709_limited", true, false),
+            create("bt709_full", true, true)
+    };
+
+    private YuvVideoPipelines() {
+    }
+
+    /**
+     * 模组初始化时调用：触发类加载，使管线在资源重载时随原版管线一起预编译
+     */
+    public static void register() {
+        System.out.println("[YuvVideoPipelines] 已注册" + PIPELINES.length + "条YUV着色器管线");
+    }
+
+    public static RenderPipeline get(int colorMatrix, boolean fullRange) {
+        int matrixIndex = colorMatrix == VideoFrame.MATRIX_BT709 ? 1 : 0;
+        return PIPELINES[matrixIndex * 2 + (fullRange ? 1 : 0)];
+    }
+
+    private static RenderPipeline create(String name, boolean bt709, boolean fullRange) {
+        RenderPipeline.Builder builder = RenderPipeline.builder()
+                .withLocation(Identifier.of("videoplayer", "pipeline/yuv_video_" + name))
+                .withVertexShader(SHADER)
+                .withFragmentShader(SHADER)
+                .withUniform("DynamicTransforms", UniformType.UNIFORM_BUFFER)
+                .withUniform("Projection", UniformType.UNIFORM_BUFFER)
+                .withSampler("Sampler0")
+                .withSampler("Sampler1")
+                .withSampler("Sampler2")
+                .withVertexFormat(VertexFormats.POSITION_TEXTURE_COLOR, VertexFormat.DrawMode.QUADS)
+                .withDepthTestFunction(DepthTestFunction.LEQUAL_DEPTH_TEST)
+                .withCull(false);
+        if (bt709) {
+            builder.withShaderDefine("YUV_MATRIX_BT709");
+        }
+        if (fullRange) {
+            builder.withShaderDefine("YUV_FULL_RANGE");
+        }
+        return RenderPipelines.register(builder.build());
+    }
+}
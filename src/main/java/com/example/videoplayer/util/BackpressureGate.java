@@ -0,0 +1,73 @@
+package com.example.videoplayer.util;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 生产者/消费者背压闸门：生产者在条件成立时阻塞，消费者消费后按需唤醒，替代sleep轮询
+ * 消费者只在确有生产者等待时才加锁signal，常态下消费路径只多一次volatile读
+ * 等待标记先于条件检查写入、消费者先更新水位再读等待标记（均为volatile），不会丢失唤醒；
+ * 另设最长等待时间兜底，等待条件依赖多个消费者时也能按时重新检查
+ */
+public final class BackpressureGate {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition drained = lock.newCondition();
+    private volatile boolean producerWaiting = false;
+    private volatile boolean closed = false;
+
+    /**
+     * 生产者：mustWait成立时阻塞，直到消费者唤醒且mustWait不再成立、闸门关闭或超过maxWaitNanos
+     * @return true表示条件已解除，false表示超时或闸门已关闭
+     */
+    public boolean await(BooleanSupplier mustWait, long maxWaitNanos) throws InterruptedException {
+        if (closed || !mustWait.getAsBoolean()) {
+            return !closed;
+        }
+        long remaining = maxWaitNanos;
+        lock.lockInterruptibly();
+        try {
+            producerWaiting = true;
+            while (!closed && mustWait.getAsBoolean()) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = drained.awaitNanos(remaining);
+            }
+            return !closed;
+        } finally {
+            producerWaiting = false;
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 消费者：消费后调用，canResume为生产者可以继续的条件（已降到低水位）
+     */
+    public void signalIfWaiting(boolean canResume) {
+        if (producerWaiting && canResume) {
+            signalAll();
+        }
+    }
+
+    private void signalAll() {
+        lock.lock();
+        try {
+            drained.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 关闭闸门并唤醒所有等待者（停止播放时调用），之后await立即返回
+     */
+    public void close() {
+        closed = true;
+        signalAll();
+    }
+
+    public boolean isProducerWaiting() {
+        return producerWaiting;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.videoplayer.util;
+
+/**
+ * 播放主时钟：视频帧按此时钟的位置呈现，解码端据此判断帧是否过期
+ * 实现：音频时钟（OpenAL硬件采样数）、系统单调时钟（无音频时）、服务端下发位置（多客户端对齐）
+ * getPositionUs可由任意线程调用，不得阻塞
+ */
+public interface MasterClock {
+    // 时钟尚未开始走动（渲染端此时不呈现任何帧）
+    long NOT_STARTED = -1L;
+
+    /**
+     * 自播放开始以来的位置（微秒），尚未开始时返回NOT_STARTED
+     */
+    long getPositionUs();
+
+    /**
+     * 首个视频帧可呈现时调用；由外部数据源驱动的时钟（音频/服务端）忽略
+     */
+    default void onFirstFrame() {
+    }
+
+    String getName();
+}
@@ -0,0 +1,142 @@
+package com.example.videoplayer.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 播放运行指标（全局单例，解码/渲染/音频各线程写入，任意线程读取）
+ * 每次开始播放时reset()，停止时输出getSummary()
+ */
+public final class PlaybackMetrics {
+    // 音视频偏移（毫秒）：最近一次呈现帧的PTS - 主时钟，负数表示视频落后
+    private static volatile long avOffsetMs = 0;
+    // 呈现时因已过期而直接丢弃（未做任何转换）的帧数
+    private static final AtomicLong staleFramesDropped = new AtomicLong();
+    private static final AtomicLong framesPresented = new AtomicLong();
+    // 呈现阶段被更新帧取代、未转换/未上传即丢弃的帧数（latest-wins）
+    private static final AtomicLong supersededFramesSkipped = new AtomicLong();
+    // 解码降级级别（0=正常解码，3=仅关键帧）及累计切换次数
+    private static volatile int degradationLevel = 0;
+    private static final AtomicLong degradationLevelChanges = new AtomicLong();
+    // 音频欠载次数：OpenAL源开始播放后队列被播空（每次断流计一次）
+    private static final AtomicLong audioUnderruns = new AtomicLong();
+    // 自适应抖动缓冲：目标延迟、实际缓冲水位（毫秒）及当前播放速率（漂移修正）
+    private static volatile long jitterTargetMs = 0;
+    private static volatile long audioBufferedMs = 0;
+    private static volatile float audioPitch = 1.0f;
+    // 按时间预算分条带上传：单个渲染帧内的纹理上传耗时峰值（纳秒）及最近一帧视频拆分的条带数
+    private static final AtomicLong peakUploadNanos = new AtomicLong();
+    private static volatile int lastUploadStripes = 0;
+
+    private PlaybackMetrics() {
+    }
+
+    public static void reset() {
+        avOffsetMs = 0;
+        staleFramesDropped.set(0);
+        framesPresented.set(0);
+        supersededFramesSkipped.set(0);
+        degradationLevel = 0;
+        degradationLevelChanges.set(0);
+        audioUnderruns.set(0);
+        jitterTargetMs = 0;
+        audioBufferedMs = 0;
+        audioPitch = 1.0f;
+        peakUploadNanos.set(0);
+        lastUploadStripes = 0;
+    }
+
+    public static void recordPresentedFrame(long offsetMs) {
+        avOffsetMs = offsetMs;
+        framesPresented.incrementAndGet();
+    }
+
+    public static void recordStaleFrameDropped() {
+        staleFramesDropped.incrementAndGet();
+    }
+
+    public static void recordSupersededFrameSkipped() {
+        supersededFramesSkipped.incrementAndGet();
+    }
+
+    public static void recordDegradationLevel(int level) {
+        degradationLevel = level;
+        degradationLevelChanges.incrementAndGet();
+    }
+
+    public static void recordAudioUnderrun() {
+        audioUnderruns.incrementAndGet();
+    }
+
+    public static void recordJitterBuffer(long targetMs, long bufferedMs, float pitch) {
+        jitterTargetMs = targetMs;
+        audioBufferedMs = bufferedMs;
+        audioPitch = pitch;
+    }
+
+    public static void recordTextureUpload(long nanos) {
+        peakUploadNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public static void recordUploadPass(int stripes) {
+        lastUploadStripes = stripes;
+    }
+
+    public static long getAvOffsetMs() {
+        return avOffsetMs;
+    }
+
+    public static long getStaleFramesDropped() {
+        return staleFramesDropped.get();
+    }
+
+    public static long getFramesPresented() {
+        return framesPresented.get();
+    }
+
+    public static long getSupersededFramesSkipped() {
+        return supersededFramesSkipped.get();
+    }
+
+    public static int getDegradationLevel() {
+        return degradationLevel;
+    }
+
+    public static long getDegradationLevelChanges() {
+        return degradationLevelChanges.get();
+    }
+
+    public static long getAudioUnderruns() {
+        return audioUnderruns.get();
+    }
+
+    public static long getJitterTargetMs() {
+        return jitterTargetMs;
+    }
+
+    public static long getAudioBufferedMs() {
+        return audioBufferedMs;
+    }
+
+    public static float getAudioPitch() {
+        return audioPitch;
+    }
+
+    public static long getPeakUploadNanos() {
+        return peakUploadNanos.get();
+    }
+
+    public static int getLastUploadStripes() {
+        return lastUploadStripes;
+    }
+
+    public static String getSummary() {
+        return "已呈现帧=" + framesPresented.get()
+                + "，过期丢弃帧=" + staleFramesDropped.get()
+                + "，被取代跳过帧=" + supersededFramesSkipped.get()
+                + "，音视频偏移=" + avOffsetMs + "ms"
+                + "，解码降级级别=" + degradationLevel + "（切换" + degradationLevelChanges.get() + "次）"
+                + "，音频欠载=" + audioUnderruns.get() + "次"
+                + "，抖动缓冲目标/实际=" + jitterTargetMs + "/" + audioBufferedMs + "ms，播放速率=" + String.format("%.4f", audioPitch)
+                + "，单帧上传耗时峰值=" + String.format("%.2f", peakUploadNanos.get() / 1_000_000.0) + "ms（每帧" + lastUploadStripes + "个条带）";
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.videoplayer.util;
+
+/**
+ * 服务端下发的主时钟：服务端定期告知当前播放位置，两次更新之间按本地单调时钟外推
+ * 多个客户端跟随同一服务端位置，画面进度保持一致；收到首次更新前不呈现帧
+ * 新位置落后于外推值不多时保持不动（不回退），落后过多（服务端跳转）时直接采用
+ */
+public final class ServerMasterClock implements MasterClock {
+    // 外推值领先新位置超过该值时视为跳转，允许时钟回退
+    private static final long MAX_HOLD_BACK_US = 1_000_000L;
+
+    private static final class Sample {
+        final long positionUs;
+        final long receivedAtNanos;
+
+        Sample(long positionUs, long receivedAtNanos) {
+            this.positionUs = positionUs;
+            this.receivedAtNanos = receivedAtNanos;
+        }
+
+        long positionAt(long nowNanos) {
+            return positionUs + Math.max(0, nowNanos - receivedAtNanos) / 1_000L;
+        }
+    }
+
+    private volatile Sample sample;
+
+    /**
+     * 服务端播放位置更新（网络线程或主线程调用）
+     * @param positionUs 自播放开始以来的位置（微秒）
+     */
+    public synchronized void update(long positionUs) {
+        long now = System.nanoTime();
+        Sample previous = sample;
+        if (previous != null) {
+            long extrapolated = previous.positionAt(now);
+            if (positionUs < extrapolated && extrapolated - positionUs <= MAX_HOLD_BACK_US) {
+                // 网络延迟导致的小幅落后：以外推值为准，避免画面回跳
+                positionUs = extrapolated;
+            }
+        }
+        sample = new Sample(Math.max(0, positionUs), now);
+    }
+
+    @Override
+    public long getPositionUs() {
+        Sample current = sample;
+        return current == null ? NOT_STARTED : current.positionAt(System.nanoTime());
+    }
+
+    @Override
+    public String getName() {
+        return "server";
+    }
+}
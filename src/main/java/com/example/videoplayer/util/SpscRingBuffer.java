@@ -0,0 +1,152 @@
+package com.example.videoplayer.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 有界单生产者/单消费者无锁环形队列（替代ConcurrentLinkedDeque+ReentrantLock）
+ * 1. size()为O(1)：尾指针-头指针
+ * 2. 并发约定：尾指针与槽位写入只由生产者线程执行，头指针只由消费者线程推进，两侧都是有序写（lazySet），
+ *    热路径没有CAS；poll/peek/drain只能由消费者线程调用（或在消费者线程停止之后调用）
+ * 3. 队满策略：REJECT=拒绝新元素；DROP_OLDEST=保留最新capacity个元素；OVERWRITE_LATEST=以新元素替换原最新元素
+ *    后两种策略由消费者侧执行丢弃：生产者可多写入一个溢出槽位，消费者取数前把超出capacity的元素交给dropHandler；
+ *    溢出槽位也已占用（消费者长时间未取数）时，push拒绝新元素
+ * 被拒绝的元素由push返回、被丢弃的元素交给dropHandler，调用方负责释放（如VideoFrame.release()）
+ */
+public class SpscRingBuffer<T> {
+    public enum OverflowPolicy {
+        REJECT,
+        DROP_OLDEST,
+        OVERWRITE_LATEST
+    }
+
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+    private final int capacity;
+    // 生产者可写入的元素上限：REJECT为capacity，其余策略多一个溢出槽位
+    private final int limit;
+    private final OverflowPolicy policy;
+    private final Consumer<? super T> dropHandler;
+    // 头指针：下一个待消费位置（仅消费者写）；尾指针：下一个待写入位置（仅生产者写）
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    public SpscRingBuffer(int capacity, OverflowPolicy policy) {
+        this(capacity, policy, element -> { });
+    }
+
+    /**
+     * @param dropHandler 消费者侧丢弃元素的回调（在消费者线程上执行）
+     */
+    public SpscRingBuffer(int capacity, OverflowPolicy policy, Consumer<? super T> dropHandler) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("容量必须大于0：" + capacity);
+        }
+        this.capacity = capacity;
+        this.policy = policy;
+        this.dropHandler = dropHandler;
+        this.limit = policy == OverflowPolicy.REJECT ? capacity : capacity + 1;
+        int slotCount = 1;
+        while (slotCount < limit) {
+            slotCount <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(slotCount);
+        this.mask = slotCount - 1;
+    }
+
+    /**
+     * 生产者入队
+     * @return 被拒绝的元素（REJECT队满，或溢出槽位也已占用时为传入元素本身），入队成功返回null
+     */
+    public T push(T element) {
+        if (element == null) {
+            throw new NullPointerException("不允许入队null");
+        }
+        long t = tail.get();
+        if (t - head.get() >= limit) {
+            return element;
+        }
+        slots.lazySet((int) (t & mask), element);
+        tail.lazySet(t + 1);
+        return null;
+    }
+
+    /**
+     * 消费者出队，空队列返回null
+     */
+    public T poll() {
+        long h = trimOverflow();
+        if (h >= tail.get()) {
+            return null;
+        }
+        int index = (int) (h & mask);
+        T element = slots.get(index);
+        slots.lazySet(index, null);
+        head.lazySet(h + 1);
+        return element;
+    }
+
+    /**
+     * 消费者查看队头元素（不出队）
+     */
+    public T peek() {
+        long h = trimOverflow();
+        return h < tail.get() ? slots.get((int) (h & mask)) : null;
+    }
+
+    // 消费者侧执行溢出丢弃，返回丢弃后的头指针
+    private long trimOverflow() {
+        long h = head.get();
+        long t = tail.get();
+        while (t - h > capacity) {
+            T dropped;
+            if (policy == OverflowPolicy.OVERWRITE_LATEST) {
+                // 丢弃原最新元素（t-2），更早的元素整体后移一位，最新元素（t-1）保留在末尾；
+                // [h, t)均已发布，生产者只会写t及之后的槽位，移动期间不会冲突
+                long replaced = t - 2;
+                dropped = slots.get((int) (replaced & mask));
+                for (long p = replaced; p > h; p--) {
+                    slots.lazySet((int) (p & mask), slots.get((int) ((p - 1) & mask)));
+                }
+            } else {
+                dropped = slots.get((int) (h & mask));
+            }
+            slots.lazySet((int) (h & mask), null);
+            h++;
+            head.lazySet(h);
+            dropHandler.accept(dropped);
+        }
+        return h;
+    }
+
+    /**
+     * 消费者依次取出所有元素并交给回调（用于清空时释放资源）
+     */
+    public void drain(Consumer<T> consumer) {
+        T element;
+        while ((element = poll()) != null) {
+            consumer.accept(element);
+        }
+    }
+
+    /**
+     * 逻辑占用数（不含待消费者丢弃的溢出元素），任意线程可调用
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public boolean isEmpty() {
+        return tail.get() <= head.get();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+}
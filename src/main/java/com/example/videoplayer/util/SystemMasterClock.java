@@ -0,0 +1,32 @@
+package com.example.videoplayer.util;
+
+/**
+ * 系统单调时钟（System.nanoTime）：无音频或禁用音频时的主时钟
+ * 首个视频帧可呈现时开始计时，之后按墙钟匀速前进
+ */
+public final class SystemMasterClock implements MasterClock {
+    // 开始计时的纳秒时刻，0=未开始
+    private volatile long startNanos = 0;
+
+    @Override
+    public long getPositionUs() {
+        long start = startNanos;
+        if (start == 0) {
+            return NOT_STARTED;
+        }
+        return Math.max(0, System.nanoTime() - start) / 1_000L;
+    }
+
+    @Override
+    public synchronized void onFirstFrame() {
+        if (startNanos == 0) {
+            // nanoTime可能恰为0，避开哨兵值
+            startNanos = System.nanoTime() | 1L;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "system";
+    }
+}
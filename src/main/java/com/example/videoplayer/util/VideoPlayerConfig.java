@@ -0,0 +1,124 @@
+package com.example.videoplayer.util;
+
+/**
+ * 播放器运行参数（可通过JVM参数 -Dvideoplayer.xxx=值 覆盖默认值）
+ */
+public final class VideoPlayerConfig {
+    // 视频帧输出模式：direct=FFmpeg直接输出RGBA到堆外缓冲区；bufferedimage=原BufferedImage兼容路径；
+    // yuv=包级流水线输出YUV420P三平面（1.5字节/像素），由着色器转换为RGB（混合抓取路径仍为RGBA）
+    public static final String FRAME_MODE_DIRECT = "direct";
+    public static final String FRAME_MODE_YUV = "yuv";
+    public static final String FRAME_MODE_BUFFERED_IMAGE = "bufferedimage";
+
+    public static volatile String frameMode = System.getProperty("videoplayer.frameMode", FRAME_MODE_DIRECT).toLowerCase();
+
+    // 解码流水线：packet=解复用与音视频解码分线程；mixed=原单线程grabFrame混合抓取
+    public static final String PIPELINE_PACKET = "packet";
+    public static final String PIPELINE_MIXED = "mixed";
+
+    public static volatile String pipelineMode = System.getProperty("videoplayer.pipeline", PIPELINE_PACKET).toLowerCase();
+    // 包队列缓冲时长上限（毫秒）
+    public static volatile long videoPacketBufferMs = Long.getLong("videoplayer.videoPacketBufferMs", 2000L);
+    public static volatile long audioPacketBufferMs = Long.getLong("videoplayer.audioPacketBufferMs", 2000L);
+
+    // 视频解码线程：auto=CPU核数-保留核数，或固定数字；可按格式覆盖（videoplayer.decodeThreads.m3u8等）
+    public static volatile String decodeThreads = System.getProperty("videoplayer.decodeThreads", "auto");
+    // 线程类型：frame / slice / frame+slice，留空则按格式取默认值
+    public static volatile String decodeThreadType = System.getProperty("videoplayer.decodeThreadType", "");
+    // auto模式下为游戏主线程/渲染线程保留的核数
+    public static volatile int reservedCores = Integer.getInteger("videoplayer.reservedCores", 2);
+
+    // 解码输出分辨率上限：屏幕每格（方块）最多多少像素，0=不限制（按源分辨率输出）
+    public static volatile int maxPixelsPerBlock = Integer.getInteger("videoplayer.maxPixelsPerBlock", 256);
+
+    // 音频转换是否使用Vector API内核（还需JVM参数 --add-modules jdk.incubator.vector，否则自动使用标量实现）
+    public static volatile boolean vectorAudioKernels = Boolean.parseBoolean(System.getProperty("videoplayer.vectorAudio", "true"));
+
+    // 音频转换模式：java=解码原始格式后Java侧转换/下混；swresample=FFmpeg直接输出目标采样率/声道数的交错PCM
+    // （OpenAL支持AL_EXT_FLOAT32且floatAudioOutput开启时为交错float，否则为交错S16）
+    public static final String AUDIO_MODE_JAVA = "java";
+    public static final String AUDIO_MODE_SWRESAMPLE = "swresample";
+
+    public static volatile String audioMode = System.getProperty("videoplayer.audioMode", AUDIO_MODE_JAVA).toLowerCase();
+    // swresample模式下的输出采样率，0=保持源采样率
+    public static volatile int audioOutputSampleRate = Integer.getInteger("videoplayer.audioSampleRate", 0);
+    // 音频供给线程的缓冲区补充间隔（毫秒），独立于20Hz客户端tick
+    public static volatile long audioFeedIntervalMs = Long.getLong("videoplayer.audioFeedIntervalMs", 5L);
+    // 送入OpenAL的音频块时长（毫秒），解码帧先拼接为该时长的块再入队
+    public static volatile long audioChunkMs = Long.getLong("videoplayer.audioChunkMs", 40L);
+    // AL_EXT_FLOAT32可用时以交错float输出音频（跳过S16量化），false则始终S16
+    public static volatile boolean floatAudioOutput = Boolean.parseBoolean(System.getProperty("videoplayer.floatAudio", "true"));
+    // 自适应抖动缓冲：初始目标延迟（HLS分片到达突发性更强，初始值更大）及目标范围（毫秒）
+    public static volatile long jitterInitialMs = Long.getLong("videoplayer.jitterInitialMs", 500L);
+    public static volatile long jitterInitialHlsMs = Long.getLong("videoplayer.jitterInitialHlsMs", 2000L);
+    public static volatile long jitterMinMs = Long.getLong("videoplayer.jitterMinMs", 200L);
+    public static volatile long jitterMaxMs = Long.getLong("videoplayer.jitterMaxMs", 6000L);
+    // 漂移修正的最大播放速率偏移（0.005=±0.5%），0为关闭
+    public static volatile float maxPitchCorrection = Float.parseFloat(System.getProperty("videoplayer.maxPitchCorrection", "0.005"));
+
+    // 纹理上传模式：pbo=PBO环异步上传（支持时持久映射，否则孤立重分配）；sync=渲染线程从客户端内存同步上传
+    public static final String UPLOAD_MODE_PBO = "pbo";
+    public static final String UPLOAD_MODE_SYNC = "sync";
+
+    public static volatile String uploadMode = System.getProperty("videoplayer.uploadMode", UPLOAD_MODE_PBO).toLowerCase();
+    // PBO环槽位数（2~3）
+    public static volatile int pboRingSize = Integer.getInteger("videoplayer.pboRingSize", 3);
+    // 驱动支持时使用持久映射（GL 4.4 / ARB_buffer_storage）；false=强制孤立模式（排查驱动问题或测试孤立路径）
+    public static volatile boolean pboPersistentMapping = Boolean.parseBoolean(System.getProperty("videoplayer.pboPersistent", "true"));
+    // 分块纹理：单块边长上限（另受GPU的GL_MAX_TEXTURE_SIZE限制），视频宽或高超过时拆分为多块纹理，0=仅按GPU上限拆分
+    public static volatile int maxTileSize = Integer.getInteger("videoplayer.maxTileSize", 4096);
+    // 纹理上传时间预算（毫秒/渲染帧）：客户端内存上传（sync模式、YUV平面模式、分块纹理）按行条带分摊到多个渲染帧，
+    // 条带写入后台纹理、整帧完成后与前台交换；0=整帧一次上传（不分摊、不双缓冲）
+    // 默认0（需显式开启）：开启后未超限的视频也改走双缓冲的1x1分块纹理，纹理显存翻倍，且该路径尚未在真实GL驱动上验证
+    public static volatile float uploadBudgetMs = Float.parseFloat(System.getProperty("videoplayer.uploadBudgetMs", "0"));
+
+    // 是否解码/播放音频：false时抓取器完全丢弃音频流（不解码、不创建OpenAL播放器），适合无声的广告屏
+    public static volatile boolean audioEnabled = Boolean.parseBoolean(System.getProperty("videoplayer.audio", "true"));
+
+    // 主时钟：auto=有音频时用音频时钟，否则系统时钟；audio / system / server=服务端下发的播放位置
+    // （server需要服务端插件定期发送同步包，收到首个同步包前不呈现帧）
+    public static final String CLOCK_AUTO = "auto";
+    public static final String CLOCK_AUDIO = "audio";
+    public static final String CLOCK_SYSTEM = "system";
+    public static final String CLOCK_SERVER = "server";
+
+    public static volatile String masterClock = System.getProperty("videoplayer.masterClock", CLOCK_AUTO).toLowerCase();
+
+    private VideoPlayerConfig() {
+    }
+
+    public static boolean isDirectFrameMode() {
+        return !FRAME_MODE_BUFFERED_IMAGE.equals(frameMode);
+    }
+
+    public static boolean isYuvFrameMode() {
+        return FRAME_MODE_YUV.equals(frameMode);
+    }
+
+    public static boolean isNativeAudioResample() {
+        return AUDIO_MODE_SWRESAMPLE.equals(audioMode);
+    }
+
+    public static boolean isPboUpload() {
+        return UPLOAD_MODE_PBO.equals(uploadMode);
+    }
+
+    /**
+     * 客户端内存上传路径（sync模式或YUV平面模式）是否按时间预算分摊：是则未超限的视频也走分块纹理（1x1网格）
+     */
+    public static boolean isBudgetedUpload() {
+        return uploadBudgetMs > 0 && (!isPboUpload() || isYuvFrameMode());
+    }
+
+    /**
+     * 视频是否会使用分块纹理（TiledVideoTexture）：按上传预算或maxTileSize判断；
+     * GPU的GL_MAX_TEXTURE_SIZE只有渲染线程可查询，不在此判断（默认块边长4096不超过常见GPU上限）
+     */
+    public static boolean isTiledTexture(int width, int height) {
+        return isBudgetedUpload() || (maxTileSize > 0 && (width > maxTileSize || height > maxTileSize));
+    }
+
+    public static boolean isPacketPipeline() {
+        return PIPELINE_PACKET.equals(pipelineMode);
+    }
+}
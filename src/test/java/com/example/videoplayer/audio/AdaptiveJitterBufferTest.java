@@ -0,0 +1,102 @@
+package com.example.videoplayer.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.LongUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveJitterBufferTest {
+    private static final long STEP_NANOS = 10_000_000L;
+    private static final long SECOND_NANOS = 1_000_000_000L;
+
+    private long now = 0;
+
+    // 每10ms采样一次水位，持续seconds秒；level为相对起始时间（毫秒）的水位函数
+    private void run(AdaptiveJitterBuffer buffer, double seconds, LongUnaryOperator level) {
+        long start = now;
+        long end = now + (long) (seconds * SECOND_NANOS);
+        while (now < end) {
+            buffer.observe(level.applyAsLong((now - start) / 1_000_000L), now);
+            now += STEP_NANOS;
+        }
+    }
+
+    // HLS式锯齿：每个分片到达时水位跳到峰值，随后线性播放到谷值
+    private static LongUnaryOperator sawtooth(long troughMs, long peakMs, long periodMs) {
+        return t -> peakMs - (peakMs - troughMs) * (t % periodMs) / periodMs;
+    }
+
+    @Test
+    void burstyArrivalRaisesTargetAfterOneWindow() {
+        AdaptiveJitterBuffer buffer = new AdaptiveJitterBuffer(200, 100, 3000, 0.01f);
+        run(buffer, 2.05, sawtooth(0, 1000, 1000));
+        // 深度约1000ms → 目标 = 深度/2 + 深度/4
+        assertTrue(buffer.getTargetMs() >= 740 && buffer.getTargetMs() <= 750, "目标=" + buffer.getTargetMs());
+    }
+
+    @Test
+    void targetShrinksSlowlyOnlyAfterFullObservationPeriod() {
+        AdaptiveJitterBuffer buffer = new AdaptiveJitterBuffer(1000, 100, 3000, 0.01f);
+        // 平稳水位：29秒内（不足15个窗口）不收缩
+        run(buffer, 29, t -> 500);
+        assertEquals(1000, buffer.getTargetMs());
+
+        // 第15个窗口结束：每窗口最多降低5%
+        run(buffer, 1.05, t -> 500);
+        assertEquals(950, buffer.getTargetMs());
+        run(buffer, 2, t -> 500);
+        assertEquals(903, buffer.getTargetMs());
+
+        // 长时间平稳后收敛到下限（余量80ms与minTarget中的较大者）
+        run(buffer, 300, t -> 500);
+        assertEquals(100, buffer.getTargetMs());
+    }
+
+    @Test
+    void underrunGrowsTargetAndRestartsObservation() {
+        AdaptiveJitterBuffer buffer = new AdaptiveJitterBuffer(200, 100, 3000, 0.01f);
+        buffer.onUnderrun();
+        assertEquals(200 * 3 / 2 + 80, buffer.getTargetMs());
+        assertEquals(0, buffer.getSmoothedLevelMs());
+
+        // 目标不超过上限
+        for (int i = 0; i < 10; i++) {
+            buffer.onUnderrun();
+        }
+        assertEquals(3000, buffer.getTargetMs());
+    }
+
+    @Test
+    void pitchSpeedsUpAboveTargetAndSlowsDownBelow() {
+        AdaptiveJitterBuffer buffer = new AdaptiveJitterBuffer(500, 100, 3000, 0.005f);
+        buffer.setDriftCorrection(true);
+
+        run(buffer, 5, t -> 1500);
+        assertTrue(buffer.getPitch() > 1.0f, "水位高于目标应加速：" + buffer.getPitch());
+        assertTrue(buffer.getPitch() <= 1.005f);
+
+        now += 60 * SECOND_NANOS;
+        AdaptiveJitterBuffer low = new AdaptiveJitterBuffer(1000, 100, 3000, 0.005f);
+        low.setDriftCorrection(true);
+        run(low, 5, t -> 200);
+        assertTrue(low.getPitch() < 1.0f, "水位低于目标应减速：" + low.getPitch());
+        assertTrue(low.getPitch() >= 0.995f);
+    }
+
+    @Test
+    void pitchStaysNeutralInsideDeadbandOrWhenDisabled() {
+        AdaptiveJitterBuffer buffer = new AdaptiveJitterBuffer(500, 100, 3000, 0.005f);
+        buffer.setDriftCorrection(true);
+        // 死区 = max(40ms, 目标的10%) = 50ms
+        run(buffer, 5, t -> 540);
+        assertEquals(1.0f, buffer.getPitch());
+
+        run(buffer, 5, t -> 1500);
+        assertNotEquals(1.0f, buffer.getPitch());
+        buffer.setDriftCorrection(false);
+        assertEquals(1.0f, buffer.getPitch());
+        run(buffer, 1, t -> 1500);
+        assertEquals(1.0f, buffer.getPitch());
+    }
+}
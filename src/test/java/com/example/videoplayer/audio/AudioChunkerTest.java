@@ -0,0 +1,115 @@
+package com.example.videoplayer.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AudioChunkerTest {
+    // 48kHz立体声S16：每采样帧4字节，20ms块 = 960帧 = 3840字节
+    private static final int SAMPLE_RATE = 48_000;
+    private static final int BYTES_PER_FRAME = 4;
+
+    private final PcmBufferPool pool = new PcmBufferPool(8);
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private final List<Long> timestamps = new ArrayList<>();
+    private final AudioChunker.ChunkSink collect = (chunk, timestampUs) -> {
+        chunks.add(chunk);
+        timestamps.add(timestampUs);
+        return true;
+    };
+
+    // 以递增字节填充的源缓冲区（从pool借出，与解码器一致），便于校验拼接顺序
+    private ByteBuffer source(int frames, int firstByte) {
+        ByteBuffer buffer = pool.acquire(frames * BYTES_PER_FRAME);
+        for (int i = 0; i < buffer.limit(); i++) {
+            buffer.put(i, (byte) (firstByte + i));
+        }
+        return buffer;
+    }
+
+    @Test
+    void chunkSizeFollowsChunkDuration() {
+        AudioChunker chunker = new AudioChunker(SAMPLE_RATE, BYTES_PER_FRAME, 20, pool);
+        assertEquals(3840, chunker.getChunkBytes());
+        assertEquals(20.0, chunker.getChunkDurationMs(), 1e-9);
+    }
+
+    @Test
+    void framesAreConcatenatedIntoContiguousChunks() {
+        AudioChunker chunker = new AudioChunker(SAMPLE_RATE, BYTES_PER_FRAME, 20, pool);
+        // 3个1024采样的AAC帧 = 3072帧 → 3个完整块（2880帧），余192帧留在未满块中
+        int firstByte = 0;
+        int accepted = 0;
+        for (int f = 0; f < 3; f++) {
+            accepted += chunker.append(source(1024, firstByte), AudioChunker.NO_TIMESTAMP, collect);
+            firstByte += 1024 * BYTES_PER_FRAME;
+        }
+        assertEquals(3, accepted);
+        assertEquals(3, chunks.size());
+
+        int expected = 0;
+        for (ByteBuffer chunk : chunks) {
+            assertEquals(0, chunk.position());
+            assertEquals(3840, chunk.limit());
+            for (int i = 0; i < chunk.limit(); i++) {
+                assertEquals((byte) expected++, chunk.get(i));
+            }
+        }
+    }
+
+    @Test
+    void chunkTimestampIsOffsetWithinSourceFrame() {
+        AudioChunker chunker = new AudioChunker(SAMPLE_RATE, BYTES_PER_FRAME, 20, pool);
+        // 2000帧（约41.7ms）：第1块从0开始，第2块从第960帧（20ms）开始
+        chunker.append(source(2000, 0), 1_000_000, collect);
+        assertEquals(List.of(1_000_000L, 1_020_000L), timestamps);
+
+        // 剩余80帧所在的块以上一源帧中的偏移为起点，跨源帧后时间戳不变
+        chunker.append(source(1000, 0), 1_041_667, collect);
+        assertEquals(1_040_000L, timestamps.get(2));
+    }
+
+    @Test
+    void unknownTimestampIsPropagated() {
+        AudioChunker chunker = new AudioChunker(SAMPLE_RATE, BYTES_PER_FRAME, 20, pool);
+        chunker.append(source(960, 0), AudioChunker.NO_TIMESTAMP, collect);
+        assertEquals(List.of(AudioChunker.NO_TIMESTAMP), timestamps);
+    }
+
+    @Test
+    void resetDiscardsPartialChunk() {
+        AudioChunker chunker = new AudioChunker(SAMPLE_RATE, BYTES_PER_FRAME, 20, pool);
+        chunker.append(source(500, 0), 0, collect);
+        assertTrue(chunks.isEmpty());
+
+        chunker.reset();
+        chunker.append(source(960, 7), 5_000_000, collect);
+        assertEquals(1, chunks.size());
+        assertEquals(5_000_000L, timestamps.get(0));
+        assertEquals((byte) 7, chunks.get(0).get(0));
+    }
+
+    @Test
+    void rejectedChunksAreNotCounted() {
+        AudioChunker chunker = new AudioChunker(SAMPLE_RATE, BYTES_PER_FRAME, 20, pool);
+        List<ByteBuffer> offered = new ArrayList<>();
+        int accepted = chunker.append(source(960 * 3, 0), 0, (chunk, timestampUs) -> {
+            offered.add(chunk);
+            return offered.size() != 2;
+        });
+        assertEquals(3, offered.size());
+        assertEquals(2, accepted);
+    }
+
+    @Test
+    void sourceBufferIsReturnedToPool() {
+        AudioChunker chunker = new AudioChunker(SAMPLE_RATE, BYTES_PER_FRAME, 20, pool);
+        ByteBuffer source = source(100, 0);
+        chunker.append(source, 0, collect);
+        assertSame(source, pool.acquire(16));
+    }
+}
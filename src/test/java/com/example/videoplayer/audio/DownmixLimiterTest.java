@@ -0,0 +1,70 @@
+package com.example.videoplayer.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownmixLimiterTest {
+
+    private static float[][] block(float value, int samples) {
+        float[][] planes = new float[2][samples];
+        Arrays.fill(planes[0], value);
+        Arrays.fill(planes[1], -value);
+        return planes;
+    }
+
+    private static float peak(float[][] planes) {
+        float peak = 0f;
+        for (float[] plane : planes) {
+            for (float sample : plane) {
+                peak = Math.max(peak, Math.abs(sample));
+            }
+        }
+        return peak;
+    }
+
+    @Test
+    void signalBelowCeilingPassesUnchanged() {
+        DownmixLimiter limiter = new DownmixLimiter();
+        float[][] planes = block(0.9f, 512);
+        limiter.process(planes, 2, 512);
+        assertEquals(0.9f, planes[0][0]);
+        assertEquals(-0.9f, planes[1][511]);
+        assertEquals(1f, limiter.getGain());
+    }
+
+    @Test
+    void overBlockIsLimitedImmediately() {
+        DownmixLimiter limiter = new DownmixLimiter();
+        float[][] planes = block(0.5f, 1024);
+        planes[0][700] = 2.0f;
+        limiter.process(planes, 2, 1024);
+        assertEquals(DownmixLimiter.CEILING, peak(planes), 1e-6f);
+        assertEquals(DownmixLimiter.CEILING / 2.0f, limiter.getGain(), 1e-6f);
+    }
+
+    @Test
+    void gainRecoversGraduallyWithoutExceedingCeiling() {
+        DownmixLimiter limiter = new DownmixLimiter();
+        limiter.process(block(2.0f, 1024), 2, 1024);
+        float previous = limiter.getGain();
+
+        // 峰值回落后每块增益只回升一部分，且全程不超过上限
+        for (int i = 0; i < 20; i++) {
+            float[][] planes = block(0.9f, 1024);
+            limiter.process(planes, 2, 1024);
+            float gain = limiter.getGain();
+            assertTrue(gain > previous, "增益应回升");
+            assertTrue(gain - previous < 0.15f, "增益不应跳变：" + previous + " → " + gain);
+            assertTrue(peak(planes) <= DownmixLimiter.CEILING + 1e-6f);
+            // 块内线性过渡：首尾样本的增益分别为上一块与本块结束时的增益
+            assertEquals(0.9f * previous, planes[0][0], 1e-5f);
+            assertEquals(0.9f * gain, planes[0][1023], 1e-5f);
+            previous = gain;
+        }
+        // 20块约427ms（48kHz），超过两个释放时间常数
+        assertTrue(previous > 0.9f, "两个时间常数后增益应基本恢复：" + previous);
+    }
+}
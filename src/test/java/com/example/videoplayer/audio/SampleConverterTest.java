@@ -0,0 +1,149 @@
+package com.example.videoplayer.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class SampleConverterTest {
+    private final PcmBufferPool pool = new PcmBufferPool(4);
+
+    private static FloatBuffer[] floatPlanes(float[]... planes) {
+        FloatBuffer[] buffers = new FloatBuffer[planes.length];
+        for (int c = 0; c < planes.length; c++) {
+            buffers[c] = FloatBuffer.wrap(planes[c]);
+        }
+        return buffers;
+    }
+
+    private static float[][] randomPlanes(int channels, int samples, float amplitude, long seed) {
+        Random random = new Random(seed);
+        float[][] planes = new float[channels][samples];
+        for (float[] plane : planes) {
+            for (int i = 0; i < samples; i++) {
+                plane[i] = (random.nextFloat() * 2 - 1) * amplitude;
+            }
+        }
+        return planes;
+    }
+
+    private static short[] shorts(ByteBuffer buffer) {
+        ShortBuffer view = buffer.asShortBuffer();
+        short[] result = new short[view.remaining()];
+        view.get(result);
+        return result;
+    }
+
+    private static float[] floats(ByteBuffer buffer) {
+        FloatBuffer view = buffer.asFloatBuffer();
+        float[] result = new float[view.remaining()];
+        view.get(result);
+        return result;
+    }
+
+    private static boolean vectorAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    @Test
+    void stereoFloatPlanarInterleavesAndClampsToS16() {
+        SampleConverter converter = new SampleConverter(2, false);
+        short[] out = shorts(converter.convertFloatPlanar(
+                floatPlanes(new float[]{0.5f, 1.5f}, new float[]{-0.5f, -1.5f}), 2, pool));
+        assertArrayEquals(new short[]{16383, -16383, 32767, -32767}, out);
+    }
+
+    @Test
+    void fivePointOneKeepsFrontChannelsAtUnityGain() {
+        SampleConverter converter = new SampleConverter(6, true);
+        float[] silence = new float[4];
+        float[] signal = {0.5f, 0.5f, 0.5f, 0.5f};
+
+        // 仅FL：左声道原样输出（旧的归一化矩阵会压到约0.21）
+        float[] out = floats(converter.convertFloatPlanar(
+                floatPlanes(signal, silence, silence, silence, silence, silence), 4, pool));
+        assertEquals(0.5f, out[0], 1e-6f);
+        assertEquals(0f, out[1], 1e-6f);
+
+        // 仅FC：-3dB分到左右
+        out = floats(converter.convertFloatPlanar(
+                floatPlanes(silence, silence, signal, silence, silence, silence), 4, pool));
+        assertEquals(0.5f * 0.70710677f, out[0], 1e-6f);
+        assertEquals(0.5f * 0.70710677f, out[1], 1e-6f);
+
+        // LFE不参与下混
+        out = floats(converter.convertFloatPlanar(
+                floatPlanes(silence, silence, silence, signal, silence, silence), 4, pool));
+        assertEquals(0f, out[0], 1e-6f);
+        assertEquals(0f, out[1], 1e-6f);
+    }
+
+    @Test
+    void fullScaleFivePointOneIsLimitedInsteadOfClipped() {
+        SampleConverter converter = new SampleConverter(6, false);
+        float[] full = new float[1024];
+        java.util.Arrays.fill(full, 1f);
+        short[] out = shorts(converter.convertFloatPlanar(
+                floatPlanes(full, full, full, full, full, full), full.length, pool));
+        for (short sample : out) {
+            assertTrue(sample <= (short) (DownmixLimiter.CEILING * 32767f) + 1, "样本超出限幅上限：" + sample);
+            assertTrue(sample > 30000, "限幅后响度不应被过度压低：" + sample);
+        }
+    }
+
+    @Test
+    void vectorMatchesScalarForStereoS16() {
+        assumeTrue(vectorAvailable(), "需要 --add-modules jdk.incubator.vector");
+        int samples = 1021;
+        float[][] planes = randomPlanes(2, samples, 1.2f, 1);
+        short[] scalar = shorts(new SampleConverter(2, false).convertFloatPlanar(floatPlanes(planes), samples, pool));
+        short[] vector = shorts(new VectorSampleConverter(2, false).convertFloatPlanar(floatPlanes(planes), samples, pool));
+        assertArrayEquals(scalar, vector);
+    }
+
+    @Test
+    void vectorMatchesScalarForS16PlanarInput() {
+        assumeTrue(vectorAvailable(), "需要 --add-modules jdk.incubator.vector");
+        int samples = 999;
+        Random random = new Random(2);
+        ShortBuffer[] planes = new ShortBuffer[2];
+        for (int c = 0; c < planes.length; c++) {
+            short[] data = new short[samples];
+            for (int i = 0; i < samples; i++) {
+                data[i] = (short) random.nextInt();
+            }
+            planes[c] = ShortBuffer.wrap(data);
+        }
+        short[] scalar = shorts(new SampleConverter(2, false).convertS16Planar(planes, samples, pool));
+        short[] vector = shorts(new VectorSampleConverter(2, false).convertS16Planar(planes, samples, pool));
+        assertArrayEquals(scalar, vector);
+    }
+
+    @Test
+    void vectorMatchesScalarForFivePointOneDownmix() {
+        assumeTrue(vectorAvailable(), "需要 --add-modules jdk.incubator.vector");
+        int samples = 1027;
+        SampleConverter scalarS16 = new SampleConverter(6, false);
+        SampleConverter vectorS16 = new VectorSampleConverter(6, false);
+        SampleConverter scalarFloat = new SampleConverter(6, true);
+        SampleConverter vectorFloat = new VectorSampleConverter(6, true);
+        // 连续多块：限幅器状态在两种实现间保持一致
+        for (int block = 0; block < 4; block++) {
+            float[][] planes = randomPlanes(6, samples, block % 2 == 0 ? 1f : 0.2f, 10 + block);
+            short[] scalar = shorts(scalarS16.convertFloatPlanar(floatPlanes(planes), samples, pool));
+            short[] vector = shorts(vectorS16.convertFloatPlanar(floatPlanes(planes), samples, pool));
+            assertEquals(scalar.length, vector.length);
+            for (int i = 0; i < scalar.length; i++) {
+                // FMA与逐项乘加的舍入差异至多1个量化步长
+                assertEquals(scalar[i], vector[i], 1, "样本" + i);
+            }
+            assertArrayEquals(floats(scalarFloat.convertFloatPlanar(floatPlanes(planes), samples, pool)),
+                    floats(vectorFloat.convertFloatPlanar(floatPlanes(planes), samples, pool)), 1e-5f);
+        }
+    }
+}
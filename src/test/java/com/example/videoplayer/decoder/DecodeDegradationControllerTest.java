@@ -0,0 +1,103 @@
+package com.example.videoplayer.decoder;
+
+import org.bytedeco.ffmpeg.avcodec.AVCodec;
+import org.bytedeco.ffmpeg.avcodec.AVCodecContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.bytedeco.ffmpeg.global.avcodec.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecodeDegradationControllerTest {
+    private AVCodecContext context;
+    private DecodeDegradationController controller;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        context = avcodec_alloc_context3((AVCodec) null);
+        controller = new DecodeDegradationController(context);
+        // 越过构造时开始的首个保持期
+        now = System.currentTimeMillis() + 1_000;
+    }
+
+    @AfterEach
+    void tearDown() {
+        avcodec_free_context(context);
+    }
+
+    // 以每帧40ms的节奏喂入相同的滞后，持续durationMs
+    private void feed(double lagMs, boolean headroom, long durationMs) {
+        for (long t = 0; t < durationMs; t += 40) {
+            now += 40;
+            controller.observe(lagMs, headroom, now);
+        }
+    }
+
+    @Test
+    void sustainedLagEscalatesOneLevelPerHold() {
+        feed(500, false, 200);
+        assertEquals(DecodeDegradationController.LEVEL_SKIP_LOOP_FILTER, controller.getLevel());
+        assertEquals(AVDISCARD_ALL, context.skip_loop_filter());
+        assertEquals(AVDISCARD_DEFAULT, context.skip_frame());
+
+        // 保持期内不再升级
+        feed(500, false, 700);
+        assertEquals(DecodeDegradationController.LEVEL_SKIP_LOOP_FILTER, controller.getLevel());
+
+        feed(500, false, 200);
+        assertEquals(DecodeDegradationController.LEVEL_SKIP_NONREF, controller.getLevel());
+        assertEquals(AVDISCARD_NONREF, context.skip_frame());
+
+        feed(500, false, 1_100);
+        assertEquals(DecodeDegradationController.LEVEL_KEYFRAME_ONLY, controller.getLevel());
+        assertEquals(AVDISCARD_NONKEY, context.skip_frame());
+
+        // 已是最高级别
+        feed(500, false, 5_000);
+        assertEquals(DecodeDegradationController.LEVEL_KEYFRAME_ONLY, controller.getLevel());
+    }
+
+    @Test
+    void shortLagSpikeIsSmoothedAway() {
+        // 单帧滞后经平滑后仍低于升级阈值
+        controller.observe(600, false, now += 40);
+        feed(0, false, 2_000);
+        assertEquals(DecodeDegradationController.LEVEL_NONE, controller.getLevel());
+    }
+
+    @Test
+    void recoveryRequiresSustainedHeadroom() {
+        feed(500, false, 1_500);
+        assertEquals(DecodeDegradationController.LEVEL_SKIP_NONREF, controller.getLevel());
+
+        // 余量不足RECOVER_HOLD_MS时不降级
+        feed(0, false, 2_000);
+        assertEquals(DecodeDegradationController.LEVEL_SKIP_NONREF, controller.getLevel());
+        // 中途滞后回升，余量计时重新开始
+        feed(100, false, 400);
+        feed(0, false, 2_800);
+        assertEquals(DecodeDegradationController.LEVEL_SKIP_NONREF, controller.getLevel());
+
+        feed(0, false, 600);
+        assertEquals(DecodeDegradationController.LEVEL_SKIP_LOOP_FILTER, controller.getLevel());
+        assertEquals(AVDISCARD_DEFAULT, context.skip_frame());
+        assertEquals(AVDISCARD_ALL, context.skip_loop_filter());
+
+        // 降级同样受保持期约束：保持期结束后才开始计算余量时间
+        feed(0, false, 4_000);
+        assertEquals(DecodeDegradationController.LEVEL_NONE, controller.getLevel());
+        assertEquals(AVDISCARD_DEFAULT, context.skip_loop_filter());
+    }
+
+    @Test
+    void fullFrameQueueCountsAsHeadroom() {
+        feed(500, false, 200);
+        assertEquals(DecodeDegradationController.LEVEL_SKIP_LOOP_FILTER, controller.getLevel());
+
+        // 滞后仍在升级与恢复阈值之间，但帧队列已满
+        feed(100, true, 4_000);
+        assertEquals(DecodeDegradationController.LEVEL_NONE, controller.getLevel());
+    }
+}
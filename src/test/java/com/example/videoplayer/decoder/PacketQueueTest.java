@@ -0,0 +1,135 @@
+package com.example.videoplayer.decoder;
+
+import org.bytedeco.ffmpeg.avcodec.AVPacket;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.bytedeco.ffmpeg.global.avcodec.av_packet_alloc;
+import static org.bytedeco.ffmpeg.global.avcodec.av_packet_free;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PacketQueueTest {
+
+    static AVPacket packet(long duration) {
+        AVPacket packet = av_packet_alloc();
+        packet.duration(duration);
+        return packet;
+    }
+
+    @Test
+    void bufferedMsUsesPacketDurationOrDefault() throws InterruptedException {
+        // 1 tick = 1ms，默认时长40ms
+        PacketQueue queue = new PacketQueue("test", 1.0, 40, 1000);
+        assertTrue(queue.offer(packet(20), 0));
+        assertTrue(queue.offer(packet(0), 0));
+        assertEquals(60, queue.getBufferedMs());
+        assertEquals(2, queue.size());
+
+        AVPacket first = queue.take(0);
+        assertEquals(20, first.duration());
+        av_packet_free(first);
+        assertEquals(40, queue.getBufferedMs());
+        queue.close();
+    }
+
+    @Test
+    void durationsStayPairedWithPacketsAcrossRingWrap() throws InterruptedException {
+        PacketQueue queue = new PacketQueue("test", 1.0, 40, 1_000_000);
+        // 始终保持3个包在队列中，出入队次数超过时长环形数组容量（4096）
+        for (long i = 1; i <= 3; i++) {
+            assertTrue(queue.offer(packet(i), 0));
+        }
+        for (long i = 4; i <= 10_000; i++) {
+            assertTrue(queue.offer(packet(i), 0));
+            AVPacket taken = queue.take(0);
+            assertEquals(i - 3, taken.duration());
+            av_packet_free(taken);
+            assertEquals((i - 2) + (i - 1) + i, queue.getBufferedMs());
+        }
+        queue.close();
+        assertEquals(0, queue.getBufferedMs());
+    }
+
+    @Test
+    void offerTimesOutWhenBufferedMsReachesLimit() throws InterruptedException {
+        PacketQueue queue = new PacketQueue("test", 1.0, 40, 100);
+        assertTrue(queue.offer(packet(50), 0));
+        assertTrue(queue.offer(packet(50), 0));
+
+        AVPacket extra = packet(50);
+        long start = System.nanoTime();
+        assertFalse(queue.offer(extra, 30));
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(waitedMs >= 25, "应等待约30ms，实际" + waitedMs + "ms");
+        // 超时后包仍归调用方所有
+        assertFalse(extra.isNull());
+        assertFalse(queue.offer(extra, 0));
+
+        av_packet_free(queue.take(0));
+        assertTrue(queue.offer(extra, 0));
+        assertEquals(100, queue.getBufferedMs());
+        queue.close();
+    }
+
+    @Test
+    void oversizedPacketIsAcceptedIntoEmptyQueue() throws InterruptedException {
+        PacketQueue queue = new PacketQueue("test", 1.0, 40, 100);
+        assertTrue(queue.offer(packet(500), 0));
+        assertEquals(500, queue.getBufferedMs());
+        queue.close();
+    }
+
+    @Test
+    void blockedOfferResumesWhenConsumerTakes() throws Exception {
+        PacketQueue queue = new PacketQueue("test", 1.0, 40, 40);
+        assertTrue(queue.offer(packet(40), 0));
+
+        CountDownLatch offered = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                if (queue.offer(packet(40), 5000)) {
+                    offered.countDown();
+                }
+            } catch (InterruptedException ignored) {
+            }
+        });
+        producer.start();
+        assertFalse(offered.await(50, TimeUnit.MILLISECONDS));
+        av_packet_free(queue.take(0));
+        assertTrue(offered.await(1, TimeUnit.SECONDS));
+        producer.join();
+        queue.close();
+    }
+
+    @Test
+    void takeTimesOutOnEmptyQueue() throws InterruptedException {
+        PacketQueue queue = new PacketQueue("test", 1.0, 40, 100);
+        long start = System.nanoTime();
+        assertNull(queue.take(30));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 25);
+        queue.close();
+    }
+
+    @Test
+    void closeWakesWaitersAndFreesLatePackets() throws Exception {
+        PacketQueue queue = new PacketQueue("test", 1.0, 40, 40);
+        assertTrue(queue.offer(packet(40), 0));
+
+        Thread producer = new Thread(() -> {
+            try {
+                // 关闭后返回true，包已被队列释放
+                assertTrue(queue.offer(packet(40), 5000));
+            } catch (InterruptedException ignored) {
+            }
+        });
+        producer.start();
+        Thread.sleep(30);
+        queue.close();
+        producer.join(1000);
+        assertFalse(producer.isAlive());
+        assertNull(queue.take(1000));
+        assertTrue(queue.offer(packet(40), 0));
+    }
+}
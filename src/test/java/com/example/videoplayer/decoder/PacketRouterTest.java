@@ -0,0 +1,172 @@
+package com.example.videoplayer.decoder;
+
+import org.bytedeco.ffmpeg.avcodec.AVPacket;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.bytedeco.ffmpeg.global.avcodec.AV_PKT_FLAG_KEY;
+import static org.bytedeco.ffmpeg.global.avcodec.av_packet_free;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PacketRouterTest {
+    private static final long WAIT_MS = 10;
+
+    private static AVPacket videoPacket(boolean key) {
+        AVPacket packet = PacketQueueTest.packet(40);
+        packet.flags(key ? AV_PKT_FLAG_KEY : 0);
+        return packet;
+    }
+
+    // 按解复用的方式驱动分发：先重试待入队音频包，成功后再送入新包
+    private static void demux(PacketRouter router, AVPacket packet, boolean video) throws InterruptedException {
+        while (!router.retryPending()) {
+            // 音频包队列仍满
+        }
+        if (video) {
+            router.routeVideo(packet);
+        } else {
+            router.routeAudio(packet);
+        }
+    }
+
+    @Test
+    void stalledVideoConsumerDoesNotStarveAudio() throws Exception {
+        PacketQueue video = new PacketQueue("video", 1.0, 40, 200);
+        PacketQueue audio = new PacketQueue("audio", 1.0, 20, 200);
+        PacketRouter router = new PacketRouter(video, audio, 400, WAIT_MS);
+
+        // 只消费音频，视频解码线程“卡住”从不取包
+        int packetCount = 500;
+        int audioPacketCount = packetCount * 2;
+        AtomicInteger audioReceived = new AtomicInteger();
+        Thread audioConsumer = new Thread(() -> {
+            try {
+                while (audioReceived.get() < audioPacketCount) {
+                    AVPacket packet = audio.take(1000);
+                    if (packet == null) {
+                        return;
+                    }
+                    av_packet_free(packet);
+                    audioReceived.incrementAndGet();
+                }
+            } catch (InterruptedException ignored) {
+            }
+        });
+        audioConsumer.start();
+
+        Thread demuxer = new Thread(() -> {
+            try {
+                for (int i = 0; i < packetCount; i++) {
+                    demux(router, videoPacket(i % 25 == 0), true);
+                    demux(router, PacketQueueTest.packet(20), false);
+                    demux(router, PacketQueueTest.packet(20), false);
+                }
+                while (!router.retryPending()) {
+                    // 等待最后一个音频包入队
+                }
+            } catch (InterruptedException ignored) {
+            }
+        });
+        demuxer.start();
+
+        demuxer.join(10_000);
+        audioConsumer.join(10_000);
+        assertFalse(demuxer.isAlive(), "视频包队列满时解复用不应阻塞");
+        assertEquals(audioPacketCount, audioReceived.get());
+
+        // 视频侧缓冲有界：队列满 + 停放不超过上限，其余按关键帧边界丢弃
+        assertTrue(video.getBufferedMs() >= 200);
+        assertTrue(router.getParkedMs() <= 400);
+        assertTrue(router.getDroppedVideoPackets() > 0);
+
+        router.close();
+        video.close();
+        audio.close();
+        audioConsumer.join(1000);
+    }
+
+    @Test
+    void parkedVideoIsFlushedInOrder() throws Exception {
+        PacketQueue video = new PacketQueue("video", 1.0, 40, 80);
+        PacketQueue audio = new PacketQueue("audio", 1.0, 20, 1000);
+        PacketRouter router = new PacketRouter(video, audio, 1000, WAIT_MS);
+
+        AVPacket[] sent = new AVPacket[4];
+        for (int i = 0; i < sent.length; i++) {
+            sent[i] = videoPacket(i == 0);
+            router.routeVideo(sent[i]);
+        }
+        assertEquals(2, video.size());
+        assertEquals(80, router.getParkedMs());
+
+        for (AVPacket expected : sent) {
+            AVPacket packet = video.take(0);
+            assertEquals(expected.address(), packet.address());
+            av_packet_free(packet);
+            assertTrue(router.retryPending());
+        }
+        assertEquals(0, router.getParkedMs());
+        assertEquals(0, router.getDroppedVideoPackets());
+
+        router.close();
+        video.close();
+        audio.close();
+    }
+
+    @Test
+    void overflowSkipsToNextKeyframe() throws Exception {
+        PacketQueue video = new PacketQueue("video", 1.0, 40, 40);
+        PacketQueue audio = new PacketQueue("audio", 1.0, 20, 1000);
+        PacketRouter router = new PacketRouter(video, audio, 80, WAIT_MS);
+
+        router.routeVideo(videoPacket(true));
+        // 停放两个包（80ms）未超上限，第三个使停放超限：三个全部丢弃
+        router.routeVideo(videoPacket(false));
+        router.routeVideo(videoPacket(false));
+        assertEquals(0, router.getDroppedVideoPackets());
+        router.routeVideo(videoPacket(false));
+        assertEquals(3, router.getDroppedVideoPackets());
+        assertEquals(0, router.getParkedMs());
+
+        // 跳帧期间非关键帧直接丢弃
+        av_packet_free(video.take(0));
+        router.routeVideo(videoPacket(false));
+        assertEquals(4, router.getDroppedVideoPackets());
+        assertEquals(0, video.size());
+
+        // 关键帧恢复正常入队
+        router.routeVideo(videoPacket(true));
+        AVPacket packet = video.take(0);
+        assertNotNull(packet);
+        assertEquals(AV_PKT_FLAG_KEY, packet.flags() & AV_PKT_FLAG_KEY);
+        av_packet_free(packet);
+
+        router.close();
+        video.close();
+        audio.close();
+    }
+
+    @Test
+    void videoOnlyStreamWaitsForConsumerInsteadOfDropping() throws Exception {
+        PacketQueue video = new PacketQueue("video", 1.0, 40, 40);
+        PacketRouter router = new PacketRouter(video, null, 40, WAIT_MS);
+        router.routeVideo(videoPacket(true));
+
+        Thread consumer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+                av_packet_free(video.take(0));
+            } catch (InterruptedException ignored) {
+            }
+        });
+        consumer.start();
+        router.routeVideo(videoPacket(false));
+        consumer.join();
+
+        assertEquals(1, video.size());
+        assertEquals(0, router.getDroppedVideoPackets());
+        router.close();
+        video.close();
+    }
+}
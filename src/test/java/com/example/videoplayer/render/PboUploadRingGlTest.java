@@ -0,0 +1,110 @@
+package com.example.videoplayer.render;
+
+import com.example.videoplayer.util.VideoPlayerConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.glfw.GLFW;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GLCapabilities;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PboUploadRing在真实GL驱动上的冒烟测试：两种模式各上传多帧，每次上传后检查glGetError并回读纹理比对像素
+ * 需要可创建GL上下文的显示环境，否则整类跳过；用Mesa llvmpipe验证：
+ * LIBGL_ALWAYS_SOFTWARE=1 xvfb-run ./gradlew test --tests '*PboUploadRingGlTest'
+ */
+class PboUploadRingGlTest {
+    private static final int WIDTH = 64;
+    private static final int HEIGHT = 48;
+    private static final int FRAMES = 20;
+
+    private static long window = 0;
+
+    @BeforeAll
+    static void createContext() {
+        Assumptions.assumeTrue(GLFW.glfwInit(), "无法初始化GLFW（无显示环境）");
+        GLFW.glfwDefaultWindowHints();
+        GLFW.glfwWindowHint(GLFW.GLFW_VISIBLE, GLFW.GLFW_FALSE);
+        window = GLFW.glfwCreateWindow(16, 16, "PboUploadRingGlTest", 0, 0);
+        Assumptions.assumeTrue(window != 0, "无法创建GL上下文");
+        GLFW.glfwMakeContextCurrent(window);
+        GL.createCapabilities();
+        System.out.println("[PboUploadRingGlTest] GL_RENDERER=" + GL11.glGetString(GL11.GL_RENDERER)
+                + "，GL_VERSION=" + GL11.glGetString(GL11.GL_VERSION));
+    }
+
+    @AfterAll
+    static void destroyContext() {
+        VideoPlayerConfig.pboPersistentMapping = true;
+        if (window != 0) {
+            GL.setCapabilities(null);
+            GLFW.glfwDestroyWindow(window);
+            window = 0;
+        }
+        GLFW.glfwTerminate();
+    }
+
+    @Test
+    void persistentMappingUploadsEveryFrame() {
+        GLCapabilities caps = GL.getCapabilities();
+        Assumptions.assumeTrue(caps.OpenGL44 || caps.GL_ARB_buffer_storage, "驱动不支持持久映射");
+        VideoPlayerConfig.pboPersistentMapping = true;
+        uploadFrames(true);
+    }
+
+    @Test
+    void orphanModeUploadsEveryFrame() {
+        VideoPlayerConfig.pboPersistentMapping = false;
+        uploadFrames(false);
+    }
+
+    private static void uploadFrames(boolean persistent) {
+        PboUploadRing ring = PboUploadRing.create(WIDTH, HEIGHT, 3);
+        assertNotNull(ring, "PBO环创建失败");
+        assertEquals(persistent, ring.isPersistent());
+        int texture = GL11.glGenTextures();
+        ByteBuffer readback = MemoryUtil.memAlloc(WIDTH * HEIGHT * 4);
+        try {
+            for (int frame = 0; frame < FRAMES; frame++) {
+                // 上一帧的uploadLatest已回收（持久模式）或重新映射（孤立模式）槽位，总有可写槽位
+                PboUploadRing.Slot slot = ring.acquireForWrite();
+                assertNotNull(slot, "第" + frame + "帧没有可写槽位");
+                ByteBuffer target = slot.buffer();
+                for (int i = 0; i < target.limit(); i++) {
+                    target.put(i, pattern(i, frame));
+                }
+                ring.publish(slot);
+
+                GL11.glBindTexture(GL11.GL_TEXTURE_2D, texture);
+                GL11.glPixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
+                assertTrue(ring.uploadLatest(frame == 0), "第" + frame + "帧未提交上传");
+                assertEquals(GL11.GL_NO_ERROR, GL11.glGetError(), "第" + frame + "帧上传后GL错误");
+
+                GL11.glPixelStorei(GL11.GL_PACK_ALIGNMENT, 1);
+                GL11.glGetTexImage(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, readback);
+                assertEquals(GL11.GL_NO_ERROR, GL11.glGetError(), "第" + frame + "帧回读GL错误");
+                for (int i = 0; i < readback.capacity(); i++) {
+                    assertEquals(pattern(i, frame), readback.get(i), "第" + frame + "帧字节" + i);
+                }
+                GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
+            }
+            assertFalse(ring.hasPendingFrame());
+        } finally {
+            MemoryUtil.memFree(readback);
+            GL11.glDeleteTextures(texture);
+            ring.destroy();
+        }
+        assertEquals(GL11.GL_NO_ERROR, GL11.glGetError(), "销毁后GL错误");
+    }
+
+    private static byte pattern(int index, int frame) {
+        return (byte) (index * 7 + frame * 13);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.videoplayer.render;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RgbaFrameConverterTest {
+
+    private static int[] randomPixels(int width, int height) {
+        int[] pixels = new int[width * height];
+        Random random = new Random(width * 31L + height);
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = random.nextInt();
+        }
+        return pixels;
+    }
+
+    // 逐像素参考实现：目标第y行 = 源第(h-1-y)行，字节序R,G,B,A
+    private static void assertFlippedRgba(int[] argb, ByteBuffer target, int width, int height) {
+        assertEquals(0, target.position());
+        assertEquals(width * height * 4, target.limit());
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int pixel = argb[(height - 1 - y) * width + x];
+                int offset = (y * width + x) * 4;
+                String where = "(" + x + "," + y + ")";
+                assertEquals((byte) (pixel >> 16), target.get(offset), "R " + where);
+                assertEquals((byte) (pixel >> 8), target.get(offset + 1), "G " + where);
+                assertEquals((byte) pixel, target.get(offset + 2), "B " + where);
+                assertEquals((byte) (pixel >>> 24), target.get(offset + 3), "A " + where);
+            }
+        }
+    }
+
+    @Test
+    void smallFrameIsConvertedInSingleStripe() {
+        RgbaFrameConverter converter = new RgbaFrameConverter(37, 23);
+        assertEquals(1, converter.getStripeCount());
+
+        int[] pixels = randomPixels(37, 23);
+        ByteBuffer target = ByteBuffer.allocateDirect(37 * 23 * 4);
+        converter.convert(pixels, target);
+        assertFlippedRgba(pixels, target, 37, 23);
+    }
+
+    @Test
+    void stripeCountFollowsPoolAndMinimumRows() {
+        int parallelism = new RgbaFrameConverter(1920, 1080).getStripeCount();
+        assertTrue(parallelism >= 1 && parallelism <= 4, "条带数=" + parallelism);
+        // 每条带至少64行
+        assertEquals(Math.min(parallelism, 2), new RgbaFrameConverter(8000, 128).getStripeCount());
+        // 720p以下不切分
+        assertEquals(1, new RgbaFrameConverter(1279, 720).getStripeCount());
+    }
+
+    @Test
+    void largeFrameMatchesReferenceAcrossStripeBoundaries() {
+        // 行数不能被条带数整除，末条带较短
+        int width = 1280;
+        int height = 723;
+        RgbaFrameConverter converter = new RgbaFrameConverter(width, height);
+        int[] pixels = randomPixels(width, height);
+        ByteBuffer target = ByteBuffer.allocateDirect(width * height * 4);
+        converter.convert(pixels, target);
+        assertFlippedRgba(pixels, target, width, height);
+    }
+
+    @Test
+    void convertCanBeRepeatedIntoLargerTarget() {
+        RgbaFrameConverter converter = new RgbaFrameConverter(1280, 720);
+        ByteBuffer target = ByteBuffer.allocateDirect(1280 * 720 * 4 + 64);
+        target.position(100);
+        for (int round = 0; round < 3; round++) {
+            int[] pixels = randomPixels(1280, 720 + round);
+            converter.convert(pixels, target);
+            assertFlippedRgba(pixels, target, 1280, 720);
+        }
+    }
+}
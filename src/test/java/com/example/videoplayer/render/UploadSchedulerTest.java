@@ -0,0 +1,64 @@
+package com.example.videoplayer.render;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadSchedulerTest {
+    // 1080p RGBA一行
+    private static final long ROW_BYTES = 1920 * 4;
+
+    @Test
+    void rowsFollowInitialEstimate() {
+        UploadScheduler scheduler = new UploadScheduler();
+        assertEquals(0.5, scheduler.getNanosPerByte());
+        // 每行3840ns，1ms内260.4行
+        assertEquals(260, scheduler.rowsWithin(1_000_000, ROW_BYTES, 1));
+        // YUV按2行对齐向下取整
+        assertEquals(260, scheduler.rowsWithin(1_000_000, ROW_BYTES, 2));
+        assertEquals(258, scheduler.rowsWithin(995_000, ROW_BYTES, 2));
+    }
+
+    @Test
+    void exhaustedBudgetStillAdvancesByAlignment() {
+        UploadScheduler scheduler = new UploadScheduler();
+        assertEquals(1, scheduler.rowsWithin(0, ROW_BYTES, 1));
+        assertEquals(2, scheduler.rowsWithin(0, ROW_BYTES, 2));
+        assertEquals(2, scheduler.rowsWithin(1_000, ROW_BYTES, 2));
+    }
+
+    @Test
+    void hugeBudgetIsClampedToIntRange() {
+        UploadScheduler scheduler = new UploadScheduler();
+        int rows = scheduler.rowsWithin(Long.MAX_VALUE, 1, 2);
+        assertEquals(Integer.MAX_VALUE - 1, rows);
+        // rowBytes为0按1字节处理，不除零
+        assertEquals(2_000, scheduler.rowsWithin(1_000, 0, 1));
+    }
+
+    @Test
+    void recordSmoothsTowardMeasuredCost() {
+        UploadScheduler scheduler = new UploadScheduler();
+        // 实测2ns/字节：每次向实测值靠近20%
+        scheduler.record(1 << 20, 2L << 20);
+        assertEquals(0.8, scheduler.getNanosPerByte(), 1e-9);
+        for (int i = 0; i < 100; i++) {
+            scheduler.record(1 << 20, 2L << 20);
+        }
+        assertEquals(2.0, scheduler.getNanosPerByte(), 1e-6);
+        // 变慢后同一预算内上传的行数相应减少
+        assertEquals(65, scheduler.rowsWithin(1_000_000, ROW_BYTES, 1));
+    }
+
+    @Test
+    void smallOrInvalidSamplesAreIgnored() {
+        UploadScheduler scheduler = new UploadScheduler();
+        // 小于64KB的上传以调用开销为主
+        scheduler.record(64 * 1024 - 1, 10_000_000);
+        scheduler.record(1 << 20, 0);
+        assertEquals(0.5, scheduler.getNanosPerByte());
+
+        scheduler.record(64 * 1024, 64 * 1024);
+        assertEquals(0.6, scheduler.getNanosPerByte(), 1e-9);
+    }
+}
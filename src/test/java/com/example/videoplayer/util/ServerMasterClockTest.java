@@ -0,0 +1,48 @@
+package com.example.videoplayer.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerMasterClockTest {
+
+    @Test
+    void notStartedUntilFirstUpdate() {
+        ServerMasterClock clock = new ServerMasterClock();
+        clock.onFirstFrame();
+        assertEquals(MasterClock.NOT_STARTED, clock.getPositionUs());
+
+        clock.update(5_000_000);
+        long position = clock.getPositionUs();
+        assertTrue(position >= 5_000_000 && position < 5_500_000, "位置=" + position);
+    }
+
+    @Test
+    void positionExtrapolatesBetweenUpdates() throws InterruptedException {
+        ServerMasterClock clock = new ServerMasterClock();
+        clock.update(1_000_000);
+        Thread.sleep(50);
+        assertTrue(clock.getPositionUs() >= 1_050_000);
+    }
+
+    @Test
+    void smallBackwardUpdateDoesNotRewind() {
+        ServerMasterClock clock = new ServerMasterClock();
+        clock.update(10_000_000);
+        // 网络延迟导致的落后（≤1秒）保持外推值
+        clock.update(9_500_000);
+        assertTrue(clock.getPositionUs() >= 10_000_000);
+    }
+
+    @Test
+    void largeJumpIsAdoptedInBothDirections() {
+        ServerMasterClock clock = new ServerMasterClock();
+        clock.update(10_000_000);
+        clock.update(2_000_000);
+        long back = clock.getPositionUs();
+        assertTrue(back >= 2_000_000 && back < 3_000_000, "位置=" + back);
+
+        clock.update(60_000_000);
+        assertTrue(clock.getPositionUs() >= 60_000_000);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.videoplayer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpscRingBufferTest {
+
+    @Test
+    void rejectReturnsNewElementWhenFull() {
+        SpscRingBuffer<Integer> ring = new SpscRingBuffer<>(2, SpscRingBuffer.OverflowPolicy.REJECT);
+        assertNull(ring.push(1));
+        assertNull(ring.push(2));
+        assertEquals(3, ring.push(3));
+        assertEquals(2, ring.size());
+        assertEquals(1, ring.poll());
+        assertEquals(2, ring.poll());
+        assertNull(ring.poll());
+    }
+
+    @Test
+    void dropOldestKeepsNewestCapacityElements() {
+        List<Integer> dropped = new ArrayList<>();
+        SpscRingBuffer<Integer> ring = new SpscRingBuffer<>(3, SpscRingBuffer.OverflowPolicy.DROP_OLDEST, dropped::add);
+        for (int i = 1; i <= 4; i++) {
+            assertNull(ring.push(i));
+        }
+        // 溢出元素由消费者丢弃，逻辑占用数不超过容量
+        assertEquals(3, ring.size());
+        assertEquals(2, ring.poll());
+        assertEquals(List.of(1), dropped);
+        assertEquals(3, ring.poll());
+        assertEquals(4, ring.poll());
+        assertNull(ring.poll());
+    }
+
+    @Test
+    void dropOldestRejectsOnceOverflowSlotIsTaken() {
+        List<Integer> dropped = new ArrayList<>();
+        SpscRingBuffer<Integer> ring = new SpscRingBuffer<>(2, SpscRingBuffer.OverflowPolicy.DROP_OLDEST, dropped::add);
+        assertNull(ring.push(1));
+        assertNull(ring.push(2));
+        assertNull(ring.push(3));
+        // 消费者未取数，溢出槽位已占用
+        assertEquals(4, ring.push(4));
+        assertEquals(2, ring.poll());
+        assertEquals(List.of(1), dropped);
+    }
+
+    @Test
+    void overwriteLatestReplacesNewestElement() {
+        List<Integer> dropped = new ArrayList<>();
+        SpscRingBuffer<Integer> ring = new SpscRingBuffer<>(3, SpscRingBuffer.OverflowPolicy.OVERWRITE_LATEST, dropped::add);
+        for (int i = 1; i <= 4; i++) {
+            assertNull(ring.push(i));
+        }
+        assertEquals(1, ring.peek());
+        assertEquals(List.of(3), dropped);
+        assertEquals(1, ring.poll());
+        assertEquals(2, ring.poll());
+        assertEquals(4, ring.poll());
+        assertNull(ring.poll());
+    }
+
+    @Test
+    void singleSlotMailboxIsLatestWins() {
+        List<Integer> dropped = new ArrayList<>();
+        SpscRingBuffer<Integer> ring = new SpscRingBuffer<>(1, SpscRingBuffer.OverflowPolicy.OVERWRITE_LATEST, dropped::add);
+        assertNull(ring.push(1));
+        assertNull(ring.push(2));
+        assertEquals(1, ring.size());
+        assertEquals(2, ring.poll());
+        assertEquals(List.of(1), dropped);
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    void wrapsAroundAcrossManyLaps() {
+        SpscRingBuffer<Integer> ring = new SpscRingBuffer<>(3, SpscRingBuffer.OverflowPolicy.REJECT);
+        for (int i = 0; i < 100; i++) {
+            assertNull(ring.push(i));
+            assertNull(ring.push(i + 1000));
+            assertEquals(i, ring.poll());
+            assertEquals(i + 1000, ring.poll());
+        }
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    void drainReleasesEverything() {
+        SpscRingBuffer<Integer> ring = new SpscRingBuffer<>(4, SpscRingBuffer.OverflowPolicy.DROP_OLDEST);
+        ring.push(1);
+        ring.push(2);
+        List<Integer> drained = new ArrayList<>();
+        ring.drain(drained::add);
+        assertEquals(List.of(1, 2), drained);
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void concurrentProducerAndConsumerSeeOrderedElementsWithoutLoss() throws InterruptedException {
+        int count = 200_000;
+        AtomicLong droppedCount = new AtomicLong();
+        SpscRingBuffer<Integer> ring = new SpscRingBuffer<>(8, SpscRingBuffer.OverflowPolicy.DROP_OLDEST,
+                element -> droppedCount.incrementAndGet());
+        long[] rejected = {0};
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                if (ring.push(i) != null) {
+                    rejected[0]++;
+                }
+            }
+        });
+        producer.start();
+
+        long received = 0;
+        int last = -1;
+        while (producer.isAlive() || !ring.isEmpty()) {
+            Integer element = ring.poll();
+            if (element == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            assertTrue(element > last, "元素乱序：" + element + " <= " + last);
+            last = element;
+            received++;
+        }
+        producer.join();
+        // 每个元素恰好被消费、丢弃或拒绝一次
+        assertEquals(count, received + droppedCount.get() + rejected[0]);
+    }
+}